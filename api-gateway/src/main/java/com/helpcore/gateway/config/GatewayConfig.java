@@ -1,62 +1,297 @@
 package com.helpcore.gateway.config;
 
+import com.helpcore.gateway.filter.BulkheadFilters;
+import com.helpcore.gateway.filter.LocalRateLimiter;
+import com.helpcore.gateway.filter.RespuestaCacheFilters;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.GatewayFilterSpec;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
 @Configuration
 public class GatewayConfig {
 
+    // * Rutas con rate limit por IP (orden -1: se evalúan antes que /api/auth/** y /api/ticket/**)
+    // * login, register, crear-invitado y consultar-estado (crear-invitado y consultar-estado también con /api/tickets)
+    // * Los intentos de login masivos se cortan aquí con 429, antes de llegar a BCrypt en auth-service
+    @Bean
+    public RouteLocator rateLimitedRouteLocator(RouteLocatorBuilder builder, KeyResolver ipKeyResolver,
+                                                Environment environment, ApplicationContext context,
+                                                ConfigurationService configurationService,
+                                                BulkheadFilters bulkheadFilters) {
+        RateLimiters limiters = new RateLimiters(environment, context, configurationService);
+        Resiliencia auth = new Resiliencia(environment, bulkheadFilters, "auth-service", "auth");
+        Resiliencia ticket = new Resiliencia(environment, bulkheadFilters, "ticket-service", "ticket");
+
+        return builder.routes()
+                .route("auth-login-limitado", r -> r
+                        .order(-1)
+                        .path("/api/auth/login")
+                        .filters(f -> auth.aplicar(limitar(f, limiters.crear("login"), ipKeyResolver))
+                                .rewritePath("/api/auth/(?<segment>.*)", "/auth/${segment}")
+                                .addResponseHeader("X-Gateway-Route", "auth-service"))
+                        .metadata(auth.timeouts())
+                        .uri("lb://auth-service"))
+
+                .route("auth-register-limitado", r -> r
+                        .order(-1)
+                        .path("/api/auth/register")
+                        .filters(f -> auth.aplicar(limitar(f, limiters.crear("register"), ipKeyResolver))
+                                .rewritePath("/api/auth/(?<segment>.*)", "/auth/${segment}")
+                                .addResponseHeader("X-Gateway-Route", "auth-service"))
+                        .metadata(auth.timeouts())
+                        .uri("lb://auth-service"))
+
+                .route("ticket-crear-invitado-limitado", r -> r
+                        .order(-1)
+                        .path("/api/ticket/crear-invitado", "/api/tickets/crear-invitado")
+                        .filters(f -> ticket.aplicar(limitar(f, limiters.crear("crear-invitado"), ipKeyResolver))
+                                .rewritePath("/api/tickets?/(?<segment>.*)", "/ticket/${segment}")
+                                .addResponseHeader("X-Gateway-Route", "ticket-service"))
+                        .metadata(ticket.timeouts())
+                        .uri("lb://ticket-service"))
+
+                // Consulta pública de estado (id + email): el límite frena la enumeración de tickets
+                .route("ticket-consultar-estado-limitado", r -> r
+                        .order(-1)
+                        .path("/api/ticket/consultar-estado", "/api/tickets/consultar-estado")
+                        .filters(f -> ticket.aplicar(limitar(f, limiters.crear("consultar-estado"), ipKeyResolver))
+                                .rewritePath("/api/tickets?/(?<segment>.*)", "/ticket/${segment}")
+                                .addResponseHeader("X-Gateway-Route", "ticket-service"))
+                        .metadata(ticket.timeouts())
+                        .uri("lb://ticket-service"))
+
+                .build();
+    }
+
+    private static GatewayFilterSpec limitar(GatewayFilterSpec f, RateLimiter<?> limiter, KeyResolver keyResolver) {
+        return f.requestRateLimiter(c -> c
+                .setRateLimiter(limiter)
+                .setKeyResolver(keyResolver)
+                .setDenyEmptyKey(true));
+    }
+
+    // Limiter por defecto de RequestRateLimiter (necesario porque con Redis en el classpath hay dos RateLimiter)
+    @Bean
+    @Primary
+    public LocalRateLimiter localRateLimiter(
+            @Value("${app.gateway.rate-limit.maximo-claves:100000}") long maximoClaves,
+            @Value("${app.gateway.rate-limit.inactividad:10m}") Duration inactividad,
+            ConfigurationService configurationService) {
+        return new LocalRateLimiter(10, 20, 1, maximoClaves, inactividad, configurationService);
+    }
+
+    // * Rutas GET cacheadas en el gateway (orden -1, antes que /api/ticket/** y /api/categoria-ticket/**)
+    // * El filtro de caché va delante del circuit breaker y el bulkhead: un HIT no llega a ticket-service
+    // * TTL por ruta en app.gateway.cache.rutas.<ruta>.ttl (el Cache-Control del servicio puede acortarlo)
+    @Bean
+    public RouteLocator cachedRouteLocator(RouteLocatorBuilder builder, Environment environment,
+                                           BulkheadFilters bulkheadFilters, RespuestaCacheFilters cacheFilters) {
+        Resiliencia ticket = new Resiliencia(environment, bulkheadFilters, "ticket-service", "ticket");
+        // Las categorías son iguales para todos los usuarios: una sola entrada compartida
+        GatewayFilter categorias = cacheFilters.para("categorias", ttlCache(environment, "categorias", Duration.ofMinutes(5)), false);
+
+        return builder.routes()
+                .route("categoria-ticket-listar-cache", r -> r
+                        .order(-1)
+                        .method(HttpMethod.GET)
+                        .and()
+                        .path("/api/categoria-ticket/listar")
+                        .filters(f -> ticket.aplicar(f.filter(categorias))
+                                .rewritePath("/api/categoria-ticket/(?<segment>.*)", "/categoria-ticket/${segment}")
+                                .addResponseHeader("X-Gateway-Route", "ticket-service"))
+                        .metadata(ticket.timeouts())
+                        .uri("lb://ticket-service"))
+
+                .build();
+    }
+
+    private static Duration ttlCache(Environment environment, String ruta, Duration porDefecto) {
+        return environment.getProperty("app.gateway.cache.rutas." + ruta + ".ttl", Duration.class, porDefecto);
+    }
+
+    // * Rutas hacia los microservicios (antes en api-gateway.yml), cada una con:
+    // * - Circuit breaker por servicio (resilience4j.circuitbreaker.instances.<servicio>) y fallback en /fallback/**
+    // * - Bulkhead por servicio: tope de peticiones en vuelo compartido por todas sus rutas
+    // * - Timeouts de conexión y respuesta por ruta (app.gateway.resiliencia.servicios.<servicio>.*)
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, Environment environment,
+                                           BulkheadFilters bulkheadFilters) {
+        Resiliencia auth = new Resiliencia(environment, bulkheadFilters, "auth-service", "auth");
+        Resiliencia ticket = new Resiliencia(environment, bulkheadFilters, "ticket-service", "ticket");
+        Resiliencia ticketStreaming = new Resiliencia(environment, bulkheadFilters, "ticket-service", "ticket", "-streaming");
+        Resiliencia notification = new Resiliencia(environment, bulkheadFilters, "notification-service", "notification");
+
         return builder.routes()
+                // Exportación y carga NDJSON: pueden durar minutos, con un timeout a la medida de app.ticket.exportacion.timeout
+                .route("ticket-service-streaming", r -> r
+                        .order(-1)
+                        .path("/api/ticket/exportar", "/api/tickets/exportar",
+                                "/api/ticket/crear-lote", "/api/tickets/crear-lote")
+                        .filters(f -> ticketStreaming.aplicar(f)
+                                .rewritePath("/api/tickets?/(?<segment>.*)", "/ticket/${segment}")
+                                .addResponseHeader("X-Gateway-Route", "ticket-service"))
+                        .metadata(ticketStreaming.timeouts())
+                        .uri("lb://ticket-service"))
+
                 // Ruta para auth-service
                 .route("auth-service", r -> r
                         .path("/api/auth/**")
-                        .filters(f -> f
+                        .filters(f -> auth.aplicar(f)
                                 .rewritePath("/api/auth/(?<segment>.*)", "/auth/${segment}")
                                 .addRequestHeader("X-Gateway-Debug", "true")
                                 .addResponseHeader("X-Gateway-Route", "auth-service")
                         )
+                        .metadata(auth.timeouts())
                         .uri("lb://auth-service"))
 
+                // Ruta para ticket-service (/api/ticket, /api/tickets y /api/categoria-ticket)
+                .route("ticket-service", r -> r
+                        .path("/api/ticket/**", "/api/tickets/**", "/api/categoria-ticket/**")
+                        .filters(f -> ticket.aplicar(f)
+                                .rewritePath("/api/(?<prefix>ticket|categoria-ticket)s?(?<remaining>/?.*)", "/${prefix}${remaining}")
+                                .addResponseHeader("X-Gateway-Route", "ticket-service")
+                        )
+                        .metadata(ticket.timeouts())
+                        .uri("lb://ticket-service"))
+
+                // Ruta para notification-service
+                .route("notification-service", r -> r
+                        .path("/api/notifications/**")
+                        .filters(f -> notification.aplicar(f)
+                                .rewritePath("/api/notifications(?<remaining>/?.*)", "/notifications${remaining}")
+                                .addResponseHeader("X-Gateway-Route", "notification-service")
+                        )
+                        .metadata(notification.timeouts())
+                        .uri("lb://notification-service"))
+
                 // Ruta para health check
                 .route("health-check", r -> r
                         .path("/health")
                         .uri("forward:/actuator/health"))
 
-                // Ruta para fallback de auth
-                .route("auth-fallback", r -> r
-                        .path("/fallback/auth")
-                        .uri("forward:/fallback"))
-
                 .build();
     }
 
-    // Key Resolver para rate limiting basado en IP del cliente
+    // * Key Resolver para rate limiting basado en IP del cliente
+    // * X-Forwarded-For lo escribe el cliente: solo se usa su último salto, y solo si la conexión
+    // * viene de un proxy de confianza (app.gateway.proxies-confiables); si no, la IP de la conexión
     @Bean
-    public KeyResolver ipKeyResolver() {
-        return exchange -> Mono.just(getClientIp(exchange));
+    public KeyResolver ipKeyResolver(@Value("${app.gateway.proxies-confiables:}") Set<String> proxiesConfiables) {
+        return exchange -> Mono.just(getClientIp(exchange, proxiesConfiables));
     }
 
-    // Extraer la IP real del cliente considerando proxies y load balancers
-    private String getClientIp(ServerWebExchange exchange) {
+    static String getClientIp(ServerWebExchange exchange, Set<String> proxiesConfiables) {
+        InetSocketAddress remota = exchange.getRequest().getRemoteAddress();
+        if (remota == null || remota.getAddress() == null) {
+            return "unknown";
+        }
+        String ipConexion = remota.getAddress().getHostAddress();
         String xForwardedFor = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+        if (xForwardedFor == null || xForwardedFor.isBlank() || !proxiesConfiables.contains(ipConexion)) {
+            return ipConexion;
+        }
+        String ultimoSalto = xForwardedFor.substring(xForwardedFor.lastIndexOf(',') + 1).trim();
+        return ultimoSalto.isEmpty() ? ipConexion : ultimoSalto;
+    }
+
+    // * Un limiter por ruta con sus propios límites (app.gateway.rate-limit.rutas.<ruta>.*):
+    // * - modo local: cubetas en memoria de cada instancia del gateway
+    // * - modo redis: RedisRateLimiter, cubetas compartidas entre todas las instancias
+    private static final class RateLimiters {
+        private final Environment environment;
+        private final ApplicationContext context;
+        private final ConfigurationService configurationService;
+        private final boolean redis;
+        private final long maximoClaves;
+        private final Duration inactividad;
+
+        RateLimiters(Environment environment, ApplicationContext context, ConfigurationService configurationService) {
+            this.environment = environment;
+            this.context = context;
+            this.configurationService = configurationService;
+            this.redis = "redis".equalsIgnoreCase(environment.getProperty("app.gateway.rate-limit.modo", "local"));
+            this.maximoClaves = environment.getProperty("app.gateway.rate-limit.maximo-claves", Long.class, 100_000L);
+            this.inactividad = environment.getProperty("app.gateway.rate-limit.inactividad", Duration.class, Duration.ofMinutes(10));
         }
 
-        String xRealIp = exchange.getRequest().getHeaders().getFirst("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
+        RateLimiter<?> crear(String ruta) {
+            String prefijo = "app.gateway.rate-limit.rutas." + ruta + ".";
+            int replenishRate = environment.getProperty(prefijo + "replenish-rate", Integer.class, 1);
+            int burstCapacity = environment.getProperty(prefijo + "burst-capacity", Integer.class, 10);
+            int requestedTokens = environment.getProperty(prefijo + "requested-tokens", Integer.class, 1);
+
+            if (redis) {
+                RedisRateLimiter limiter = new RedisRateLimiter(replenishRate, burstCapacity, requestedTokens);
+                limiter.setApplicationContext(context);
+                return limiter;
+            }
+            return new LocalRateLimiter(replenishRate, burstCapacity, requestedTokens, maximoClaves, inactividad, configurationService);
+        }
+    }
+
+    // * Filtros de resiliencia de un servicio, en este orden:
+    // * 1. Circuit breaker (abre con 502/504 y errores de red/timeouts y con llamadas lentas; el timeout lo pone
+    // *    su TimeLimiter). Un 503 del servicio no cuenta: auth y ticket lo usan a propósito con Retry-After
+    // *    (pool BCrypt saturado, índice reconstruyéndose) y el cliente debe recibirlo tal cual
+    // * 2. Bulkhead (dentro del breaker: si no hay cupo se va al fallback sin contar como fallo)
+    // * Las rutas de streaming usan su propio breaker (<servicio>-streaming) y response-timeout-streaming:
+    // * el TimeLimiter envuelve también la escritura del cuerpo y cortaría una exportación ya empezada
+    private static final class Resiliencia {
+        private final String breaker;
+        private final String fallback;
+        private final GatewayFilter bulkhead;
+        private final Map<String, Object> timeouts;
+
+        Resiliencia(Environment environment, BulkheadFilters bulkheadFilters, String servicio, String fallback) {
+            this(environment, bulkheadFilters, servicio, fallback, "");
         }
 
-        return exchange.getRequest().getRemoteAddress() != null
-                ? exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
-                : "unknown";
+        private Resiliencia(Environment environment, BulkheadFilters bulkheadFilters, String servicio, String fallback,
+                            String sufijo) {
+            String prefijo = "app.gateway.resiliencia.servicios." + servicio + ".";
+            int maxConcurrentes = environment.getProperty(prefijo + "max-concurrentes", Integer.class, 100);
+            Duration connectTimeout = environment.getProperty(prefijo + "connect-timeout", Duration.class, Duration.ofSeconds(2));
+            Duration responseTimeout = environment.getProperty(prefijo + "response-timeout" + sufijo, Duration.class, Duration.ofSeconds(10));
+
+            this.breaker = servicio + sufijo;
+            this.fallback = fallback;
+            this.bulkhead = bulkheadFilters.para(servicio, maxConcurrentes);
+            this.timeouts = Map.of(
+                    RouteMetadataUtils.CONNECT_TIMEOUT_ATTR, (int) connectTimeout.toMillis(),
+                    RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, responseTimeout.toMillis());
+        }
+
+        GatewayFilterSpec aplicar(GatewayFilterSpec f) {
+            return f
+                    .circuitBreaker(c -> c
+                            .setName(breaker)
+                            .setFallbackUri("forward:/fallback/" + fallback)
+                            .setStatusCodes(Set.of("502", "504")))
+                    .filter(bulkhead);
+        }
+
+        Map<String, Object> timeouts() {
+            return timeouts;
+        }
     }
-}
\ No newline at end of file
+}
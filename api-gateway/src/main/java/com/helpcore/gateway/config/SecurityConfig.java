@@ -2,12 +2,12 @@ package com.helpcore.gateway.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import com.helpcore.gateway.filter.AuthenticationFilter;
+import com.helpcore.gateway.security.PoliticaRutas;
 
 // * - Definir qué endpoints requieren autenticación
 // * - Configurar el filtro de validación JWT
@@ -18,9 +18,11 @@ import com.helpcore.gateway.filter.AuthenticationFilter;
 public class SecurityConfig {
 
     private final AuthenticationFilter authenticationFilter;
+    private final PoliticaRutas politicaRutas;
 
-    public SecurityConfig(AuthenticationFilter authenticationFilter) {
+    public SecurityConfig(AuthenticationFilter authenticationFilter, PoliticaRutas politicaRutas) {
         this.authenticationFilter = authenticationFilter;
+        this.politicaRutas = politicaRutas;
     }
 
     @Bean
@@ -33,23 +35,10 @@ public class SecurityConfig {
                 // NO CONFIGURAR CORS AQUÍ - Se maneja en Gateway
 
                 .authorizeExchange(exchanges -> exchanges
-                        // RUTAS PÚBLICAS
-                        .pathMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
-                        .pathMatchers(HttpMethod.POST, "/api/auth/register").permitAll()
-                        .pathMatchers(HttpMethod.POST, "/api/auth/logout").permitAll()
-                        .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll() // PERMITIR OPTIONS
-                        .pathMatchers(HttpMethod.POST, "/api/ticket/crear-invitado").permitAll()
-                        .pathMatchers(HttpMethod.POST, "/api/categoria-ticket/listar").permitAll()
-                        // Health checks y métricas públicas
-                        .pathMatchers(HttpMethod.GET, "/health").permitAll()
-                        .pathMatchers(HttpMethod.GET, "/api/docs/**").permitAll()
-                        .pathMatchers(HttpMethod.GET, "/actuator/health").permitAll()
-
-                        // Fallback endpoints
-                        .pathMatchers("/fallback/**").permitAll()
+                        // RUTAS PÚBLICAS (app.gateway.rutas-publicas, la misma tabla que usa AuthenticationFilter)
+                        .matchers(politicaRutas.publicas()).permitAll()
 
                         // RUTAS QUE REQUIEREN AUTENTICACIÓN
-                        .pathMatchers(HttpMethod.POST, "/api/auth/refresh").permitAll() // pa probar refresh
                         .pathMatchers("/api/metrics").authenticated()
                         .pathMatchers("/actuator/**").authenticated()
 
@@ -0,0 +1,81 @@
+package com.helpcore.gateway.controller;
+
+import com.helpcore.gateway.filter.BulkheadLlenoException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+// * Respuestas de fallback de los circuit breakers (forward:/fallback/{servicio}):
+// * - Circuito abierto o bulkhead lleno -> 503 con Retry-After
+// * - Timeout del servicio -> 504
+// * - Mismo formato JSON que GlobalExceptionHandler
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    @RequestMapping("/{servicio}")
+    public Mono<ResponseEntity<Map<String, Object>>> fallback(@PathVariable String servicio, ServerWebExchange exchange) {
+        Throwable causa = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+
+        HttpStatus status;
+        String tipo;
+        String mensaje;
+
+        if (causa instanceof TimeoutException) {
+            status = HttpStatus.GATEWAY_TIMEOUT;
+            tipo = "GATEWAY_TIMEOUT";
+            mensaje = "El servicio " + servicio + " no respondió a tiempo";
+        } else if (causa instanceof BulkheadLlenoException) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            tipo = "SERVICE_BUSY";
+            mensaje = "El servicio " + servicio + " está saturado, reintente en unos segundos";
+        } else if (causa instanceof CallNotPermittedException) {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            tipo = "CIRCUIT_BREAKER_OPEN";
+            mensaje = "El servicio " + servicio + " no está disponible temporalmente";
+        } else {
+            status = HttpStatus.SERVICE_UNAVAILABLE;
+            tipo = "SERVICE_UNAVAILABLE";
+            mensaje = "El servicio " + servicio + " no está disponible temporalmente";
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", tipo);
+        body.put("message", mensaje);
+        body.put("code", status.value());
+        body.put("timestamp", Instant.now().toString());
+        body.put("path", rutaOriginal(exchange));
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Error-Source", "api-gateway-fallback");
+        if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+            respuesta.header(HttpHeaders.RETRY_AFTER, "5");
+        }
+        return Mono.just(respuesta.body(body));
+    }
+
+    // Tras el forward la ruta es /fallback/{servicio}; la original queda en los atributos del gateway
+    private static String rutaOriginal(ServerWebExchange exchange) {
+        Set<URI> originales = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+        if (originales != null && !originales.isEmpty()) {
+            return originales.iterator().next().getPath();
+        }
+        return exchange.getRequest().getURI().getPath();
+    }
+}
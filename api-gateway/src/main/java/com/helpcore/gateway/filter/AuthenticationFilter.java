@@ -1,10 +1,11 @@
 package com.helpcore.gateway.filter;
 
+import com.helpcore.gateway.security.JwtKeyHolder;
+import com.helpcore.gateway.security.PoliticaRutas;
+import com.helpcore.gateway.security.TokenClaims;
+import com.helpcore.gateway.security.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpMethod;
+import io.jsonwebtoken.JwtException;
 import org.springframework.http.HttpHeaders;
 import java.nio.charset.StandardCharsets;
 import org.springframework.http.HttpStatus;
@@ -18,7 +19,6 @@ import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
-import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
@@ -28,22 +28,27 @@ import java.util.List;
 // * 2. Return temprano para rutas públicas
 // * 3. Validación JWT robusta
 // * 4. Logging detallado para debugging
+// * 5. Rutas públicas desde PoliticaRutas (misma tabla que SecurityConfig)
 @Component
 public class AuthenticationFilter implements WebFilter {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final JwtKeyHolder jwtKeyHolder;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PoliticaRutas politicaRutas;
+
+    public AuthenticationFilter(JwtKeyHolder jwtKeyHolder, VerifiedTokenCache verifiedTokenCache,
+                                PoliticaRutas politicaRutas) {
+        this.jwtKeyHolder = jwtKeyHolder;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.politicaRutas = politicaRutas;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
-        String path = request.getURI().getPath();
-        if (request.getMethod() == HttpMethod.OPTIONS) {
-            // Permitir preflight sin autenticación
-            return chain.filter(exchange);
-        }
 
-        if (isPublicPath(path)) {
+        // Rutas públicas y preflight (OPTIONS /**) sin autenticación
+        if (politicaRutas.esPublica(request.getMethod(), request.getPath().value())) {
             return chain.filter(exchange);
         }
 
@@ -55,12 +60,13 @@ public class AuthenticationFilter implements WebFilter {
         }
 
         try {
-            Claims claims = validateAndParseToken(token);
+            // Los tokens ya verificados se sirven desde caché (sin re-verificar la firma)
+            TokenClaims claims = verifiedTokenCache.obtener(token, this::validateAndParseToken);
 
             // EXTRAER INFORMACIÓN DEL USUARIO
-            String userId = claims.getId();
-            String username = claims.getSubject();
-            String usuarioName = claims.get("usuario", String.class);
+            String userId = claims.userId();
+            String username = claims.username();
+            String usuarioName = claims.usuario();
 
             if (username == null || username.trim().isEmpty()) {
                 return handleUnauthorized(exchange, "Invalid token: missing username");
@@ -100,57 +106,35 @@ public class AuthenticationFilter implements WebFilter {
     }
 
 
-    // Validar y parsear el JWT token
-    private Claims validateAndParseToken(String token) throws Exception {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
-
-        Claims claims = Jwts.parser()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Validar y parsear el JWT token (solo en cache miss)
+    private TokenClaims validateAndParseToken(String token) {
+        // Clave y parser precalculados (se reconstruyen solo con @RefreshScope)
+        Claims claims = jwtKeyHolder.getParser()
+                .parseSignedClaims(token)
+                .getPayload();
 
         // Verificar expiración
         Date expiration = claims.getExpiration();
         if (expiration != null && expiration.before(new Date())) {
-            throw new Exception("Token has expired");
+            throw new JwtException("Token has expired");
         }
 
         // Verificar claims requeridos
         if (claims.getSubject() == null || claims.getSubject().isEmpty()) {
-            throw new Exception("Token missing subject (username)");
+            throw new JwtException("Token missing subject (username)");
         }
 
         // Verificar que tenga el claim 'usuario'
         if (claims.get("usuario") == null) {
-            throw new Exception("Token missing usuario claim");
-        }
-
-        return claims;
-    }
-
-    // Verificar si una ruta es pública
-    private boolean isPublicPath(String path) {
-        if (path == null) return false;
-
-        // RUTAS DE AUTENTICACIÓN PÚBLICAS
-        if (path.equals("/api/auth/login") ||
-                path.equals("/api/auth/register")) {
-            return true;
+            throw new JwtException("Token missing usuario claim");
         }
 
-        // HEALTH CHECKS Y DOCUMENTACIÓN
-        if (path.equals("/health") ||
-                path.startsWith("/api/docs") ||
-                path.equals("/actuator/health")) {
-            return true;
-        }
-
-        // ENDPOINTS DE FALLBACK
-        if (path.startsWith("/fallback/")) {
-            return true;
-        }
-        return false;
+        return TokenClaims.of(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get("usuario", String.class),
+                expiration
+        );
     }
 
     // MANEJAR REQUESTS NO AUTORIZADOS
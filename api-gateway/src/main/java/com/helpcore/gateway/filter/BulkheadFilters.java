@@ -0,0 +1,51 @@
+package com.helpcore.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+// * Bulkhead por servicio (no por ruta): todas las rutas hacia ticket-service comparten el mismo cupo
+// * - Máximo de peticiones en vuelo hacia cada servicio; sin cupo se falla al momento (sin cola)
+// * - El permiso se devuelve al terminar, fallar o cancelarse la petición (doFinally)
+// * - Así un ticket-service lento no acapara conexiones de Netty ni memoria del gateway y auth sigue respondiendo
+// * - Métricas: gateway.bulkhead.disponibles y gateway.bulkhead.rechazos (tag servicio)
+@Component
+public class BulkheadFilters {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, GatewayFilter> filtros = new ConcurrentHashMap<>();
+
+    public BulkheadFilters(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public GatewayFilter para(String servicio, int maxConcurrentes) {
+        return filtros.computeIfAbsent(servicio, s -> crear(s, maxConcurrentes));
+    }
+
+    private GatewayFilter crear(String servicio, int maxConcurrentes) {
+        Semaphore permisos = new Semaphore(maxConcurrentes);
+
+        Gauge.builder("gateway.bulkhead.disponibles", permisos, Semaphore::availablePermits)
+                .tag("servicio", servicio)
+                .register(meterRegistry);
+        Counter rechazos = Counter.builder("gateway.bulkhead.rechazos")
+                .tag("servicio", servicio)
+                .register(meterRegistry);
+
+        return (exchange, chain) -> Mono.defer(() -> {
+            if (!permisos.tryAcquire()) {
+                rechazos.increment();
+                return Mono.error(new BulkheadLlenoException(servicio));
+            }
+            return chain.filter(exchange).doFinally(senal -> permisos.release());
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package com.helpcore.gateway.filter;
+
+// Sin cupo de peticiones concurrentes hacia el servicio; el circuit breaker la ignora y va al fallback
+public class BulkheadLlenoException extends RuntimeException {
+
+    public BulkheadLlenoException(String servicio) {
+        super("Bulkhead lleno para " + servicio);
+    }
+}
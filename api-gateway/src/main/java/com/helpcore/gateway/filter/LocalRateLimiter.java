@@ -0,0 +1,127 @@
+package com.helpcore.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.validation.constraints.Min;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// * Rate limiter token bucket en memoria del propio gateway (alternativa a RedisRateLimiter):
+// * - Cubeta por ruta + clave (IP): replenishRate tokens/seg hasta burstCapacity
+// * - Cada cubeta es un AtomicLong con el instante en que volvería a estar llena (GCRA), actualizado con CAS:
+// *   sin locks, y la caché de Caffeine reparte las claves entre segmentos
+// * - Las cubetas sin tráfico se descartan tras 'inactividad'; tamaño máximo de claves acotado
+// * - Devuelve los mismos headers X-RateLimit-* que RedisRateLimiter (y Retry-After al rechazar)
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final Config defaultConfig;
+    private final Cache<String, AtomicLong> cubetas;
+
+    public LocalRateLimiter(int replenishRate, int burstCapacity, int requestedTokens,
+                            long maximoClaves, Duration inactividad, ConfigurationService configurationService) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.defaultConfig = new Config()
+                .setReplenishRate(replenishRate)
+                .setBurstCapacity(burstCapacity)
+                .setRequestedTokens(requestedTokens);
+        this.cubetas = Caffeine.newBuilder()
+                .maximumSize(maximoClaves)
+                .expireAfterAccess(inactividad)
+                .build();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / config.getReplenishRate();
+        long coste = intervalo * config.getRequestedTokens();
+        long rafaga = intervalo * config.getBurstCapacity();
+
+        AtomicLong cubeta = cubetas.get(routeId + ':' + id, clave -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long ahora = System.nanoTime();
+            long llena = cubeta.get();
+            long base = llena == Long.MIN_VALUE || llena - ahora < 0 ? ahora : llena;
+            long nueva = base + coste;
+            long exceso = nueva - ahora - rafaga;
+
+            if (exceso > 0) {
+                long restantes = Math.max(0, (rafaga - (base - ahora)) / intervalo);
+                Map<String, String> headers = headers(config, restantes);
+                headers.put(RETRY_AFTER_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(exceso) + 1));
+                return Mono.just(new Response(false, headers));
+            }
+            if (cubeta.compareAndSet(llena, nueva)) {
+                long restantes = (rafaga - (nueva - ahora)) / intervalo;
+                return Mono.just(new Response(true, headers(config, restantes)));
+            }
+        }
+    }
+
+    private static Map<String, String> headers(Config config, long restantes) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf(restantes));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        headers.put(REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+        return headers;
+    }
+
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate;
+
+        @Min(1)
+        private int burstCapacity = 1;
+
+        @Min(1)
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.helpcore.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+// * Caché de respuestas del gateway para rutas GET idempotentes:
+// * - Clave: ruta + path + query (+ X-User-Id si la ruta es por usuario)
+// * - Solo 200 sin Set-Cookie; respeta Cache-Control del servicio (no-store, no-cache, private -> no se guarda;
+// *   max-age / s-maxage acortan el TTL de la ruta)
+// * - Sin headers CORS/Vary guardados (se recalculan por petición)
+// * - Cuerpos en ByteBuffer directos (off-heap); peso total acotado por app.gateway.cache.maximo-bytes
+// * - Coalescencia: con varios misses simultáneos de la misma clave solo uno llama al servicio, el resto espera su respuesta
+// * - If-None-Match contra el ETag guardado -> 304 sin cuerpo
+// * - Se ejecuta antes del circuit breaker y el bulkhead: un HIT no consume cupo del servicio
+// * - Header X-Cache: HIT | MISS | COALESCED | BYPASS; métricas en gateway.response.cache
+@Component
+public class RespuestaCacheFilters {
+
+    private static final String CACHE_NAME = "gateway.response.cache";
+    private static final String X_CACHE = "X-Cache";
+
+    private static final Set<String> HEADERS_EXCLUIDOS = Set.of(
+            HttpHeaders.SET_COOKIE, HttpHeaders.CONNECTION, HttpHeaders.TRANSFER_ENCODING,
+            "Keep-Alive", HttpHeaders.UPGRADE, HttpHeaders.DATE, HttpHeaders.VARY, X_CACHE);
+
+    private final Cache<String, RespuestaCacheada> cache;
+    private final Map<String, Sinks.One<Optional<RespuestaCacheada>>> enVuelo = new ConcurrentHashMap<>();
+    private final int maximoEntrada;
+    private final Duration esperaCoalescencia;
+    private final Counter coalescidas;
+
+    public RespuestaCacheFilters(
+            @Value("${app.gateway.cache.maximo-bytes:67108864}") long maximoBytes,
+            @Value("${app.gateway.cache.maximo-entrada:1048576}") int maximoEntrada,
+            @Value("${app.gateway.cache.espera-coalescencia:10s}") Duration esperaCoalescencia,
+            MeterRegistry meterRegistry) {
+
+        this.maximoEntrada = maximoEntrada;
+        this.esperaCoalescencia = esperaCoalescencia;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximoBytes)
+                .weigher((String clave, RespuestaCacheada respuesta) -> respuesta.peso())
+                .expireAfter(new Expiry<String, RespuestaCacheada>() {
+                    @Override
+                    public long expireAfterCreate(String clave, RespuestaCacheada respuesta, long ahora) {
+                        return respuesta.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String clave, RespuestaCacheada respuesta, long ahora, long restante) {
+                        return respuesta.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String clave, RespuestaCacheada respuesta, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.coalescidas = Counter.builder(CACHE_NAME + ".coalesced")
+                .description("Peticiones servidas con la respuesta de otra petición en vuelo")
+                .register(meterRegistry);
+    }
+
+    // Orden antes de NettyWriteResponseFilter para poder capturar el cuerpo que este escribe
+    public GatewayFilter para(String ruta, Duration ttl, boolean porUsuario) {
+        GatewayFilter filtro = (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            String clave = clave(ruta, request, porUsuario);
+            if (!pideSinCache(request)) {
+                RespuestaCacheada guardada = cache.getIfPresent(clave);
+                if (guardada != null && !guardada.expirada()) {
+                    return escribir(exchange, guardada, "HIT");
+                }
+            }
+
+            Sinks.One<Optional<RespuestaCacheada>> propio = Sinks.one();
+            Sinks.One<Optional<RespuestaCacheada>> lider = enVuelo.putIfAbsent(clave, propio);
+            if (lider != null) {
+                return esperar(exchange, chain, lider);
+            }
+            return consultar(exchange, chain, clave, ttl, propio);
+        };
+        return new OrderedGatewayFilter(filtro, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> esperar(ServerWebExchange exchange, GatewayFilterChain chain,
+                               Sinks.One<Optional<RespuestaCacheada>> lider) {
+        return lider.asMono()
+                .timeout(esperaCoalescencia)
+                .onErrorResume(TimeoutException.class, e -> Mono.just(Optional.empty()))
+                .flatMap(respuesta -> {
+                    if (respuesta.isPresent()) {
+                        coalescidas.increment();
+                        return escribir(exchange, respuesta.get(), "COALESCED");
+                    }
+                    // La respuesta del líder no era cacheable: cada petición va al servicio
+                    exchange.getResponse().getHeaders().set(X_CACHE, "BYPASS");
+                    return chain.filter(exchange);
+                });
+    }
+
+    private Mono<Void> consultar(ServerWebExchange exchange, GatewayFilterChain chain,
+                                 String clave, Duration ttl, Sinks.One<Optional<RespuestaCacheada>> propio) {
+        // Sin cabeceras condicionales: el servicio debe devolver el 200 completo para poder guardarlo
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                })
+                .build();
+
+        ServerHttpResponse original = exchange.getResponse();
+        ServerHttpResponseDecorator capturador = new ServerHttpResponseDecorator(original) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                long ttlNanos = ttlCacheable(getStatusCode(), getHeaders(), ttl);
+                if (ttlNanos <= 0) {
+                    getHeaders().set(X_CACHE, "BYPASS");
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(Flux.from(body)).flatMap(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+
+                    if (bytes.length <= maximoEntrada) {
+                        RespuestaCacheada respuesta = guardar(clave, getStatusCode().value(), getHeaders(), bytes, ttlNanos);
+                        propio.tryEmitValue(Optional.of(respuesta));
+                    }
+                    getHeaders().set(X_CACHE, "MISS");
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        };
+
+        return chain.filter(exchange.mutate().request(request).response(capturador).build())
+                .doFinally(senal -> {
+                    enVuelo.remove(clave, propio);
+                    propio.tryEmitValue(Optional.empty());
+                });
+    }
+
+    private RespuestaCacheada guardar(String clave, int status, HttpHeaders headersRespuesta, byte[] bytes, long ttlNanos) {
+        HttpHeaders headers = new HttpHeaders();
+        headersRespuesta.forEach((nombre, valores) -> {
+            // Los headers CORS dependen del Origin de cada petición y los pone el gateway en cada respuesta
+            boolean cors = nombre.regionMatches(true, 0, "Access-Control-", 0, 15);
+            if (!cors && HEADERS_EXCLUIDOS.stream().noneMatch(nombre::equalsIgnoreCase)) {
+                headers.put(nombre, List.copyOf(valores));
+            }
+        });
+
+        ByteBuffer cuerpo = ByteBuffer.allocateDirect(bytes.length);
+        cuerpo.put(bytes).flip();
+
+        RespuestaCacheada respuesta = new RespuestaCacheada(status, HttpHeaders.readOnlyHttpHeaders(headers),
+                cuerpo.asReadOnlyBuffer(), System.nanoTime(), ttlNanos);
+        cache.put(clave, respuesta);
+        return respuesta;
+    }
+
+    private static Mono<Void> escribir(ServerWebExchange exchange, RespuestaCacheada respuesta, String estado) {
+        ServerHttpResponse response = exchange.getResponse();
+        String etag = respuesta.headers().getETag();
+
+        if (etag != null && coincideEtag(exchange.getRequest().getHeaders().getIfNoneMatch(), etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().setETag(etag);
+            copiarSiExiste(respuesta.headers(), response.getHeaders(), HttpHeaders.CACHE_CONTROL);
+            response.getHeaders().set(X_CACHE, estado);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatusCode.valueOf(respuesta.status()));
+        response.getHeaders().putAll(respuesta.headers());
+        response.getHeaders().set(HttpHeaders.AGE, String.valueOf(respuesta.edadSegundos()));
+        response.getHeaders().set(X_CACHE, estado);
+        // wrap() de un ByteBuffer directo no copia el cuerpo
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(respuesta.cuerpo().duplicate())));
+    }
+
+    // TTL efectivo en nanos, o 0 si la respuesta no se puede guardar
+    private static long ttlCacheable(HttpStatusCode status, HttpHeaders headers, Duration ttlRuta) {
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return 0;
+        }
+        long ttl = ttlRuta.toNanos();
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return ttl;
+        }
+        for (String directiva : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            String d = directiva.trim();
+            if (d.equals("no-store") || d.equals("no-cache") || d.equals("private")) {
+                return 0;
+            }
+            if (d.startsWith("s-maxage=") || d.startsWith("max-age=")) {
+                try {
+                    long segundos = Long.parseLong(d.substring(d.indexOf('=') + 1));
+                    ttl = Math.min(ttl, Duration.ofSeconds(segundos).toNanos());
+                } catch (NumberFormatException ignored) {
+                    // directiva mal formada: se queda el TTL de la ruta
+                }
+            }
+        }
+        return ttl;
+    }
+
+    private static String clave(String ruta, ServerHttpRequest request, boolean porUsuario) {
+        StringBuilder clave = new StringBuilder(ruta).append('|').append(request.getURI().getRawPath());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            clave.append('?').append(query);
+        }
+        if (porUsuario) {
+            String usuario = request.getHeaders().getFirst("X-User-Id");
+            clave.append("|u=").append(usuario != null ? usuario : "-");
+        }
+        return clave.toString();
+    }
+
+    private static boolean pideSinCache(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-cache");
+    }
+
+    private static boolean coincideEtag(List<String> ifNoneMatch, String etag) {
+        String sinDebil = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String valor : ifNoneMatch) {
+            String candidato = valor.startsWith("W/") ? valor.substring(2) : valor;
+            if (candidato.equals("*") || candidato.equals(sinDebil)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void copiarSiExiste(HttpHeaders origen, HttpHeaders destino, String nombre) {
+        String valor = origen.getFirst(nombre);
+        if (valor != null) {
+            destino.set(nombre, valor);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.helpcore.gateway.filter;
+
+import org.springframework.http.HttpHeaders;
+
+import java.nio.ByteBuffer;
+
+// * Respuesta guardada por RespuestaCacheFilters:
+// * - cuerpo en un ByteBuffer directo (fuera del heap), de solo lectura; cada escritura usa un duplicate()
+// * - headers sin Set-Cookie ni hop-by-hop
+public record RespuestaCacheada(int status, HttpHeaders headers, ByteBuffer cuerpo, long creadaNanos, long ttlNanos) {
+
+    public boolean expirada() {
+        return System.nanoTime() - creadaNanos >= ttlNanos;
+    }
+
+    public long edadSegundos() {
+        return (System.nanoTime() - creadaNanos) / 1_000_000_000L;
+    }
+
+    public int peso() {
+        return cuerpo.capacity() + 512;
+    }
+}
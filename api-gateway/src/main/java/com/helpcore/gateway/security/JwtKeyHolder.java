@@ -0,0 +1,38 @@
+package com.helpcore.gateway.security;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+
+// * Clave HMAC y parser JWT precalculados:
+// * - Se construyen una sola vez a partir de jwt.secret
+// * - @RefreshScope: solo se reconstruyen cuando se refresca la configuración
+// * - JwtParser es inmutable y thread-safe, se comparte entre requests
+@Component
+@RefreshScope
+public class JwtKeyHolder {
+
+    private final SecretKey key;
+    private final JwtParser parser;
+
+    public JwtKeyHolder(@Value("${jwt.secret}") String jwtSecret) {
+        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+    }
+
+    public SecretKey getKey() {
+        return key;
+    }
+
+    public JwtParser getParser() {
+        return parser;
+    }
+}
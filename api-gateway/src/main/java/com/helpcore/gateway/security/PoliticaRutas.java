@@ -0,0 +1,224 @@
+package com.helpcore.gateway.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// * Tabla única de rutas públicas, compartida por SecurityConfig y AuthenticationFilter:
+// * - Se construye una vez desde app.gateway.rutas-publicas ("METODO /patron", METODO = * para cualquiera)
+// * - Patrones por segmentos: literal, * (un segmento) y ** (resto del path, solo al final)
+// * - Rutas exactas en un HashMap (el hash del path queda cacheado en el String), prefijos "/x/**" en arrays
+// *   y solo los patrones con * en un trie por segmentos; los métodos de cada regla son una máscara de bits
+// * - Ninguna búsqueda crea objetos y todas son O(longitud del path)
+// * - Se compara el path sin decodificar, igual que los pathMatchers de Spring Security
+@Component
+public class PoliticaRutas {
+
+    // Si el config-server no define la lista
+    static final List<String> POR_DEFECTO = List.of(
+            "OPTIONS /**",
+            "POST /api/auth/login",
+            "POST /api/auth/register",
+            "POST /api/auth/logout",
+            "POST /api/auth/refresh",
+            "POST /api/ticket/crear-invitado",
+            "POST /api/tickets/crear-invitado",
+            "GET /api/ticket/consultar-estado",
+            "GET /api/tickets/consultar-estado",
+            "GET /api/categoria-ticket/listar",
+            "GET /health",
+            "GET /actuator/health",
+            "GET /api/docs/**",
+            "* /fallback/**");
+
+    private static final HttpMethod[] METODOS = {
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.POST, HttpMethod.PUT,
+            HttpMethod.PATCH, HttpMethod.DELETE, HttpMethod.OPTIONS, HttpMethod.TRACE};
+
+    // Bit extra para métodos no estándar (solo los cubren las reglas "*")
+    private static final int OTROS = 1 << METODOS.length;
+    private static final int TODOS = (OTROS << 1) - 1;
+
+    private static final Mono<ServerWebExchangeMatcher.MatchResult> COINCIDE = ServerWebExchangeMatcher.MatchResult.match();
+    private static final Mono<ServerWebExchangeMatcher.MatchResult> NO_COINCIDE = ServerWebExchangeMatcher.MatchResult.notMatch();
+
+    private final Map<String, Integer> exactas = new HashMap<>();
+    private String[] prefijos = new String[0];
+    private int[] metodosPrefijo = new int[0];
+    private final Nodo comodines = new Nodo();
+    private boolean hayComodines;
+
+    private final ServerWebExchangeMatcher publicas;
+
+    @Autowired
+    public PoliticaRutas(Environment environment) {
+        this(Binder.get(environment)
+                .bind("app.gateway.rutas-publicas", Bindable.listOf(String.class))
+                .orElse(POR_DEFECTO));
+    }
+
+    PoliticaRutas(List<String> reglas) {
+        for (String regla : reglas) {
+            agregar(regla);
+        }
+        this.publicas = exchange -> esPublica(exchange.getRequest().getMethod(), exchange.getRequest().getPath().value())
+                ? COINCIDE : NO_COINCIDE;
+    }
+
+    public boolean esPublica(HttpMethod metodo, String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return false;
+        }
+        int bit = bit(metodo);
+
+        Integer exacta = exactas.get(path);
+        if (exacta != null && (exacta & bit) != 0) {
+            return true;
+        }
+        for (int i = 0; i < prefijos.length; i++) {
+            if ((metodosPrefijo[i] & bit) != 0 && bajoPrefijo(path, prefijos[i])) {
+                return true;
+            }
+        }
+        return hayComodines && coincide(comodines, path, 0, bit);
+    }
+
+    // Matcher para authorizeExchange(...).matchers(...).permitAll()
+    public ServerWebExchangeMatcher publicas() {
+        return publicas;
+    }
+
+    private void agregar(String regla) {
+        String[] partes = regla.trim().split("\\s+");
+        if (partes.length != 2 || !partes[1].startsWith("/")) {
+            throw new IllegalArgumentException("Regla de ruta pública inválida (se espera 'METODO /patron'): " + regla);
+        }
+
+        int metodos;
+        if (partes[0].equals("*")) {
+            metodos = TODOS;
+        } else {
+            metodos = bit(HttpMethod.valueOf(partes[0].toUpperCase(Locale.ROOT)));
+            if (metodos == OTROS) {
+                throw new IllegalArgumentException("Método no soportado en regla de ruta pública: " + regla);
+            }
+        }
+
+        String patron = partes[1].length() > 1 && partes[1].endsWith("/")
+                ? partes[1].substring(0, partes[1].length() - 1)
+                : partes[1];
+        int dobleAsterisco = patron.indexOf("**");
+        if (dobleAsterisco >= 0 && (dobleAsterisco != patron.length() - 2 || patron.charAt(dobleAsterisco - 1) != '/')) {
+            throw new IllegalArgumentException("'**' solo puede ir al final del patrón: " + regla);
+        }
+
+        if (patron.indexOf('*') < 0) {
+            exactas.merge(patron, metodos, (a, b) -> a | b);
+        } else if (dobleAsterisco >= 0 && patron.indexOf('*') == dobleAsterisco) {
+            // "/api/docs/**" -> prefijo "/api/docs" ("/**" -> prefijo vacío)
+            prefijos = Arrays.copyOf(prefijos, prefijos.length + 1);
+            metodosPrefijo = Arrays.copyOf(metodosPrefijo, metodosPrefijo.length + 1);
+            prefijos[prefijos.length - 1] = patron.substring(0, dobleAsterisco - 1);
+            metodosPrefijo[metodosPrefijo.length - 1] = metodos;
+        } else {
+            agregarComodin(patron, metodos);
+        }
+    }
+
+    private void agregarComodin(String patron, int metodos) {
+        hayComodines = true;
+        Nodo nodo = comodines;
+        for (String segmento : patron.substring(1).split("/")) {
+            if (segmento.equals("**")) {
+                nodo.metodosResto |= metodos;
+                return;
+            }
+            nodo = segmento.equals("*") ? nodo.comodin() : nodo.hijo(segmento);
+        }
+        nodo.metodosFinal |= metodos;
+    }
+
+    // El path es el prefijo o sigue con '/' tras él
+    private static boolean bajoPrefijo(String path, String prefijo) {
+        int largo = prefijo.length();
+        return path.startsWith(prefijo) && (path.length() == largo || path.charAt(largo) == '/');
+    }
+
+    // inicio apunta al '/' que precede al siguiente segmento (o al final del path)
+    private static boolean coincide(Nodo nodo, String path, int inicio, int bit) {
+        if ((nodo.metodosResto & bit) != 0) {
+            return true;
+        }
+        int longitud = path.length();
+        if (inicio >= longitud) {
+            return (nodo.metodosFinal & bit) != 0;
+        }
+
+        int desde = inicio + 1;
+        int hasta = desde;
+        while (hasta < longitud && path.charAt(hasta) != '/') {
+            hasta++;
+        }
+        int largo = hasta - desde;
+
+        String[] literales = nodo.literales;
+        for (int i = 0; i < literales.length; i++) {
+            String literal = literales[i];
+            if (literal.length() == largo && path.startsWith(literal, desde)
+                    && coincide(nodo.hijos[i], path, hasta, bit)) {
+                return true;
+            }
+        }
+        return nodo.comodin != null && largo > 0 && coincide(nodo.comodin, path, hasta, bit);
+    }
+
+    private static int bit(HttpMethod metodo) {
+        for (int i = 0; i < METODOS.length; i++) {
+            if (METODOS[i].equals(metodo)) {
+                return 1 << i;
+            }
+        }
+        return OTROS;
+    }
+
+    // Nodo del trie de patrones con *: hijos literales en arrays paralelos (pocos por nivel)
+    private static final class Nodo {
+        private String[] literales = new String[0];
+        private Nodo[] hijos = new Nodo[0];
+        private Nodo comodin;
+        private int metodosFinal;
+        private int metodosResto;
+
+        Nodo hijo(String literal) {
+            for (int i = 0; i < literales.length; i++) {
+                if (literales[i].equals(literal)) {
+                    return hijos[i];
+                }
+            }
+            Nodo nuevo = new Nodo();
+            literales = Arrays.copyOf(literales, literales.length + 1);
+            hijos = Arrays.copyOf(hijos, hijos.length + 1);
+            literales[literales.length - 1] = literal;
+            hijos[hijos.length - 1] = nuevo;
+            return nuevo;
+        }
+
+        Nodo comodin() {
+            if (comodin == null) {
+                comodin = new Nodo();
+            }
+            return comodin;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.helpcore.gateway.security;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Claims mínimos de un JWT ya verificado (lo único que el gateway propaga downstream)
+public record TokenClaims(String userId, String username, String usuario, long expiraEnMillis) {
+
+    public static TokenClaims of(String userId, String username, String usuario, Date expiracion) {
+        return new TokenClaims(userId, username, usuario,
+                expiracion != null ? expiracion.getTime() : Long.MAX_VALUE);
+    }
+
+    public boolean expirado() {
+        return expiraEnMillis <= System.currentTimeMillis();
+    }
+
+    long nanosHastaExpirar() {
+        long restanteMillis = expiraEnMillis - System.currentTimeMillis();
+        if (restanteMillis <= 0) {
+            return 0;
+        }
+        return restanteMillis >= TimeUnit.NANOSECONDS.toMillis(Long.MAX_VALUE)
+                ? Long.MAX_VALUE
+                : TimeUnit.MILLISECONDS.toNanos(restanteMillis);
+    }
+}
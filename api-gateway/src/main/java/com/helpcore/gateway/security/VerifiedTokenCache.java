@@ -0,0 +1,95 @@
+package com.helpcore.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.Function;
+
+// * Caché de JWT ya verificados:
+// * - La clave es el SHA-256 del token completo (incluye la firma), nunca el token en claro
+// * - Solo se guardan tokens cuya firma y claims ya fueron validados
+// * - Cada entrada expira en el 'exp' del token (acotado por max-ttl)
+// * - Tamaño máximo configurable y métricas hit/miss en Micrometer (gateway.jwt.cache)
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "gateway.jwt.cache";
+
+    private final Cache<String, TokenClaims> cache;
+
+    public VerifiedTokenCache(
+            @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+            @Value("${jwt.cache.max-ttl:5m}") Duration maxTtl,
+            MeterRegistry meterRegistry) {
+
+        long maxTtlNanos = maxTtl.toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, TokenClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+                        return Math.min(claims.nanosHastaExpirar(), maxTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, claims, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // Devuelve los claims cacheados o ejecuta la verificación completa y guarda el resultado.
+    // Si el verificador lanza excepción no se cachea nada.
+    public TokenClaims obtener(String token, Function<String, TokenClaims> verificador) {
+        String clave = digest(token);
+
+        TokenClaims claims = cache.getIfPresent(clave);
+        if (claims != null && !claims.expirado()) {
+            return claims;
+        }
+
+        claims = verificador.apply(token);
+        if (!claims.expirado()) {
+            cache.put(clave, claims);
+        }
+        return claims;
+    }
+
+    // Si cambia el secreto (refresh de configuración) los tokens cacheados ya no son confiables
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void invalidarTodo() {
+        cache.invalidateAll();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.helpcore.gateway.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GatewayConfigTest {
+
+    @Test
+    void sinProxyDeConfianzaSeIgnoraXForwardedFor() {
+        MockServerWebExchange exchange = peticion("203.0.113.7", "1.2.3.4");
+
+        assertEquals("203.0.113.7", GatewayConfig.getClientIp(exchange, Set.of()));
+    }
+
+    @Test
+    void desdeUnProxyDeConfianzaSeUsaElUltimoSalto() {
+        MockServerWebExchange exchange = peticion("10.0.0.5", "1.2.3.4, 198.51.100.20");
+
+        assertEquals("198.51.100.20", GatewayConfig.getClientIp(exchange, Set.of("10.0.0.5")));
+    }
+
+    private static MockServerWebExchange peticion(String ipConexion, String xForwardedFor) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/tickets/crear-invitado")
+                .remoteAddress(new InetSocketAddress(ipConexion, 40000))
+                .header("X-Forwarded-For", xForwardedFor));
+    }
+}
@@ -0,0 +1,134 @@
+package com.helpcore.gateway.security;
+
+import com.helpcore.gateway.filter.AuthenticationFilter;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por petición de decidir si una ruta es pública: cadena de equals/startsWith anterior
+ * frente a PoliticaRutas, y AuthenticationFilter completo en una ruta pública y en una protegida
+ * con el token ya en VerifiedTokenCache. Con -prof gc, gc.alloc.rate.norm da los bytes por petición.
+ * Ejecutar con el main de esta clase o: java -cp target/test-classes:... org.openjdk.jmh.Main PoliticaRutasBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PoliticaRutasBenchmark {
+
+    private static final String SECRET = "QmFzZTY0RW5jb2RlZEtleVNlZ3VyYUV4YW1wbGVEYXRhIQ==";
+
+    // Mezcla de rutas públicas y protegidas como las que llegan al gateway
+    private static final String[] PATHS = {
+            "/api/auth/login", "/api/ticket/listar", "/api/docs/swagger-ui.html",
+            "/fallback/ticket", "/api/categoria-ticket/listar", "/api/tickets/15/historial"};
+    private static final HttpMethod[] METODOS = {
+            HttpMethod.POST, HttpMethod.GET, HttpMethod.GET, HttpMethod.GET, HttpMethod.GET, HttpMethod.GET};
+
+    private PoliticaRutas politica;
+    private AuthenticationFilter filtro;
+    private MockServerWebExchange publica;
+    private MockServerWebExchange protegida;
+    private WebFilterChain chain;
+
+    @Setup
+    public void setup() {
+        politica = new PoliticaRutas(PoliticaRutas.POR_DEFECTO);
+        JwtKeyHolder keyHolder = new JwtKeyHolder(SECRET);
+        VerifiedTokenCache cache = new VerifiedTokenCache(10_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        filtro = new AuthenticationFilter(keyHolder, cache, politica);
+
+        String token = Jwts.builder()
+                .subject("alumno")
+                .claim("usuario", "alumno")
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(2)))
+                .signWith(keyHolder.getKey())
+                .compact();
+
+        // Los exchanges no se modifican (la ruta protegida trabaja sobre una copia mutada)
+        publica = MockServerWebExchange.from(MockServerHttpRequest.post("/api/auth/login"));
+        protegida = MockServerWebExchange.from(MockServerHttpRequest.get("/api/ticket/listar")
+                .cookie(new HttpCookie("accessToken", token)));
+        chain = exchange -> Mono.empty();
+
+        // El primer paso verifica la firma y deja el token en caché
+        filtro.filter(protegida, chain).block();
+    }
+
+    @Benchmark
+    public int rutaPublicaAntes() {
+        int publicas = 0;
+        for (int i = 0; i < PATHS.length; i++) {
+            if (METODOS[i] == HttpMethod.OPTIONS || isPublicPathAnterior(PATHS[i])) {
+                publicas++;
+            }
+        }
+        return publicas;
+    }
+
+    @Benchmark
+    public int rutaPublicaDespues() {
+        int publicas = 0;
+        for (int i = 0; i < PATHS.length; i++) {
+            if (politica.esPublica(METODOS[i], PATHS[i])) {
+                publicas++;
+            }
+        }
+        return publicas;
+    }
+
+    @Benchmark
+    public Void filtroRutaPublica() {
+        return filtro.filter(publica, chain).block();
+    }
+
+    @Benchmark
+    public Void filtroRutaProtegidaTokenEnCache() {
+        return filtro.filter(protegida, chain).block();
+    }
+
+    // Copia de AuthenticationFilter.isPublicPath antes de PoliticaRutas
+    private static boolean isPublicPathAnterior(String path) {
+        if (path == null) return false;
+        if (path.equals("/api/auth/login") || path.equals("/api/auth/register")) {
+            return true;
+        }
+        if (path.equals("/health") || path.startsWith("/api/docs") || path.equals("/actuator/health")) {
+            return true;
+        }
+        return path.startsWith("/fallback/");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PoliticaRutasBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
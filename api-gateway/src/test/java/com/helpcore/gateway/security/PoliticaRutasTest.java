@@ -0,0 +1,78 @@
+package com.helpcore.gateway.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PoliticaRutasTest {
+
+    private final PoliticaRutas politica = new PoliticaRutas(PoliticaRutas.POR_DEFECTO);
+
+    @Test
+    void rutasExactasRespetanElMetodo() {
+        assertTrue(politica.esPublica(HttpMethod.POST, "/api/auth/login"));
+        assertTrue(politica.esPublica(HttpMethod.POST, "/api/ticket/crear-invitado"));
+        assertFalse(politica.esPublica(HttpMethod.GET, "/api/auth/login"));
+        assertFalse(politica.esPublica(HttpMethod.POST, "/api/auth/login/extra"));
+        assertFalse(politica.esPublica(HttpMethod.POST, "/api/auth/logi"));
+        assertFalse(politica.esPublica(HttpMethod.GET, "/api/ticket/listar"));
+    }
+
+    @Test
+    void rutasDeInvitadoSonPublicasConAmbosPrefijos() {
+        PoliticaRutas desdeConfig = new PoliticaRutas(rutasPublicasDelConfigServer());
+
+        for (PoliticaRutas p : List.of(politica, desdeConfig)) {
+            assertTrue(p.esPublica(HttpMethod.POST, "/api/tickets/crear-invitado"));
+            assertTrue(p.esPublica(HttpMethod.GET, "/api/tickets/consultar-estado"));
+            assertFalse(p.esPublica(HttpMethod.GET, "/api/tickets/crear-invitado"));
+            assertFalse(p.esPublica(HttpMethod.POST, "/api/tickets/listar"));
+        }
+    }
+
+    // Las reglas que recibe el gateway en ejecución (app.gateway.rutas-publicas del config-server)
+    private static List<String> rutasPublicasDelConfigServer() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new FileSystemResource("../config-server/src/main/resources/config/api-gateway.yml"));
+        Properties propiedades = yaml.getObject();
+        List<String> reglas = new ArrayList<>();
+        for (int i = 0; propiedades.containsKey("app.gateway.rutas-publicas[" + i + "]"); i++) {
+            reglas.add(propiedades.getProperty("app.gateway.rutas-publicas[" + i + "]"));
+        }
+        assertFalse(reglas.isEmpty());
+        return reglas;
+    }
+
+    @Test
+    void dobleAsteriscoCubreElPrefijoYTodoLoQueSigue() {
+        assertTrue(politica.esPublica(HttpMethod.GET, "/api/docs"));
+        assertTrue(politica.esPublica(HttpMethod.GET, "/api/docs/swagger/index.html"));
+        assertFalse(politica.esPublica(HttpMethod.GET, "/api/docsx"));
+        assertTrue(politica.esPublica(HttpMethod.DELETE, "/fallback/ticket"));
+        assertTrue(politica.esPublica(HttpMethod.OPTIONS, "/api/ticket/7"));
+    }
+
+    @Test
+    void asteriscoCubreUnSoloSegmento() {
+        PoliticaRutas conComodin = new PoliticaRutas(List.of("GET /api/ticket/*/estado"));
+
+        assertTrue(conComodin.esPublica(HttpMethod.GET, "/api/ticket/15/estado"));
+        assertFalse(conComodin.esPublica(HttpMethod.GET, "/api/ticket//estado"));
+        assertFalse(conComodin.esPublica(HttpMethod.GET, "/api/ticket/15/16/estado"));
+    }
+
+    @Test
+    void reglasMalFormadasFallanAlArrancar() {
+        assertThrows(IllegalArgumentException.class, () -> new PoliticaRutas(List.of("/api/auth/login")));
+        assertThrows(IllegalArgumentException.class, () -> new PoliticaRutas(List.of("GET /api/**/x")));
+    }
+}
@@ -17,6 +17,7 @@ import com.helpcore.auth_service.entidades.Token;
 import com.helpcore.auth_service.repositorios.TokenRepository;
 import com.helpcore.auth_service.repositorios.UsuarioRepository;
 import com.helpcore.auth_service.seguridad.JwtAuthFilter;
+import com.helpcore.auth_service.seguridad.TokenRevocationIndex;
 import com.helpcore.auth_service.servicios.CookieService;
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -32,12 +33,14 @@ public class SecurityConfig {
     private final UsuarioRepository usuarioRepository;
     private final TokenRepository tokenRepository;
     private final CookieService cookieService;
+    private final TokenRevocationIndex tokenRevocationIndex;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/auth/admin/**").hasRole("ADMIN")
                         .requestMatchers("/auth/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -71,6 +74,8 @@ public class SecurityConfig {
             return;
         }
 
+        tokenRevocationIndex.revocar(token);
+
         final Token tokenEncontrado = tokenRepository.findByToken(token).orElse(null);
 
         if (tokenEncontrado != null) {
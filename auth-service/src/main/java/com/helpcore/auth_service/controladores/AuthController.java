@@ -3,13 +3,20 @@ package com.helpcore.auth_service.controladores;
 import com.helpcore.auth_service.servicios.CookieService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.helpcore.auth_service.entidades.dto.login.TokenResponseDTO;
 import com.helpcore.auth_service.entidades.dto.login.UsuarioLoginDTO;
@@ -29,17 +36,19 @@ public class AuthController {
     private final CookieService cookieService;
 
    @PostMapping("/register")
-   public ResponseEntity<TokenResponseDTO> register(@RequestBody final UsuarioRegisterDTO request, HttpServletResponse response) {
-       final TokenResponseDTO token = authService.registrar(request);
-       cookieService.setAuthCookies(response, token.accessToken(), token.refreshToken());
-       return ResponseEntity.ok(token);
+   public CompletableFuture<ResponseEntity<TokenResponseDTO>> register(@RequestBody final UsuarioRegisterDTO request, HttpServletResponse response) {
+       return authService.registrar(request).thenApply(token -> {
+           cookieService.setAuthCookies(response, token.accessToken(), token.refreshToken());
+           return ResponseEntity.ok(token);
+       });
    }
 
     @PostMapping("/login")
-    public ResponseEntity<TokenResponseDTO> login(@RequestBody final UsuarioLoginDTO request, HttpServletResponse response) {
-        final TokenResponseDTO token = authService.login(request);
-        cookieService.setAuthCookies(response, token.accessToken(), token.refreshToken());
-        return ResponseEntity.ok(token);
+    public CompletableFuture<ResponseEntity<TokenResponseDTO>> login(@RequestBody final UsuarioLoginDTO request, HttpServletResponse response) {
+        return authService.login(request).thenApply(token -> {
+            cookieService.setAuthCookies(response, token.accessToken(), token.refreshToken());
+            return ResponseEntity.ok(token);
+        });
     }
 
     @PostMapping("/logout")
@@ -59,4 +68,15 @@ public class AuthController {
         return ResponseEntity.ok(token);
     }
 
+    // Respuesta directa, sin pasar por /error (que exige autenticación).
+    // Retry-After solo en el 503 de cola de hashing llena: un 400/401/409 no se arregla reintentando
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, String>> handleResponseStatus(final ResponseStatusException ex) {
+        final ResponseEntity.BodyBuilder respuesta = ResponseEntity.status(ex.getStatusCode());
+        if (ex.getStatusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            respuesta.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return respuesta.body(Map.of("message", ex.getReason() != null ? ex.getReason() : ex.getMessage()));
+    }
+
 }
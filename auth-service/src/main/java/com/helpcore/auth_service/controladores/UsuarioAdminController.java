@@ -0,0 +1,37 @@
+package com.helpcore.auth_service.controladores;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.helpcore.auth_service.servicios.AuthService;
+
+import lombok.RequiredArgsConstructor;
+
+// Solo usuarios con rol ADMIN (app.security.administradores), ver SecurityConfig
+@RestController
+@RequestMapping("/auth/admin/usuarios")
+@RequiredArgsConstructor
+public class UsuarioAdminController {
+
+    private final AuthService authService;
+
+    // Corta el login y revoca los tokens vigentes del usuario en el momento
+    @PostMapping("/{nombreUsuario}/desactivar")
+    public ResponseEntity<Void> desactivar(@PathVariable final String nombreUsuario) {
+        authService.desactivarUsuario(nombreUsuario);
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(UsernameNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleUsuarioNoEncontrado(final UsernameNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Usuario no encontrado"));
+    }
+}
@@ -1,5 +1,7 @@
 package com.helpcore.auth_service.entidades;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -8,8 +10,10 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,6 +24,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity(name = "tb_token")
+@Table(name = "tb_token", indexes = {
+        @Index(name = "idx_token_usuario_estado", columnList = "id_usuario, expirado, removido"),
+        @Index(name = "idx_token_fecha_expiracion", columnList = "fecha_expiracion")
+})
 public class Token {
     
     public enum TipoToken{
@@ -43,6 +51,9 @@ public class Token {
     @Column(name = "expirado")
     public boolean expirado;
 
+    @Column(name = "fecha_expiracion")
+    public LocalDateTime fechaExpiracion;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_usuario")
     public Usuario usuario;
@@ -0,0 +1,11 @@
+package com.helpcore.auth_service.entidades.dto.usuario;
+
+// Proyección inmutable de tb_usuario para la cadena de seguridad (sin la colección de tokens)
+public record UsuarioPrincipal(
+    Integer id,
+    String nombreUsuario,
+    String contrasena,
+    boolean activo
+){
+
+}
@@ -1,23 +1,71 @@
 package com.helpcore.auth_service.repositorios;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.helpcore.auth_service.entidades.Token;
 
 @Repository
 public interface TokenRepository extends JpaRepository<Token, Integer> {
+    Optional<Token> findByToken(String token);
+
+    // Solo los tokens aún vigentes (los necesita el índice de revocación), sin cargar entidades
     @Query("""
-        SELECT t FROM tb_token t
-        WHERE t.usuario.id = :id AND (t.expirado = false OR t.removido = false)
+        SELECT t.token AS token, t.fechaExpiracion AS fechaExpiracion FROM tb_token t
+        WHERE t.usuario.id = :id AND t.expirado = false AND t.removido = false
+          AND (t.fechaExpiracion IS NULL OR t.fechaExpiracion > :ahora)
     """)
-    List<Token> findAllValidTokensByUserId(@Param("id") Integer id);
+    List<TokenVigente> findTokensVigentesByUserId(@Param("id") Integer id, @Param("ahora") LocalDateTime ahora);
 
-    Optional<Token> findByToken(String token);
+    // Revocación en bloque: un único UPDATE apoyado en idx_token_usuario_estado
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE tb_token t SET t.expirado = true, t.removido = true
+        WHERE t.usuario.id = :id AND t.expirado = false AND t.removido = false
+    """)
+    int revocarTokensVigentesByUserId(@Param("id") Integer id);
+
+    // Compactación por lotes (MySQL admite DELETE ... LIMIT)
+    @Modifying
+    @Transactional
+    @Query(value = """
+        DELETE FROM tb_token
+        WHERE fecha_expiracion < :limite
+           OR (fecha_expiracion IS NULL AND expirado = true AND removido = true)
+        LIMIT :lote
+    """, nativeQuery = true)
+    int eliminarExpirados(@Param("limite") LocalDateTime limite, @Param("lote") int lote);
+
+    @Query("""
+        SELECT t.token FROM tb_token t
+        WHERE (t.expirado = true OR t.removido = true)
+          AND (t.fechaExpiracion IS NULL OR t.fechaExpiracion > :ahora)
+    """)
+    List<String> findTokensRevocadosVigentes(@Param("ahora") LocalDateTime ahora);
+
+    // Estado de un token concreto para el índice de revocación (por el índice único de token)
+    @Query("""
+        SELECT t.expirado AS expirado, t.removido AS removido FROM tb_token t
+        WHERE t.token = :token
+    """)
+    Optional<TokenEstado> findEstadoByToken(@Param("token") String token);
+
+    interface TokenEstado {
+        boolean getExpirado();
+        boolean getRemovido();
+    }
 
+    interface TokenVigente {
+        String getToken();
+        LocalDateTime getFechaExpiracion();
+    }
 }
@@ -3,12 +3,32 @@ package com.helpcore.auth_service.repositorios;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.helpcore.auth_service.entidades.Usuario;
+import com.helpcore.auth_service.entidades.dto.usuario.UsuarioPrincipal;
 
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Integer>{
     Optional<Usuario> findByNombreUsuario(String nombreUsuario);
+
+    // Solo columnas de tb_usuario, sin cargar la entidad ni su relación con tb_token
+    @Query("SELECT new com.helpcore.auth_service.entidades.dto.usuario.UsuarioPrincipal(u.id, u.nombreUsuario, u.contrasena, u.activo) " +
+           "FROM Usuario u WHERE u.nombreUsuario = :nombreUsuario")
+    Optional<UsuarioPrincipal> findPrincipalByNombreUsuario(@Param("nombreUsuario") String nombreUsuario);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.contrasena = :contrasena WHERE u.nombreUsuario = :nombreUsuario")
+    int actualizarContrasena(@Param("nombreUsuario") String nombreUsuario, @Param("contrasena") String contrasena);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.activo = :activo WHERE u.nombreUsuario = :nombreUsuario")
+    int actualizarActivo(@Param("nombreUsuario") String nombreUsuario, @Param("activo") boolean activo);
 }
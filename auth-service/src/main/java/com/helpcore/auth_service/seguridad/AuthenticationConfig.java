@@ -1,48 +1,70 @@
 package com.helpcore.auth_service.seguridad;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import com.helpcore.auth_service.entidades.Usuario;
+import com.helpcore.auth_service.entidades.dto.usuario.UsuarioPrincipal;
 import com.helpcore.auth_service.repositorios.UsuarioRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
 @RequiredArgsConstructor
 public class AuthenticationConfig {
-    
+
     private final UsuarioRepository usuarioRepository;
+    private final UsuarioPrincipalCache usuarioPrincipalCache;
 
     @Bean
     public UserDetailsService userDetailsService(){
         return detalleUsuario -> {
-            final Usuario usuario_ = usuarioRepository.findByNombreUsuario(detalleUsuario).orElseThrow(
+            final UsuarioPrincipal usuario_ = usuarioPrincipalCache.obtener(detalleUsuario).orElseThrow(
                 () -> new UsernameNotFoundException("Usuario no encontrado"));
 
             return org.springframework.security.core.userdetails.User.builder()
-                    .username(usuario_.getNombreUsuario())
-                    .password(usuario_.getContrasena())
+                    .username(usuario_.nombreUsuario())
+                    .password(usuario_.contrasena())
+                    .disabled(!usuario_.activo())
                     .build();
         };
     }
 
+    // Rehash transparente: tras un login correcto, si el hash tiene menos work-factor que el configurado
+    // DaoAuthenticationProvider lo vuelve a generar con la contraseña en claro y lo guarda aquí
     @Bean
-    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService){
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (usuario, nuevaContrasena) -> {
+            usuarioRepository.actualizarContrasena(usuario.getUsername(), nuevaContrasena);
+            usuarioPrincipalCache.invalidar(usuario.getUsername());
+            return org.springframework.security.core.userdetails.User.withUserDetails(usuario)
+                    .password(nuevaContrasena)
+                    .build();
+        };
+    }
+
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         UserDetailsPasswordService userDetailsPasswordService,
+                                                         PasswordEncoder passwordEncoder){
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
-    
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.bcrypt-strength:10}") final int fuerza,
+                                           final MeterRegistry meterRegistry) {
+        return new MeteredPasswordEncoder(new BCryptPasswordEncoder(fuerza), meterRegistry);
     }
-}
\ No newline at end of file
+}
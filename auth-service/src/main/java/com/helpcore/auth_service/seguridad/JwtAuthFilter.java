@@ -2,20 +2,18 @@
 
     import java.io.IOException;
     import java.util.Optional;
+    import java.util.Set;
 
+    import org.springframework.beans.factory.annotation.Value;
     import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
     import org.springframework.security.core.context.SecurityContextHolder;
     import org.springframework.security.core.userdetails.UserDetails;
     import org.springframework.security.core.userdetails.UserDetailsService;
-    import org.springframework.security.core.userdetails.UsernameNotFoundException;
     import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
     import org.springframework.stereotype.Component;
     import org.springframework.web.filter.OncePerRequestFilter;
 
-    import com.helpcore.auth_service.entidades.Token;
-    import com.helpcore.auth_service.entidades.Usuario;
-    import com.helpcore.auth_service.repositorios.TokenRepository;
-    import com.helpcore.auth_service.repositorios.UsuarioRepository;
+    import com.helpcore.auth_service.entidades.dto.usuario.UsuarioPrincipal;
     import com.helpcore.auth_service.servicios.JwtService;
     import com.helpcore.auth_service.servicios.CookieService;
 
@@ -32,17 +30,22 @@
 
         private final JwtService jwtService;
         private final UserDetailsService userDetailsService;
-        private final TokenRepository tokenRepository;
-        private final UsuarioRepository usuarioRepository;
+        private final TokenRevocationIndex tokenRevocationIndex;
+        private final UsuarioPrincipalCache usuarioPrincipalCache;
         private final CookieService cookieService;
 
+        // Nombres de usuario con rol ADMIN (acceso a /auth/admin/**)
+        @Value("${app.security.administradores:}")
+        private Set<String> administradores;
+
         @Override
         protected void doFilterInternal(
                 @NonNull HttpServletRequest request,
                 @NonNull HttpServletResponse response,
                 @NonNull FilterChain filterChain) throws ServletException, IOException {
 
-            if (request.getServletPath().contains("/auth")) {
+            // /auth/admin/** sí exige token: es el único tramo de /auth que no es público
+            if (request.getServletPath().contains("/auth") && !request.getServletPath().startsWith("/auth/admin")) {
                 filterChain.doFilter(request, response);
                 return;
             }
@@ -61,29 +64,27 @@
                 return;
             }
 
-            final Token token = tokenRepository.findByToken(jwtToken).orElse(null);
-
-            if (token == null || token.isExpirado() || token.isRemovido()) {
+            // Revocados y tokens desconocidos: en memoria, con a lo sumo una consulta a tb_token por token y recheck-interval
+            if (tokenRevocationIndex.estaRevocado(jwtToken)) {
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            final Usuario loadUser = usuarioRepository.findByNombreUsuario(nombreUsuario)
-                    .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
-
-            UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-                    .username(loadUser.getNombreUsuario())
-                    .password(loadUser.getContrasena())
-                    .build();
+            // Proyección cacheada: sin consultar tb_usuario ni tb_token para usuarios frecuentes
+            final Optional<UsuarioPrincipal> usuario = usuarioPrincipalCache.obtener(nombreUsuario);
 
-            final Optional<Usuario> usuario = usuarioRepository.findByNombreUsuario(userDetails.getUsername());
-
-            if (usuario.isEmpty()) {
+            if (usuario.isEmpty() || !usuario.get().activo()) {
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            final boolean isTokenValid = jwtService.validarToken(jwtToken, usuario.get());
+            UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
+                    .username(usuario.get().nombreUsuario())
+                    .password(usuario.get().contrasena())
+                    .roles(administradores.contains(usuario.get().nombreUsuario()) ? new String[] {"ADMIN"} : new String[0])
+                    .build();
+
+            final boolean isTokenValid = jwtService.validarToken(jwtToken, usuario.get().nombreUsuario());
 
             if (!isTokenValid) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
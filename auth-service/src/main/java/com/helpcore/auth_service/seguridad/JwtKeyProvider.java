@@ -0,0 +1,39 @@
+package com.helpcore.auth_service.seguridad;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.config.annotation.RefreshScope;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Clave HMAC y parser JWT construidos una sola vez a partir de app.security.jwt.secret.
+ * Al ser @RefreshScope se reconstruyen únicamente cuando se refresca la configuración.
+ */
+@Component
+@RefreshScope
+public class JwtKeyProvider {
+
+    private final SecretKey signInKey;
+    private final JwtParser parser;
+
+    public JwtKeyProvider(@Value("${app.security.jwt.secret}") final String secretKey) {
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
+
+    public SecretKey getSignInKey() {
+        return signInKey;
+    }
+
+    public JwtParser getParser() {
+        return parser;
+    }
+}
@@ -0,0 +1,47 @@
+package com.helpcore.auth_service.seguridad;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Decora el PasswordEncoder para medir cada hash y verificación (auth.password.bcrypt{operacion}).
+ * Sirve para ajustar app.security.password.bcrypt-strength según la latencia real en producción.
+ */
+public class MeteredPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegado;
+    private final Timer encode;
+    private final Timer matches;
+
+    public MeteredPasswordEncoder(final PasswordEncoder delegado, final MeterRegistry meterRegistry) {
+        this.delegado = delegado;
+        this.encode = timer("encode", meterRegistry);
+        this.matches = timer("matches", meterRegistry);
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return encode.record(() -> delegado.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        final Boolean coincide = matches.record(() -> delegado.matches(rawPassword, encodedPassword));
+        return Boolean.TRUE.equals(coincide);
+    }
+
+    // true si el hash guardado tiene un work-factor menor al configurado (rehash en el login)
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(final String operacion, final MeterRegistry meterRegistry) {
+        return Timer.builder("auth.password.bcrypt")
+                .tag("operacion", operacion)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
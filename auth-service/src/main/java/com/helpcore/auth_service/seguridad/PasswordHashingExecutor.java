@@ -0,0 +1,93 @@
+package com.helpcore.auth_service.seguridad;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pool acotado para el trabajo BCrypt (hash en registro, verificación en login).
+ * Saca el coste de CPU de los hilos de Tomcat: con la cola llena se responde 503 al momento
+ * en vez de encolar la petición y dejar sin hilos a /auth/refresh y al resto de endpoints.
+ * Lo que sigue al hash (guardar usuario/token, firmar el JWT) corre en un pool aparte de continuaciones:
+ * la E/S de BD no ocupa hilos BCrypt. Su cola no necesita límite, solo recibe lo que sale del pool BCrypt.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final ExecutorService continuaciones;
+    private final Counter rechazos;
+
+    public PasswordHashingExecutor(
+            @Value("${app.security.password.threads:0}") final int hilos,
+            @Value("${app.security.password.queue-capacity:64}") final int capacidadCola,
+            @Value("${app.security.password.continuation-threads:8}") final int hilosContinuacion,
+            final MeterRegistry meterRegistry) {
+
+        final int tamano = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger contador = new AtomicInteger();
+
+        this.pool = new ThreadPoolExecutor(tamano, tamano, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    final Thread hilo = new Thread(tarea, "bcrypt-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // executor, executor.idle (espera en cola), executor.queued, executor.active...
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "auth.password", List.of(Tag.of("pool", "bcrypt")));
+        final AtomicInteger contadorContinuacion = new AtomicInteger();
+        this.continuaciones = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(hilosContinuacion, tarea -> {
+                    final Thread hilo = new Thread(tarea, "auth-continuacion-" + contadorContinuacion.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                }),
+                "auth.password.continuation", List.of(Tag.of("pool", "continuacion")));
+        this.rechazos = Counter.builder("auth.password.rejected")
+                .description("Peticiones rechazadas con 503 por cola de hashing llena")
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> ejecutar(final Supplier<T> tarea) {
+        try {
+            return CompletableFuture.supplyAsync(tarea, executor);
+        } catch (RejectedExecutionException ex) {
+            rechazos.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Servicio de autenticación saturado, reintente en unos segundos");
+        }
+    }
+
+    // Para thenApplyAsync tras el hash: repositorios y JWT fuera del pool BCrypt
+    public Executor continuaciones() {
+        return continuaciones;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        pool.shutdown();
+        continuaciones.shutdown();
+    }
+}
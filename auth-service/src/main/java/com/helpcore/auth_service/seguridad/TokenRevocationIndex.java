@@ -0,0 +1,149 @@
+package com.helpcore.auth_service.seguridad;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.helpcore.auth_service.repositorios.TokenRepository;
+import com.helpcore.auth_service.servicios.JwtService;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Índice en memoria del estado de los tokens emitidos (revocados en logout, login y refresh).
+ * Guarda el SHA-256 del token y su expiración: cada entrada revocada vive lo mismo que el token,
+ * pasado ese momento la validación JWT ya lo rechaza por sí sola.
+ * - Un token que no está en tb_token (firma válida pero nunca emitido, o ya compactado) cuenta como revocado
+ * - Los tokens vigentes se confirman contra tb_token y se recuerdan durante app.security.revocation.recheck-interval;
+ *   después se vuelven a consultar. Ese intervalo es la ventana en la que una revocación hecha en otra
+ *   réplica aún no se ve aquí; en la réplica que revoca el efecto es inmediato
+ * Se precarga desde tb_token al arrancar, así un token revocado no cuesta una consulta por request.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationIndex {
+
+    // Token confirmado en tb_token: no se vuelve a consultar hasta revisarEn
+    private record Vigente(long expiracion, long revisarEn) {
+    }
+
+    private final ConcurrentHashMap<String, Long> revocados = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Vigente> vigentes = new ConcurrentHashMap<>();
+
+    private final JwtService jwtService;
+    private final TokenRepository tokenRepository;
+
+    @Value("${app.security.revocation.recheck-interval:5000}")
+    private long intervaloRevision;
+
+    public void revocar(final String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        final Long expiracion = extraerExpiracion(token);
+        if (expiracion != null) {
+            registrar(token, expiracion);
+        }
+    }
+
+    public void revocar(final String token, final LocalDateTime fechaExpiracion) {
+        if (fechaExpiracion == null) {
+            revocar(token);
+            return;
+        }
+        registrar(token, fechaExpiracion.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    public boolean estaRevocado(final String token) {
+        final String clave = digest(token);
+        final long ahora = System.currentTimeMillis();
+        final Long expiracion = revocados.get(clave);
+
+        if (expiracion != null) {
+            if (expiracion > ahora) {
+                return true;
+            }
+            revocados.remove(clave, expiracion);
+        }
+
+        final Vigente vigente = vigentes.get(clave);
+        if (vigente != null && vigente.revisarEn() > ahora && vigente.expiracion() > ahora) {
+            return false;
+        }
+        return consultar(token, clave, ahora);
+    }
+
+    // Un token ausente de tb_token no lo emitió este servicio (o ya se compactó): se rechaza
+    private boolean consultar(final String token, final String clave, final long ahora) {
+        final Optional<TokenRepository.TokenEstado> estado = tokenRepository.findEstadoByToken(token);
+
+        if (estado.isEmpty() || estado.get().getExpirado() || estado.get().getRemovido()) {
+            vigentes.remove(clave);
+            revocar(token);
+            return true;
+        }
+
+        final Long expiracion = extraerExpiracion(token);
+        if (expiracion == null) {
+            return true;
+        }
+        vigentes.put(clave, new Vigente(expiracion, ahora + intervaloRevision));
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarDesdeBaseDeDatos() {
+        final List<String> tokens = tokenRepository.findTokensRevocadosVigentes(LocalDateTime.now());
+        tokens.forEach(this::revocar);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-interval:60000}")
+    public void purgarExpirados() {
+        final long ahora = System.currentTimeMillis();
+        revocados.values().removeIf(expiracion -> expiracion <= ahora);
+        // Vencida la revisión la entrada ya no evita la consulta; se descarta para acotar la memoria
+        vigentes.values().removeIf(vigente -> vigente.revisarEn() <= ahora);
+    }
+
+    private void registrar(final String token, final long expiracion) {
+        final String clave = digest(token);
+        vigentes.remove(clave);
+        if (expiracion > System.currentTimeMillis()) {
+            revocados.put(clave, expiracion);
+        }
+    }
+
+    // null si el token ya expiró o no es un JWT válido (la validación normal ya lo rechaza)
+    private Long extraerExpiracion(final String token) {
+        try {
+            final Date expiracion = jwtService.extraerClaims(token).getExpiration();
+            return expiracion != null ? expiracion.getTime() : Long.MAX_VALUE;
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static String digest(final String token) {
+        try {
+            final MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            final byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
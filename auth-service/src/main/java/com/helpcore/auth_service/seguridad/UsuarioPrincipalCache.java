@@ -0,0 +1,49 @@
+package com.helpcore.auth_service.seguridad;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.helpcore.auth_service.entidades.dto.usuario.UsuarioPrincipal;
+import com.helpcore.auth_service.repositorios.UsuarioRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché de UsuarioPrincipal por nombre de usuario para UserDetailsService y JwtAuthFilter.
+ * Los usuarios inexistentes no se cachean. Se invalida en registro, rehash y desactivación;
+ * el TTL acota el desfase si la fila se modifica desde fuera del servicio.
+ */
+@Component
+public class UsuarioPrincipalCache {
+
+    private final LoadingCache<String, UsuarioPrincipal> cache;
+
+    public UsuarioPrincipalCache(
+            final UsuarioRepository usuarioRepository,
+            @Value("${app.security.user-cache.maximum-size:5000}") final long tamanoMaximo,
+            @Value("${app.security.user-cache.ttl:5m}") final Duration ttl,
+            final MeterRegistry meterRegistry) {
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(nombreUsuario -> usuarioRepository.findPrincipalByNombreUsuario(nombreUsuario).orElse(null));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.usuario.cache");
+    }
+
+    public Optional<UsuarioPrincipal> obtener(final String nombreUsuario) {
+        return Optional.ofNullable(cache.get(nombreUsuario));
+    }
+
+    public void invalidar(final String nombreUsuario) {
+        cache.invalidate(nombreUsuario);
+    }
+}
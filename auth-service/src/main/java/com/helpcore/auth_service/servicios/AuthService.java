@@ -1,6 +1,8 @@
 package com.helpcore.auth_service.servicios;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,6 +19,9 @@ import com.helpcore.auth_service.entidades.dto.login.UsuarioLoginDTO;
 import com.helpcore.auth_service.entidades.dto.login.UsuarioRegisterDTO;
 import com.helpcore.auth_service.repositorios.TokenRepository;
 import com.helpcore.auth_service.repositorios.UsuarioRepository;
+import com.helpcore.auth_service.seguridad.PasswordHashingExecutor;
+import com.helpcore.auth_service.seguridad.TokenRevocationIndex;
+import com.helpcore.auth_service.seguridad.UsuarioPrincipalCache;
 
 @Service
 @RequiredArgsConstructor
@@ -27,24 +32,49 @@ public class AuthService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final CookieService cookieService;
+    private final TokenRevocationIndex tokenRevocationIndex;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final UsuarioPrincipalCache usuarioPrincipalCache;
+
+    // El hash BCrypt corre en el pool acotado; el hilo de Tomcat queda libre mientras tanto.
+    // Los saves y la firma del JWT siguen en el pool de continuaciones, no en el de BCrypt
+    public CompletableFuture<TokenResponseDTO> registrar(UsuarioRegisterDTO dto) {
+        return passwordHashingExecutor.ejecutar(() -> passwordEncoder.encode(dto.getContrasena()))
+                .thenApplyAsync(contrasena -> {
+                    Usuario usuario = Usuario.builder()
+                            .nombreUsuario(dto.getNombreUsuario())
+                            .contrasena(contrasena)
+                            .activo(true)
+                            .build();
+
+                    Usuario usuarioGuardado = usuarioRepository.save(usuario);
+                    usuarioPrincipalCache.invalidar(usuarioGuardado.getNombreUsuario());
+
+                    var jwtToken = jwtService.generarToken(usuario);
+                    var refreshToken = jwtService.generarRefreshToken(usuario);
+
+                    guardarTokenUsuario(usuarioGuardado, jwtToken);
+                    return new TokenResponseDTO(jwtToken, refreshToken);
+                }, passwordHashingExecutor.continuaciones());
+    }
 
-    public TokenResponseDTO registrar(UsuarioRegisterDTO dto) {
-        Usuario usuario = Usuario.builder()
-                .nombreUsuario(dto.getNombreUsuario())
-                .contrasena(passwordEncoder.encode(dto.getContrasena()))
-                .activo(true)
-                .build();
-
-        Usuario usuarioGuardado = usuarioRepository.save(usuario);
+    public CompletableFuture<TokenResponseDTO> login(UsuarioLoginDTO request) {
+        return passwordHashingExecutor.ejecutar(() -> autenticar(request))
+                .thenApplyAsync(nombreUsuario -> {
+                    final Usuario usuario = usuarioRepository.findByNombreUsuario(nombreUsuario)
+                            .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
+                    var jwtToken = jwtService.generarToken(usuario);
+                    var refreshToken = jwtService.generarRefreshToken(usuario);
 
-        var jwtToken = jwtService.generarToken(usuario);
-        var refreshToken = jwtService.generarRefreshToken(usuario);
+                    removerTokensUsuario(usuario);
+                    guardarTokenUsuario(usuario, jwtToken);
 
-        guardarTokenUsuario(usuarioGuardado, jwtToken);
-        return new TokenResponseDTO(jwtToken, refreshToken);
+                    return new TokenResponseDTO(jwtToken, refreshToken);
+                }, passwordHashingExecutor.continuaciones());
     }
 
-    public TokenResponseDTO login(UsuarioLoginDTO request) {
+    // Verificación BCrypt (y rehash si el work-factor guardado es menor al configurado)
+    private String autenticar(UsuarioLoginDTO request) {
         try {
             authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -53,16 +83,7 @@ public class AuthService {
         } catch (Exception ex) {
             throw new UsernameNotFoundException("Usuario o contraseña inválidos");
         }
-        Usuario usuario = usuarioRepository.findByNombreUsuario(request.getNombreUsuario())
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
-
-        var jwtToken = jwtService.generarToken(usuario);
-        var refreshToken = jwtService.generarRefreshToken(usuario);
-
-        removerTokensUsuario(usuario);
-        guardarTokenUsuario(usuario, jwtToken);
-
-        return new TokenResponseDTO(jwtToken, refreshToken);
+        return request.getNombreUsuario();
     }
 
     public TokenResponseDTO refreshToken(final String refreshToken) {
@@ -93,11 +114,23 @@ public class AuthService {
     }
 
 
+    // Desactiva la cuenta: corta el login (UserDetails deshabilitado) y revoca los tokens vigentes
+    public void desactivarUsuario(final String nombreUsuario) {
+        final Usuario usuario = usuarioRepository.findByNombreUsuario(nombreUsuario)
+                .orElseThrow(() -> new UsernameNotFoundException(nombreUsuario));
+
+        usuarioRepository.actualizarActivo(nombreUsuario, false);
+        usuarioPrincipalCache.invalidar(nombreUsuario);
+        removerTokensUsuario(usuario);
+    }
+
     public void logout(String token) {
         if (token == null || token.isEmpty()) {
             return;
         }
 
+        tokenRevocationIndex.revocar(token);
+
         final Token tokenEncontrado = tokenRepository.findByToken(token).orElse(null);
         if (tokenEncontrado != null) {
             tokenEncontrado.setExpirado(true);
@@ -107,15 +140,13 @@ public class AuthService {
     }
 
     private void removerTokensUsuario(final Usuario usuario) {
-        final List<Token> tokensUsuarioValido = tokenRepository.findAllValidTokensByUserId(usuario.getId());
-
-        if (!tokensUsuarioValido.isEmpty()) {
-            for (final Token token : tokensUsuarioValido) {
-                token.setExpirado(true);
-                token.setRemovido(true);
-            }
-            tokenRepository.saveAll(tokensUsuarioValido);
+        final List<TokenRepository.TokenVigente> tokensVigentes =
+                tokenRepository.findTokensVigentesByUserId(usuario.getId(), LocalDateTime.now());
+
+        for (final TokenRepository.TokenVigente token : tokensVigentes) {
+            tokenRevocationIndex.revocar(token.getToken(), token.getFechaExpiracion());
         }
+        tokenRepository.revocarTokensVigentesByUserId(usuario.getId());
     }
 
     private void guardarTokenUsuario(Usuario user, String jwtToken) {
@@ -125,6 +156,7 @@ public class AuthService {
                 .tipoToken(Token.TipoToken.BEARER)
                 .expirado(false)
                 .removido(false)
+                .fechaExpiracion(jwtService.extraerFechaExpiracion(jwtToken))
                 .build();
 
         tokenRepository.save(token);
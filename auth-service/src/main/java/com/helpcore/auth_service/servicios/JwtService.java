@@ -1,27 +1,27 @@
 package com.helpcore.auth_service.servicios;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.Map;
 
-import javax.crypto.SecretKey;
-
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.stereotype.Service;
 
 import com.helpcore.auth_service.entidades.Usuario;
+import com.helpcore.auth_service.seguridad.JwtKeyProvider;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 
 @Service
 @RefreshScope
+@RequiredArgsConstructor
 public class JwtService {
 
-    @Value("${app.security.jwt.secret}")
-    private String secretKey;
+    private final JwtKeyProvider jwtKeyProvider;
 
     @Value("${app.security.jwt.expiration}")
     private long jwtExpiration;
@@ -38,30 +38,28 @@ public class JwtService {
     }
 
     public String extraerUsuario(final String token) {
-        final Claims jwtToken = Jwts.parser()
-                .setSigningKey(getSignInKey())
+        return extraerClaims(token).getSubject();
+    }
+
+    public Claims extraerClaims(final String token) {
+        return jwtKeyProvider.getParser()
                 .parseClaimsJws(token)
                 .getBody();
+    }
 
-        return jwtToken.getSubject();
+    public LocalDateTime extraerFechaExpiracion(final String token) {
+        final Date expiracion = extraerClaims(token).getExpiration();
+        return expiracion != null ? LocalDateTime.ofInstant(expiracion.toInstant(), ZoneId.systemDefault()) : null;
     }
 
+    // Un único parseo del token para validar usuario y expiración
     public boolean validarToken(final String token, final Usuario usuario){
-        final String nombreUsuario = extraerUsuario(token);
-        return (nombreUsuario.equals(usuario.getNombreUsuario())) && !tokenExpirado(token);
+        return validarToken(token, usuario.getNombreUsuario());
     }
 
-    private boolean tokenExpirado(final String token){
-        return extraerExpiracion(token).before(new Date());
-    }
-
-    private Date extraerExpiracion(final String token){
-        final Claims jwtToken = Jwts.parser()
-                .setSigningKey(getSignInKey())
-                .parseClaimsJws(token)
-                .getBody();
-
-        return jwtToken.getExpiration();
+    public boolean validarToken(final String token, final String nombreUsuario){
+        final Claims claims = extraerClaims(token);
+        return (claims.getSubject().equals(nombreUsuario)) && !claims.getExpiration().before(new Date());
     }
 
     private String buildToken(final Usuario usuario, final long expiration) {
@@ -71,13 +69,8 @@ public class JwtService {
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setSubject(usuario.getNombreUsuario())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(jwtKeyProvider.getSignInKey())
                 .compact();
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
 }
@@ -0,0 +1,41 @@
+package com.helpcore.auth_service.servicios;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.helpcore.auth_service.repositorios.TokenRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Purga periódica de tb_token: borra por lotes las filas cuyo token ya expiró
+ * (más un margen de retención), para que la tabla no crezca con cada login.
+ * Cada lote es una transacción corta, así no se bloquea la tabla durante la purga.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenCompactionJob {
+
+    private final TokenRepository tokenRepository;
+
+    @Value("${app.security.token-compaction.batch-size:1000}")
+    private int tamanoLote;
+
+    @Value("${app.security.token-compaction.retention:1h}")
+    private Duration retencion;
+
+    @Scheduled(fixedDelayString = "${app.security.token-compaction.interval:900000}",
+            initialDelayString = "${app.security.token-compaction.interval:900000}")
+    public void compactar() {
+        final LocalDateTime limite = LocalDateTime.now().minus(retencion);
+
+        int eliminados;
+        do {
+            eliminados = tokenRepository.eliminarExpirados(limite, tamanoLote);
+        } while (eliminados == tamanoLote);
+    }
+}
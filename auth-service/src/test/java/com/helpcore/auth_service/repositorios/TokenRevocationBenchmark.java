@@ -0,0 +1,157 @@
+package com.helpcore.auth_service.repositorios;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Latencia del paso de revocación de un login según cuántos tokens históricos tenga el usuario.
+ * Replica sobre H2 (modo MySQL) el SQL que emite Hibernate en cada versión:
+ * - antes: SELECT con OR sobre idx_token_usuario + UPDATE fila a fila (saveAll)
+ * - después: SELECT de tokens vigentes + un UPDATE en bloque sobre idx_token_usuario_estado
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenRevocationBenchmark {
+
+    private static final int ID_USUARIO = 1;
+
+    @Param({"100", "1000", "10000"})
+    public int tokensPorUsuario;
+
+    private Connection antes;
+    private Connection despues;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        antes = crearBase("antes", "CREATE INDEX idx_token_usuario ON tb_token (id_usuario)");
+        despues = crearBase("despues",
+                "CREATE INDEX idx_token_usuario_estado ON tb_token (id_usuario, expirado, removido)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        antes.close();
+        despues.close();
+    }
+
+    @Benchmark
+    public int loginAntes() throws SQLException {
+        final List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement ps = antes.prepareStatement(
+                "SELECT id_token, token FROM tb_token WHERE id_usuario = ? AND (expirado = false OR removido = false)")) {
+            ps.setInt(1, ID_USUARIO);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        try (PreparedStatement ps = antes.prepareStatement(
+                "UPDATE tb_token SET expirado = true, removido = true WHERE id_token = ?")) {
+            for (final Integer id : ids) {
+                ps.setInt(1, id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        insertarToken(antes, false);
+        return ids.size();
+    }
+
+    @Benchmark
+    public int loginDespues() throws SQLException {
+        int vigentes = 0;
+        try (PreparedStatement ps = despues.prepareStatement(
+                "SELECT token, fecha_expiracion FROM tb_token WHERE id_usuario = ? AND expirado = false AND removido = false"
+                        + " AND (fecha_expiracion IS NULL OR fecha_expiracion > ?)")) {
+            ps.setInt(1, ID_USUARIO);
+            ps.setTimestamp(2, new Timestamp(System.currentTimeMillis()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    vigentes++;
+                }
+            }
+        }
+        try (PreparedStatement ps = despues.prepareStatement(
+                "UPDATE tb_token SET expirado = true, removido = true"
+                        + " WHERE id_usuario = ? AND expirado = false AND removido = false")) {
+            ps.setInt(1, ID_USUARIO);
+            ps.executeUpdate();
+        }
+        insertarToken(despues, false);
+        return vigentes;
+    }
+
+    private Connection crearBase(final String nombre, final String indice) throws SQLException {
+        final Connection conexion = DriverManager.getConnection(
+                "jdbc:h2:mem:" + nombre + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement st = conexion.createStatement()) {
+            st.execute("DROP TABLE IF EXISTS tb_token");
+            st.execute("""
+                    CREATE TABLE tb_token (
+                        id_token INT AUTO_INCREMENT PRIMARY KEY,
+                        token VARCHAR(255) NOT NULL UNIQUE,
+                        tipo_token VARCHAR(10),
+                        removido BOOLEAN NOT NULL,
+                        expirado BOOLEAN NOT NULL,
+                        fecha_expiracion TIMESTAMP,
+                        id_usuario INT NOT NULL
+                    )""");
+            st.execute(indice);
+        }
+        for (int i = 0; i < tokensPorUsuario; i++) {
+            insertarToken(conexion, true);
+        }
+        insertarToken(conexion, false);
+        return conexion;
+    }
+
+    private static void insertarToken(final Connection conexion, final boolean revocado) throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "INSERT INTO tb_token (token, tipo_token, removido, expirado, fecha_expiracion, id_usuario)"
+                        + " VALUES (?, 'BEARER', ?, ?, ?, ?)")) {
+            ps.setString(1, UUID.randomUUID().toString());
+            ps.setBoolean(2, revocado);
+            ps.setBoolean(3, revocado);
+            ps.setTimestamp(4, new Timestamp(System.currentTimeMillis() + 60_000));
+            ps.setInt(5, ID_USUARIO);
+            ps.executeUpdate();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenRevocationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
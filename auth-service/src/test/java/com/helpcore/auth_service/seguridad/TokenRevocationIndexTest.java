@@ -0,0 +1,93 @@
+package com.helpcore.auth_service.seguridad;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.helpcore.auth_service.repositorios.TokenRepository;
+import com.helpcore.auth_service.servicios.JwtService;
+
+import io.jsonwebtoken.Claims;
+
+class TokenRevocationIndexTest {
+
+    private static final String TOKEN = "header.payload.firma";
+
+    private TokenRepository tokenRepository;
+    private TokenRevocationIndex tokenRevocationIndex;
+
+    @BeforeEach
+    void setUp() {
+        final JwtService jwtService = mock(JwtService.class);
+        final Claims claims = mock(Claims.class);
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 60_000));
+        when(jwtService.extraerClaims(TOKEN)).thenReturn(claims);
+
+        tokenRepository = mock(TokenRepository.class);
+        tokenRevocationIndex = new TokenRevocationIndex(jwtService, tokenRepository);
+        ReflectionTestUtils.setField(tokenRevocationIndex, "intervaloRevision", 60_000L);
+    }
+
+    @Test
+    void unTokenQueNoEstaEnLaBaseDeDatosCuentaComoRevocado() {
+        when(tokenRepository.findEstadoByToken(TOKEN)).thenReturn(Optional.empty());
+
+        assertTrue(tokenRevocationIndex.estaRevocado(TOKEN));
+        assertTrue(tokenRevocationIndex.estaRevocado(TOKEN));
+        verify(tokenRepository, times(1)).findEstadoByToken(TOKEN);
+    }
+
+    @Test
+    void unTokenVigenteSeConsultaUnaVezPorIntervalo() {
+        when(tokenRepository.findEstadoByToken(TOKEN)).thenReturn(Optional.of(estado(false)));
+
+        assertFalse(tokenRevocationIndex.estaRevocado(TOKEN));
+        assertFalse(tokenRevocationIndex.estaRevocado(TOKEN));
+        verify(tokenRepository, times(1)).findEstadoByToken(TOKEN);
+    }
+
+    @Test
+    void laRevocacionDeOtraReplicaSeVeAlVencerElIntervalo() {
+        ReflectionTestUtils.setField(tokenRevocationIndex, "intervaloRevision", 0L);
+        when(tokenRepository.findEstadoByToken(TOKEN))
+                .thenReturn(Optional.of(estado(false)))
+                .thenReturn(Optional.of(estado(true)));
+
+        assertFalse(tokenRevocationIndex.estaRevocado(TOKEN));
+        assertTrue(tokenRevocationIndex.estaRevocado(TOKEN));
+    }
+
+    @Test
+    void revocarLocalmenteDescartaLaConfirmacionPrevia() {
+        when(tokenRepository.findEstadoByToken(TOKEN)).thenReturn(Optional.of(estado(false)));
+        assertFalse(tokenRevocationIndex.estaRevocado(TOKEN));
+
+        tokenRevocationIndex.revocar(TOKEN);
+
+        assertTrue(tokenRevocationIndex.estaRevocado(TOKEN));
+    }
+
+    private static TokenRepository.TokenEstado estado(final boolean removido) {
+        return new TokenRepository.TokenEstado() {
+            @Override
+            public boolean getExpirado() {
+                return removido;
+            }
+
+            @Override
+            public boolean getRemovido() {
+                return removido;
+            }
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.helpcore.auth_service.servicios;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.helpcore.auth_service.entidades.Token;
+import com.helpcore.auth_service.entidades.Usuario;
+import com.helpcore.auth_service.entidades.dto.login.UsuarioLoginDTO;
+import com.helpcore.auth_service.repositorios.TokenRepository;
+import com.helpcore.auth_service.repositorios.UsuarioRepository;
+import com.helpcore.auth_service.seguridad.PasswordHashingExecutor;
+import com.helpcore.auth_service.seguridad.TokenRevocationIndex;
+import com.helpcore.auth_service.seguridad.UsuarioPrincipalCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuthServiceTest {
+
+    private UsuarioRepository usuarioRepository;
+    private TokenRepository tokenRepository;
+    private JwtService jwtService;
+    private TokenRevocationIndex tokenRevocationIndex;
+    private UsuarioPrincipalCache usuarioPrincipalCache;
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        usuarioRepository = mock(UsuarioRepository.class);
+        tokenRepository = mock(TokenRepository.class);
+        jwtService = mock(JwtService.class);
+        tokenRevocationIndex = mock(TokenRevocationIndex.class);
+        usuarioPrincipalCache = mock(UsuarioPrincipalCache.class);
+        passwordHashingExecutor = new PasswordHashingExecutor(1, 4, 1, new SimpleMeterRegistry());
+
+        authService = new AuthService(usuarioRepository, tokenRepository, mock(PasswordEncoder.class), jwtService,
+                mock(AuthenticationManager.class), mock(CookieService.class), tokenRevocationIndex,
+                passwordHashingExecutor, usuarioPrincipalCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.cerrar();
+    }
+
+    @Test
+    void elLoginGuardaElTokenFueraDelPoolBcrypt() throws Exception {
+        final Usuario usuario = Usuario.builder().id(1).nombreUsuario("ana").activo(true).build();
+        when(usuarioRepository.findByNombreUsuario("ana")).thenReturn(Optional.of(usuario));
+        when(jwtService.generarToken(usuario)).thenReturn("jwt");
+        when(jwtService.generarRefreshToken(usuario)).thenReturn("refresh");
+
+        final AtomicReference<String> hiloGuardado = new AtomicReference<>();
+        when(tokenRepository.save(any(Token.class))).thenAnswer(inv -> {
+            hiloGuardado.set(Thread.currentThread().getName());
+            return inv.getArgument(0);
+        });
+
+        final UsuarioLoginDTO login = new UsuarioLoginDTO();
+        login.setNombreUsuario("ana");
+        login.setContrasena("secreta");
+
+        assertEquals("jwt", authService.login(login).get(5, TimeUnit.SECONDS).accessToken());
+        assertTrue(hiloGuardado.get().startsWith("auth-continuacion-"), hiloGuardado.get());
+    }
+
+    @Test
+    void desactivarUnUsuarioRevocaSusTokensVigentes() {
+        final Usuario usuario = Usuario.builder().id(7).nombreUsuario("luis").activo(true).build();
+        final LocalDateTime expiracion = LocalDateTime.now().plusMinutes(1);
+        when(usuarioRepository.findByNombreUsuario("luis")).thenReturn(Optional.of(usuario));
+        when(tokenRepository.findTokensVigentesByUserId(any(), any())).thenReturn(List.of(vigente("jwt-luis", expiracion)));
+
+        authService.desactivarUsuario("luis");
+
+        verify(usuarioRepository).actualizarActivo("luis", false);
+        verify(usuarioPrincipalCache).invalidar("luis");
+        verify(tokenRevocationIndex).revocar("jwt-luis", expiracion);
+        verify(tokenRepository).revocarTokensVigentesByUserId(7);
+    }
+
+    private static TokenRepository.TokenVigente vigente(final String token, final LocalDateTime expiracion) {
+        return new TokenRepository.TokenVigente() {
+            @Override
+            public String getToken() {
+                return token;
+            }
+
+            @Override
+            public LocalDateTime getFechaExpiracion() {
+                return expiracion;
+            }
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package com.helpcore.auth_service.servicios;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.helpcore.auth_service.entidades.Usuario;
+import com.helpcore.auth_service.seguridad.JwtKeyProvider;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Tokens/seg de JwtService antes (clave reconstruida y doble parseo) y después (JwtKeyProvider).
+ * Ejecutar con el main de esta clase o: java -cp target/test-classes:... org.openjdk.jmh.Main JwtServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "QmFzZTY0RW5jb2RlZEtleVNlZ3VyYUV4YW1wbGVEYXRhIQ==";
+
+    private JwtService jwtService;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(new JwtKeyProvider(SECRET));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 7_200_000L);
+
+        usuario = Usuario.builder().id(1).nombreUsuario("agente01").activo(true).build();
+        token = jwtService.generarToken(usuario);
+    }
+
+    @Benchmark
+    public boolean validarTokenAntes() {
+        final String nombreUsuario = claimsAntes(token).getSubject();
+        return nombreUsuario.equals(usuario.getNombreUsuario()) && !claimsAntes(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean validarTokenDespues() {
+        return jwtService.validarToken(token, usuario);
+    }
+
+    @Benchmark
+    public String generarTokenAntes() {
+        return Jwts.builder()
+                .setId(usuario.getId().toString())
+                .addClaims(Map.of("usuario", usuario.getNombreUsuario()))
+                .setSubject(usuario.getNombreUsuario())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000L))
+                .signWith(keyAntes())
+                .compact();
+    }
+
+    @Benchmark
+    public String generarTokenDespues() {
+        return jwtService.generarToken(usuario);
+    }
+
+    // Implementación previa: decodifica el secreto y reconstruye clave y parser en cada llamada
+    @SuppressWarnings("deprecation")
+    private static Claims claimsAntes(final String token) {
+        return Jwts.parser()
+                .setSigningKey(keyAntes())
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static SecretKey keyAntes() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
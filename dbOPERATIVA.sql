@@ -53,6 +53,95 @@ CREATE TABLE tb_ticket (
     CONSTRAINT fk_ticket_categoria FOREIGN KEY (id_categoria) REFERENCES tb_categoria_ticket(id_categoria)
 );
 
+-- Índices para el listado paginado por (fecha_creacion, id_ticket)
+CREATE INDEX idx_ticket_activo_fecha ON tb_ticket (es_activo, fecha_creacion, id_ticket);
+CREATE INDEX idx_ticket_estado_fecha ON tb_ticket (estado, fecha_creacion, id_ticket);
+CREATE INDEX idx_ticket_agente_fecha ON tb_ticket (id_usuario_agente, fecha_creacion, id_ticket);
+CREATE INDEX idx_ticket_sede_fecha ON tb_ticket (sede, fecha_creacion, id_ticket);
+CREATE INDEX idx_ticket_categoria_fecha ON tb_ticket (id_categoria, fecha_creacion, id_ticket);
+
+-- Cola de asignación (SELECT ... FOR UPDATE SKIP LOCKED por prioridad, más antiguos primero)
+CREATE INDEX idx_ticket_cola ON tb_ticket (estado, es_activo, prioridad, fecha_creacion, id_ticket);
+
+-- Conversación de los tickets. Los listados leen resumen/longitud por idx_respuesta_ticket_id;
+-- con ROW_FORMAT=DYNAMIC (por defecto) los contenidos largos quedan fuera de la página de la fila
+CREATE TABLE tb_respuesta_ticket (
+    id_respuesta BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id_ticket INT NOT NULL,
+    tipo_autor VARCHAR(10) NOT NULL,
+    id_usuario_autor INT,
+    nombre_autor VARCHAR(100) NOT NULL,
+    resumen VARCHAR(200) NOT NULL,
+    longitud INT NOT NULL,
+    contenido MEDIUMTEXT NOT NULL,
+    fecha_creacion DATETIME(3) NOT NULL,
+    CONSTRAINT fk_respuesta_ticket FOREIGN KEY (id_ticket) REFERENCES tb_ticket(id_ticket),
+    INDEX idx_respuesta_ticket_id (id_ticket, id_respuesta)
+);
+
+-- Contadores por ticket, actualizados con cada respuesta (sin COUNT sobre tb_respuesta_ticket)
+CREATE TABLE tb_ticket_conversacion (
+    id_ticket INT PRIMARY KEY,
+    total_respuestas INT NOT NULL,
+    no_leidas_agente INT NOT NULL,
+    no_leidas_cliente INT NOT NULL,
+    id_ultima_respuesta BIGINT NOT NULL,
+    fecha_ultima_respuesta DATETIME(3) NOT NULL,
+    CONSTRAINT fk_conversacion_ticket FOREIGN KEY (id_ticket) REFERENCES tb_ticket(id_ticket)
+);
+
+-- Historial de cambios de tickets (solo inserciones, por lotes). Particionada por mes:
+-- la clave primaria debe incluir fecha y no admite FK. TicketHistorialParticiones parte
+-- p_futuro para crear los meses siguientes
+CREATE TABLE tb_ticket_historial (
+    id_historial BIGINT AUTO_INCREMENT,
+    id_ticket INT NOT NULL,
+    campo VARCHAR(30) NOT NULL,
+    valor_anterior VARCHAR(50),
+    valor_nuevo VARCHAR(50),
+    fecha DATETIME(3) NOT NULL,
+    PRIMARY KEY (id_historial, fecha),
+    INDEX idx_historial_ticket_fecha (id_ticket, fecha)
+)
+PARTITION BY RANGE COLUMNS (fecha) (
+    PARTITION p2026_10 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p2026_11 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p2026_12 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p_futuro VALUES LESS THAN (MAXVALUE)
+);
+
+-- Outbox de eventos de ticket (ticket-service) y claves ya procesadas (notification-service)
+CREATE TABLE tb_evento_outbox (
+    id_evento BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tipo VARCHAR(50) NOT NULL,
+    id_agregado INT NOT NULL,
+    idempotency_key VARCHAR(36) NOT NULL UNIQUE,
+    payload TEXT NOT NULL,
+    estado VARCHAR(20) NOT NULL,
+    intentos INT NOT NULL,
+    proximo_intento DATETIME NOT NULL,
+    ultimo_error VARCHAR(500),
+    fecha_creacion DATETIME NOT NULL,
+    fecha_envio DATETIME,
+    INDEX idx_outbox_estado_proximo (estado, proximo_intento, id_evento)
+);
+
+CREATE TABLE tb_notificacion_procesada (
+    idempotency_key VARCHAR(64) PRIMARY KEY,
+    estado VARCHAR(20) NOT NULL DEFAULT 'COMPLETADA',
+    fecha_procesado DATETIME NOT NULL,
+    INDEX idx_notificacion_fecha (fecha_procesado)
+);
+
+-- Códigos de verificación de correo (notification-service con app.notificaciones.verificacion.store=jpa)
+CREATE TABLE tb_codigo_verificacion (
+    email VARCHAR(150) PRIMARY KEY,
+    codigo_hash CHAR(64) NOT NULL,
+    intentos INT NOT NULL,
+    fecha_expiracion DATETIME NOT NULL,
+    INDEX idx_codigo_expira (fecha_expiracion)
+);
+
 select * from tb_ticket
 
 select * from 
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.helpcore.notification_service.controlador;
 
 import com.helpcore.notification_service.dto.TicketCreatedDto;
+import com.helpcore.notification_service.servicios.ColaCorreoLlenaException;
 import com.helpcore.notification_service.servicios.EmailService;
+import com.helpcore.notification_service.servicios.IdempotenciaService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,14 +13,43 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class NotificationController {
     private final EmailService emailService;
+    private final IdempotenciaService idempotenciaService;
 
+    // Idempotency-Key lo envía el outbox de ticket-service; un reenvío de la misma clave no duplica correos
     @PostMapping("/ticket-creado")
-    public ResponseEntity<String> handleTicketCreated(@RequestBody TicketCreatedDto ticket) {
+    public ResponseEntity<String> handleTicketCreated(@RequestBody TicketCreatedDto ticket,
+                                                      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null && idempotencyKey.length() > IdempotenciaService.LONGITUD_MAXIMA_CLAVE) {
+            return ResponseEntity.badRequest().body("Idempotency-Key demasiado larga.");
+        }
+        if (idempotencyKey != null) {
+            switch (idempotenciaService.reservar(idempotencyKey)) {
+                case PROCESADA:
+                    return ResponseEntity.ok("Notificación ya procesada.");
+                case EN_CURSO:
+                    // Otra entrega de la misma clave aún no terminó: el outbox reintentará y verá el resultado
+                    return ResponseEntity.status(409).body("Notificación en proceso.");
+                default:
+                    break;
+            }
+        }
+
         try{
             emailService.sendTicketCreatedEmails(ticket, "joaquin.asr.16@gmail.com");
-            return ResponseEntity.ok("Notificación enviada al equipo de soporte.");
+            if (idempotencyKey != null) {
+                idempotenciaService.confirmar(idempotencyKey);
+            }
+            return ResponseEntity.accepted().body("Notificación encolada para el equipo de soporte.");
+        } catch (ColaCorreoLlenaException e) {
+            // Cola llena: el outbox de ticket-service reintentará más tarde
+            if (idempotencyKey != null) {
+                idempotenciaService.liberar(idempotencyKey);
+            }
+            return ResponseEntity.status(503).body(e.getMessage());
         } catch (Exception e) {
-            return ResponseEntity.status(500).body("Error al enviar el correo: " + e.getMessage());
+            // Error inesperado: no se sabe si el correo llegó a la cola. La reserva queda EN_CURSO y solo
+            // caduca pasado reserva-caducidad, así un reintento inmediato del outbox no duplica el envío
+            return ResponseEntity.status(500).body("Error al preparar el correo: " + e.getMessage());
         }
     }
 }
@@ -2,12 +2,18 @@ package com.helpcore.notification_service.controlador;
 
 import com.helpcore.notification_service.dto.EmailVerificationDto;
 import com.helpcore.notification_service.servicios.EmailVerificationService;
+import com.helpcore.notification_service.servicios.LimiteSolicitudesException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/verification")
@@ -15,11 +21,20 @@ import java.util.Map;
 public class VerificationController {
     private final EmailVerificationService emailVerificationService;
 
+    @Value("${app.notificaciones.verificacion.proxies-confiables:}")
+    private Set<String> proxiesConfiables = Set.of();
+
     @PostMapping("/enviar-correo")
-    public ResponseEntity<String> sendCode(@RequestBody EmailVerificationDto request) {
+    public ResponseEntity<String> sendCode(@RequestBody EmailVerificationDto request, HttpServletRequest httpRequest) {
         try {
-            emailVerificationService.sendVerificationCode(request.getEmail());
+            emailVerificationService.sendVerificationCode(request.getEmail(), ipCliente(httpRequest));
             return ResponseEntity.ok("Código de verificación enviado a " + request.getEmail());
+        } catch (LimiteSolicitudesException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getReintentarEnSegundos()))
+                    .body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error al enviar el correo: " + e.getMessage());
         }
@@ -37,4 +52,15 @@ public class VerificationController {
         return valido ? ResponseEntity.ok(response)
                 : ResponseEntity.badRequest().body(response);
     }
+
+    // X-Forwarded-For lo escribe el cliente: solo se usa el último salto, y solo si lo añadió un proxy de confianza
+    String ipCliente(HttpServletRequest request) {
+        String remota = request.getRemoteAddr();
+        String reenviada = request.getHeader("X-Forwarded-For");
+        if (reenviada == null || reenviada.isBlank() || !proxiesConfiables.contains(remota)) {
+            return remota;
+        }
+        String ultimoSalto = reenviada.substring(reenviada.lastIndexOf(',') + 1).trim();
+        return ultimoSalto.isEmpty() ? remota : ultimoSalto;
+    }
 }
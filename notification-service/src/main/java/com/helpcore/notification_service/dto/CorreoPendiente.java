@@ -0,0 +1,36 @@
+package com.helpcore.notification_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+// Correo ya renderizado a la espera de envío; disponibleEn (epoch ms) marca cuándo puede reintentarse
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CorreoPendiente implements Delayed {
+    private String destinatario;
+    private String asunto;
+    private String cuerpo;
+    private int intentos;
+    private long disponibleEn;
+
+    public CorreoPendiente(String destinatario, String asunto, String cuerpo) {
+        this(destinatario, asunto, cuerpo, 0, System.currentTimeMillis());
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(disponibleEn - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed otro) {
+        return Long.compare(getDelay(TimeUnit.MILLISECONDS), otro.getDelay(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,32 @@
+package com.helpcore.notification_service.entidades;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Código de verificación vigente por email (solo se guarda su hash SHA-256)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tb_codigo_verificacion", indexes = {
+        @Index(name = "idx_codigo_expira", columnList = "fecha_expiracion")
+})
+public class CodigoVerificacion {
+
+    @Id
+    @Column(name = "email", length = 150)
+    private String email;
+
+    @Column(name = "codigo_hash", nullable = false, length = 64)
+    private String codigoHash;
+
+    @Column(name = "intentos", nullable = false)
+    private int intentos;
+
+    @Column(name = "fecha_expiracion", nullable = false)
+    private LocalDateTime fechaExpiracion;
+}
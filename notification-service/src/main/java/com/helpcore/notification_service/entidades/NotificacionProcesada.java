@@ -0,0 +1,37 @@
+package com.helpcore.notification_service.entidades;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Idempotency-Key de cada notificación ya atendida, para descartar reenvíos del outbox
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tb_notificacion_procesada", indexes = {
+        @Index(name = "idx_notificacion_fecha", columnList = "fecha_procesado")
+})
+public class NotificacionProcesada {
+
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    // Las claves guardadas antes de existir esta columna ya estaban procesadas
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "VARCHAR(20) DEFAULT 'COMPLETADA'")
+    private Estado estado;
+
+    // Reserva o confirmación, según el estado
+    @Column(name = "fecha_procesado", nullable = false)
+    private LocalDateTime fechaProcesado;
+
+    // EN_CURSO: clave reservada y correo aún sin encolar; COMPLETADA: correo entregado a la cola
+    public enum Estado {
+        EN_CURSO, COMPLETADA
+    }
+}
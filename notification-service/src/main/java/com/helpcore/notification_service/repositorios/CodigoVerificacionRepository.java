@@ -0,0 +1,42 @@
+package com.helpcore.notification_service.repositorios;
+
+import com.helpcore.notification_service.entidades.CodigoVerificacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface CodigoVerificacionRepository extends JpaRepository<CodigoVerificacion, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO tb_codigo_verificacion (email, codigo_hash, intentos, fecha_expiracion) " +
+            "VALUES (:email, :hash, 0, :expira) " +
+            "ON DUPLICATE KEY UPDATE codigo_hash = VALUES(codigo_hash), intentos = 0, fecha_expiracion = VALUES(fecha_expiracion)",
+            nativeQuery = true)
+    void guardar(@Param("email") String email, @Param("hash") String hash, @Param("expira") LocalDateTime expira);
+
+    // 1 si el código era correcto y vigente: el DELETE lo consume una sola vez aunque haya varias réplicas
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CodigoVerificacion c WHERE c.email = :email AND c.codigoHash = :hash AND c.fechaExpiracion > :ahora")
+    int consumir(@Param("email") String email, @Param("hash") String hash, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CodigoVerificacion c SET c.intentos = c.intentos + 1 WHERE c.email = :email")
+    int registrarIntento(@Param("email") String email);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CodigoVerificacion c WHERE c.email = :email AND (c.intentos >= :maxIntentos OR c.fechaExpiracion <= :ahora)")
+    int invalidarAgotado(@Param("email") String email, @Param("maxIntentos") int maxIntentos, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM tb_codigo_verificacion WHERE fecha_expiracion <= :ahora LIMIT :lote", nativeQuery = true)
+    int eliminarExpirados(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+}
@@ -0,0 +1,45 @@
+package com.helpcore.notification_service.repositorios;
+
+import com.helpcore.notification_service.entidades.NotificacionProcesada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface NotificacionProcesadaRepository extends JpaRepository<NotificacionProcesada, String> {
+
+    // 1 si la clave es nueva, 0 si ya existía. No se usa ON DUPLICATE KEY UPDATE: con CLIENT_FOUND_ROWS
+    // (el valor por defecto de Connector/J) una fila sin cambios también devuelve 1
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO tb_notificacion_procesada (idempotency_key, estado, fecha_procesado) " +
+            "VALUES (:clave, 'EN_CURSO', :fecha)", nativeQuery = true)
+    int insertarSiNueva(@Param("clave") String clave, @Param("fecha") LocalDateTime fecha);
+
+    // 1 si retoma una reserva EN_CURSO anterior a :caducada (caída entre reservar y confirmar). El WHERE solo
+    // casa filas que cambian, así que el resultado no depende de useAffectedRows; de dos entregas simultáneas
+    // solo una la retoma (la segunda reevalúa el WHERE tras el bloqueo de fila)
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE tb_notificacion_procesada SET fecha_procesado = :fecha " +
+            "WHERE idempotency_key = :clave AND estado = 'EN_CURSO' AND fecha_procesado < :caducada", nativeQuery = true)
+    int retomarCaducada(@Param("clave") String clave, @Param("fecha") LocalDateTime fecha, @Param("caducada") LocalDateTime caducada);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE tb_notificacion_procesada SET estado = 'COMPLETADA', fecha_procesado = :fecha WHERE idempotency_key = :clave",
+            nativeQuery = true)
+    int confirmar(@Param("clave") String clave, @Param("fecha") LocalDateTime fecha);
+
+    @Query("SELECT n.estado FROM NotificacionProcesada n WHERE n.idempotencyKey = :clave")
+    Optional<NotificacionProcesada.Estado> findEstado(@Param("clave") String clave);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM tb_notificacion_procesada WHERE fecha_procesado < :limite LIMIT :lote", nativeQuery = true)
+    int eliminarAnteriores(@Param("limite") LocalDateTime limite, @Param("lote") int lote);
+}
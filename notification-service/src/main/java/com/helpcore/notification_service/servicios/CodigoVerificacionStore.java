@@ -0,0 +1,20 @@
+package com.helpcore.notification_service.servicios;
+
+import java.time.Duration;
+
+/**
+ * Almacén de códigos de verificación de correo. Implementaciones (app.notificaciones.verificacion.store):
+ * - memoria: Caffeine acotado, por instancia; los códigos se pierden al reiniciar
+ * - jpa: tabla tb_codigo_verificacion, compartida entre réplicas y persistente
+ */
+public interface CodigoVerificacionStore {
+
+    // Reemplaza cualquier código anterior del mismo email y reinicia sus intentos
+    void guardar(String email, String codigo, Duration ttl);
+
+    /**
+     * true solo la primera vez que se presenta el código correcto antes de expirar (un solo uso).
+     * Cada código incorrecto cuenta como intento; al llegar a maxIntentos el código se invalida.
+     */
+    boolean consumir(String email, String codigo, int maxIntentos);
+}
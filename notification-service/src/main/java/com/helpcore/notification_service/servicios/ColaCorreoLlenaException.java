@@ -0,0 +1,13 @@
+package com.helpcore.notification_service.servicios;
+
+// Cola de correo sin hueco (ni desbordamiento a disco); el llamador responde 503 y el emisor reintenta
+public class ColaCorreoLlenaException extends RuntimeException {
+
+    public ColaCorreoLlenaException(String mensaje) {
+        super(mensaje);
+    }
+
+    public ColaCorreoLlenaException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
@@ -0,0 +1,325 @@
+package com.helpcore.notification_service.servicios;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpcore.notification_service.dto.CorreoPendiente;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola interna de envío de correos: los controladores encolan y responden sin esperar al SMTP.
+ * - Cola acotada (capacidad-cola): si está llena el correo se desborda a disco o se rechaza
+ * - Cada worker mantiene abierta su conexión SMTP (Transport) y la reutiliza para muchos mensajes;
+ *   la cierra tras inactividad-conexion sin trabajo o ante un error
+ * - Reintentos con backoff exponencial y jitter; las direcciones inválidas no se reintentan
+ * - Al apagar, lo que queda en memoria se vuelca a disco si el desbordamiento está habilitado
+ */
+@Service
+@RequiredArgsConstructor
+public class ColaCorreoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ColaCorreoService.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.notificaciones.correo.workers:2}")
+    private int workers;
+
+    @Value("${app.notificaciones.correo.capacidad-cola:1000}")
+    private int capacidadCola;
+
+    @Value("${app.notificaciones.correo.max-intentos:6}")
+    private int maxIntentos;
+
+    @Value("${app.notificaciones.correo.backoff-inicial:2s}")
+    private Duration backoffInicial;
+
+    @Value("${app.notificaciones.correo.backoff-maximo:5m}")
+    private Duration backoffMaximo;
+
+    @Value("${app.notificaciones.correo.inactividad-conexion:30s}")
+    private Duration inactividadConexion;
+
+    @Value("${app.notificaciones.correo.desbordamiento.habilitado:false}")
+    private boolean desbordamientoHabilitado;
+
+    @Value("${app.notificaciones.correo.desbordamiento.archivo:correos-pendientes.ndjson}")
+    private Path archivoDesbordamiento;
+
+    private final DelayQueue<CorreoPendiente> cola = new DelayQueue<>();
+    // Un permiso por hueco libre; se devuelve al terminar el correo (enviado o descartado), no al reintentar
+    private Semaphore espacios;
+    private final AtomicLong enDisco = new AtomicLong();
+    private final Object bloqueoDisco = new Object();
+
+    private ExecutorService pool;
+    private volatile boolean activo = true;
+
+    private Timer envios;
+    private Timer enviosFallidos;
+    private Counter reintentos;
+    private Counter descartados;
+    private Counter desbordados;
+
+    @PostConstruct
+    public void init() {
+        espacios = new Semaphore(capacidadCola);
+
+        Gauge.builder("notificaciones.correo.cola", cola, DelayQueue::size)
+                .description("Correos en memoria pendientes de envío o de reintento")
+                .register(meterRegistry);
+        Gauge.builder("notificaciones.correo.disco", enDisco, AtomicLong::get)
+                .description("Correos desbordados a disco")
+                .register(meterRegistry);
+        envios = Timer.builder("notificaciones.correo.envio").tag("resultado", "ok").register(meterRegistry);
+        enviosFallidos = Timer.builder("notificaciones.correo.envio").tag("resultado", "error").register(meterRegistry);
+        reintentos = Counter.builder("notificaciones.correo.reintentos").register(meterRegistry);
+        descartados = Counter.builder("notificaciones.correo.descartados").register(meterRegistry);
+        desbordados = Counter.builder("notificaciones.correo.desbordados").register(meterRegistry);
+
+        if (desbordamientoHabilitado && Files.exists(archivoDesbordamiento)) {
+            try {
+                enDisco.set(contarLineas(archivoDesbordamiento));
+            } catch (IOException e) {
+                log.error("No se pudo leer {}: {}", archivoDesbordamiento, e.getMessage());
+            }
+        }
+
+        AtomicInteger contador = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(workers, tarea -> {
+            Thread hilo = new Thread(tarea, "correo-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        for (int i = 0; i < workers; i++) {
+            pool.execute(this::trabajar);
+        }
+    }
+
+    /**
+     * Encola todos los correos o ninguno. Sin hueco en memoria van a disco si está habilitado;
+     * si no, lanza ColaCorreoLlenaException para que el llamador responda 503 y reintente.
+     */
+    public void encolar(List<CorreoPendiente> correos) {
+        if (espacios.tryAcquire(correos.size())) {
+            cola.addAll(correos);
+            return;
+        }
+        if (!desbordamientoHabilitado) {
+            throw new ColaCorreoLlenaException("Cola de correo llena");
+        }
+        try {
+            escribirEnDisco(correos);
+            desbordados.increment(correos.size());
+        } catch (IOException e) {
+            throw new ColaCorreoLlenaException("Cola de correo llena y no se pudo desbordar a disco", e);
+        }
+    }
+
+    private void trabajar() {
+        Transport transport = null;
+        try {
+            while (activo) {
+                CorreoPendiente correo = cola.poll(inactividadConexion.toMillis(), TimeUnit.MILLISECONDS);
+                if (correo == null) {
+                    transport = cerrar(transport);
+                    continue;
+                }
+
+                long inicio = System.nanoTime();
+                try {
+                    transport = conectar(transport);
+                    enviar(transport, correo);
+                    envios.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                    espacios.release();
+                } catch (MessagingException | RuntimeException e) {
+                    enviosFallidos.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                    transport = cerrar(transport);
+                    reprogramar(correo, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            cerrar(transport);
+        }
+    }
+
+    private Transport conectar(Transport transport) throws MessagingException {
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        Transport nuevo = mailSender.getSession().getTransport(mailSender.getProtocol());
+        nuevo.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        return nuevo;
+    }
+
+    private void enviar(Transport transport, CorreoPendiente correo) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setTo(correo.getDestinatario());
+        helper.setSubject(correo.getAsunto());
+        helper.setText(correo.getCuerpo(), true);
+        message.setSentDate(new Date());
+        message.saveChanges();
+        transport.sendMessage(message, message.getAllRecipients());
+    }
+
+    private Transport cerrar(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error al cerrar la conexión SMTP: {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void reprogramar(CorreoPendiente correo, Exception e) {
+        int intentos = correo.getIntentos() + 1;
+        correo.setIntentos(intentos);
+
+        boolean direccionInvalida = e instanceof SendFailedException fallo
+                && fallo.getInvalidAddresses() != null && fallo.getInvalidAddresses().length > 0;
+        if (direccionInvalida || intentos >= maxIntentos) {
+            descartados.increment();
+            espacios.release();
+            log.error("Correo a {} descartado tras {} intentos: {}", correo.getDestinatario(), intentos, e.getMessage());
+            return;
+        }
+
+        // 2s, 4s, 8s... hasta backoff-maximo, con ±20% de jitter; conserva su hueco en la cola
+        long base = Math.min(backoffMaximo.toMillis(), backoffInicial.toMillis() << Math.min(intentos - 1, 20));
+        long espera = (long) (base * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+        correo.setDisponibleEn(System.currentTimeMillis() + espera);
+        reintentos.increment();
+        cola.add(correo);
+        log.warn("Correo a {} falló (intento {}), reintento en {} ms: {}", correo.getDestinatario(), intentos, espera, e.getMessage());
+    }
+
+    // Devuelve a memoria los correos desbordados en cuanto hay hueco, en el orden en que llegaron
+    @Scheduled(fixedDelayString = "${app.notificaciones.correo.desbordamiento.intervalo:10000}")
+    public void recuperarDesbordados() {
+        if (!desbordamientoHabilitado || enDisco.get() == 0) {
+            return;
+        }
+        synchronized (bloqueoDisco) {
+            Path temporal = archivoDesbordamiento.resolveSibling(archivoDesbordamiento.getFileName() + ".tmp");
+            long restantes = 0;
+            try (BufferedReader reader = Files.newBufferedReader(archivoDesbordamiento, StandardCharsets.UTF_8);
+                 BufferedWriter writer = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+                String linea;
+                while ((linea = reader.readLine()) != null) {
+                    if (linea.isBlank()) {
+                        continue;
+                    }
+                    if (restantes == 0 && espacios.tryAcquire()) {
+                        cola.add(objectMapper.readValue(linea, CorreoPendiente.class));
+                    } else {
+                        writer.write(linea);
+                        writer.newLine();
+                        restantes++;
+                    }
+                }
+            } catch (IOException e) {
+                log.error("No se pudieron recuperar los correos de {}: {}", archivoDesbordamiento, e.getMessage());
+                return;
+            }
+
+            try {
+                Files.move(temporal, archivoDesbordamiento, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                enDisco.set(restantes);
+            } catch (IOException e) {
+                log.error("No se pudo reescribir {}: {}", archivoDesbordamiento, e.getMessage());
+            }
+        }
+    }
+
+    private void escribirEnDisco(List<CorreoPendiente> correos) throws IOException {
+        List<String> lineas = new ArrayList<>(correos.size());
+        for (CorreoPendiente correo : correos) {
+            try {
+                lineas.add(objectMapper.writeValueAsString(correo));
+            } catch (JsonProcessingException e) {
+                throw new IOException(e);
+            }
+        }
+        synchronized (bloqueoDisco) {
+            Path directorio = archivoDesbordamiento.toAbsolutePath().getParent();
+            if (directorio != null) {
+                Files.createDirectories(directorio);
+            }
+            Files.write(archivoDesbordamiento, lineas, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            enDisco.addAndGet(lineas.size());
+        }
+    }
+
+    private static long contarLineas(Path archivo) throws IOException {
+        try (var lineas = Files.lines(archivo, StandardCharsets.UTF_8)) {
+            return lineas.filter(linea -> !linea.isBlank()).count();
+        }
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activo = false;
+        pool.shutdownNow();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        List<CorreoPendiente> pendientes = new ArrayList<>(cola);
+        cola.clear();
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        if (!desbordamientoHabilitado) {
+            log.warn("Se pierden {} correos pendientes al apagar (desbordamiento deshabilitado)", pendientes.size());
+            return;
+        }
+        try {
+            escribirEnDisco(pendientes);
+        } catch (IOException e) {
+            log.error("No se pudieron guardar {} correos pendientes: {}", pendientes.size(), e.getMessage());
+        }
+    }
+}
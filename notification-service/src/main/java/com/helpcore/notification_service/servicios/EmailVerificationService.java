@@ -1,33 +1,72 @@
 package com.helpcore.notification_service.servicios;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
 
 import java.security.SecureRandom;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class EmailVerificationService {
     private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
-    private final ConcurrentHashMap<String, String> codes = new ConcurrentHashMap<>();
+    private final PlantillaCorreoRegistry plantillaCorreoRegistry;
+    private final CodigoVerificacionStore codigoVerificacionStore;
     private final SecureRandom random = new SecureRandom();
 
-    public void sendVerificationCode(String email) throws Exception {
-        String codigo = String.valueOf(100000 + random.nextInt(900000));
-        codes.put(email, codigo);
+    @Value("${app.notificaciones.verificacion.ttl:10m}")
+    private Duration ttlCodigo;
+
+    @Value("${app.notificaciones.verificacion.max-intentos:5}")
+    private int maxIntentos;
+
+    @Value("${app.notificaciones.verificacion.limite-email.capacidad:3}")
+    private int capacidadPorEmail;
+
+    @Value("${app.notificaciones.verificacion.limite-email.periodo:15m}")
+    private Duration periodoPorEmail;
+
+    @Value("${app.notificaciones.verificacion.limite-ip.capacidad:20}")
+    private int capacidadPorIp;
+
+    @Value("${app.notificaciones.verificacion.limite-ip.periodo:15m}")
+    private Duration periodoPorIp;
+
+    @Value("${app.notificaciones.verificacion.limite-maximo-claves:100000}")
+    private long maximoClaves;
+
+    private LimitadorTokens limitePorEmail;
+    private LimitadorTokens limitePorIp;
+
+    @PostConstruct
+    public void init() {
+        limitePorEmail = new LimitadorTokens(capacidadPorEmail, periodoPorEmail, maximoClaves);
+        limitePorIp = new LimitadorTokens(capacidadPorIp, periodoPorIp, maximoClaves);
+    }
+
+    // El email se valida antes de gastar fichas: una petición mal formada no consume el cupo de la IP
+    public void sendVerificationCode(String email, String ip) throws Exception {
+        String destinatario = normalizar(email);
+        validarFormato(destinatario);
+        verificarLimite(limitePorIp, ip, "Demasiadas solicitudes desde esta dirección");
+        verificarLimite(limitePorEmail, destinatario, "Demasiados códigos solicitados para este correo");
 
-        Context context = new Context();
-        context.setVariable("email", email);
-        context.setVariable("codigo", codigo);
+        String codigo = String.valueOf(100000 + random.nextInt(900000));
+        codigoVerificacionStore.guardar(destinatario, codigo, ttlCodigo);
 
-        String body = templateEngine.process("codigo-verificated", context);
+        String body = plantillaCorreoRegistry.renderizar(PlantillaCorreoRegistry.Plantilla.CODIGO_VERIFICACION, context -> {
+            context.setVariable("email", email);
+            context.setVariable("codigo", codigo);
+        });
 
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -39,8 +78,30 @@ public class EmailVerificationService {
         mailSender.send(message);
     }
 
+    // Un código solo sirve una vez; tras max-intentos códigos incorrectos hay que pedir otro
     public boolean validateCode(String email, String codigo) {
-        String stored = codes.get(email);
-        return stored != null && stored.equals(codigo);
+        return email != null && codigoVerificacionStore.consumir(normalizar(email), codigo, maxIntentos);
+    }
+
+    private static void verificarLimite(LimitadorTokens limitador, String clave, String mensaje) {
+        long esperaNanos = limitador.consumir(clave);
+        if (esperaNanos > 0) {
+            throw new LimiteSolicitudesException(mensaje, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos) + 1));
+        }
+    }
+
+    private static void validarFormato(String email) {
+        try {
+            new InternetAddress(email, true).validate();
+        } catch (AddressException e) {
+            throw new IllegalArgumentException("El email no es válido");
+        }
+    }
+
+    private static String normalizar(String email) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("El email es obligatorio");
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,69 @@
+package com.helpcore.notification_service.servicios;
+
+import com.helpcore.notification_service.entidades.NotificacionProcesada;
+import com.helpcore.notification_service.repositorios.NotificacionProcesadaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Deduplicación por Idempotency-Key de las entregas del outbox de ticket-service (al menos una vez).
+ * - La clave se reserva EN_CURSO antes de encolar el correo y se confirma cuando ya está en la cola
+ * - Si el encolado falla se libera, para que el reintento pase
+ * - Si la instancia cae entre reservar y confirmar, la reserva caduca (reserva-caducidad) y el
+ *   siguiente reintento la retoma en vez de darla por procesada
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotenciaService {
+    private static final int LOTE_PURGA = 1000;
+
+    // Longitud de tb_notificacion_procesada.idempotency_key: INSERT IGNORE truncaría una clave más larga
+    public static final int LONGITUD_MAXIMA_CLAVE = 64;
+
+    private final NotificacionProcesadaRepository notificacionProcesadaRepository;
+
+    @Value("${app.notificaciones.idempotencia.retencion:7d}")
+    private Duration retencion;
+
+    @Value("${app.notificaciones.idempotencia.reserva-caducidad:2m}")
+    private Duration caducidadReserva;
+
+    public enum Reserva {
+        RESERVADA, PROCESADA, EN_CURSO
+    }
+
+    // EN_CURSO: otra entrega de la misma clave la está atendiendo ahora; el llamador debe reintentar
+    public Reserva reservar(String clave) {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (notificacionProcesadaRepository.insertarSiNueva(clave, ahora) > 0
+                || notificacionProcesadaRepository.retomarCaducada(clave, ahora, ahora.minus(caducidadReserva)) > 0) {
+            return Reserva.RESERVADA;
+        }
+        return notificacionProcesadaRepository.findEstado(clave)
+                .filter(estado -> estado == NotificacionProcesada.Estado.EN_CURSO)
+                .map(estado -> Reserva.EN_CURSO)
+                .orElse(Reserva.PROCESADA);
+    }
+
+    public void confirmar(String clave) {
+        notificacionProcesadaRepository.confirmar(clave, LocalDateTime.now());
+    }
+
+    public void liberar(String clave) {
+        notificacionProcesadaRepository.deleteById(clave);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notificaciones.idempotencia.purge-interval:3600000}")
+    public void purgar() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencion);
+        int eliminados;
+        do {
+            eliminados = notificacionProcesadaRepository.eliminarAnteriores(limite, LOTE_PURGA);
+        } while (eliminados == LOTE_PURGA);
+    }
+}
@@ -0,0 +1,62 @@
+package com.helpcore.notification_service.servicios;
+
+import com.helpcore.notification_service.repositorios.CodigoVerificacionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+// Códigos en BD: sobreviven a reinicios y los comparten todas las réplicas de notification-service
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.notificaciones.verificacion.store", havingValue = "jpa")
+public class JpaCodigoVerificacionStore implements CodigoVerificacionStore {
+    private static final int LOTE_PURGA = 1000;
+
+    private final CodigoVerificacionRepository codigoVerificacionRepository;
+
+    @Override
+    public void guardar(String email, String codigo, Duration ttl) {
+        codigoVerificacionRepository.guardar(email, hash(codigo), LocalDateTime.now().plus(ttl));
+    }
+
+    @Override
+    public boolean consumir(String email, String codigo, int maxIntentos) {
+        if (codigo == null) {
+            return false;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        if (codigoVerificacionRepository.consumir(email, hash(codigo), ahora) == 1) {
+            return true;
+        }
+        if (codigoVerificacionRepository.registrarIntento(email) > 0) {
+            codigoVerificacionRepository.invalidarAgotado(email, maxIntentos, ahora);
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.notificaciones.verificacion.purge-interval:600000}")
+    public void purgarExpirados() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int eliminados;
+        do {
+            eliminados = codigoVerificacionRepository.eliminarExpirados(ahora, LOTE_PURGA);
+        } while (eliminados == LOTE_PURGA);
+    }
+
+    private static String hash(String codigo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(codigo.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.helpcore.notification_service.servicios;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket por clave (email, IP...) sin bloqueos: capacidad tokens que se reponen
+ * uno cada periodo / capacidad. Cada cubeta es un único AtomicLong con el instante teórico
+ * en que volvería a estar llena (GCRA), que se actualiza con CAS.
+ * Las cubetas sin uso se descartan pasado el periodo, con un máximo de claves en memoria.
+ */
+public class LimitadorTokens {
+
+    private final long intervaloNanos;
+    private final long rafagaNanos;
+    private final Cache<String, AtomicLong> cubetas;
+
+    public LimitadorTokens(int capacidad, Duration periodo, long maximoClaves) {
+        this.intervaloNanos = Math.max(1, periodo.toNanos() / capacidad);
+        this.rafagaNanos = intervaloNanos * capacidad;
+        this.cubetas = Caffeine.newBuilder()
+                .maximumSize(maximoClaves)
+                .expireAfterAccess(periodo)
+                .build();
+    }
+
+    /**
+     * Consume un token de la clave. Devuelve 0 si se permitió, o los nanosegundos
+     * que faltan para que haya un token disponible.
+     */
+    public long consumir(String clave) {
+        AtomicLong cubeta = cubetas.get(clave, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long ahora = System.nanoTime();
+            long llena = cubeta.get();
+            long base = llena == Long.MIN_VALUE || llena - ahora < 0 ? ahora : llena;
+            long nueva = base + intervaloNanos;
+            long exceso = nueva - ahora - rafagaNanos;
+            if (exceso > 0) {
+                return exceso;
+            }
+            if (cubeta.compareAndSet(llena, nueva)) {
+                return 0;
+            }
+        }
+    }
+}
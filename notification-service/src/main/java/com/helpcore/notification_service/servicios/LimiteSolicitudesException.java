@@ -0,0 +1,15 @@
+package com.helpcore.notification_service.servicios;
+
+// Límite de envíos de código superado; el controlador responde 429 con Retry-After
+public class LimiteSolicitudesException extends RuntimeException {
+    private final long reintentarEnSegundos;
+
+    public LimiteSolicitudesException(String mensaje, long reintentarEnSegundos) {
+        super(mensaje);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
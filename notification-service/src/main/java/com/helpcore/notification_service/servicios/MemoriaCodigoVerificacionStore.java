@@ -0,0 +1,73 @@
+package com.helpcore.notification_service.servicios;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+// Códigos en memoria con TTL por entrada y tamaño máximo (desaloja los menos usados)
+@Component
+@ConditionalOnProperty(name = "app.notificaciones.verificacion.store", havingValue = "memoria", matchIfMissing = true)
+public class MemoriaCodigoVerificacionStore implements CodigoVerificacionStore {
+
+    private record Entrada(String codigo, long expiraEnNanos, int intentos) {
+    }
+
+    private final Cache<String, Entrada> codigos;
+
+    public MemoriaCodigoVerificacionStore(@Value("${app.notificaciones.verificacion.maximo-codigos:100000}") long maximo) {
+        this.codigos = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfter(new Expiry<String, Entrada>() {
+                    @Override
+                    public long expireAfterCreate(String email, Entrada entrada, long ahora) {
+                        return Math.max(0, entrada.expiraEnNanos() - ahora);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String email, Entrada entrada, long ahora, long restante) {
+                        return Math.max(0, entrada.expiraEnNanos() - ahora);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String email, Entrada entrada, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public void guardar(String email, String codigo, Duration ttl) {
+        codigos.put(email, new Entrada(codigo, System.nanoTime() + ttl.toNanos(), 0));
+    }
+
+    @Override
+    public boolean consumir(String email, String codigo, int maxIntentos) {
+        boolean[] valido = {false};
+        // compute es atómico por clave: dos validaciones simultáneas no pueden consumir el mismo código
+        codigos.asMap().compute(email, (clave, entrada) -> {
+            if (entrada == null || entrada.expiraEnNanos() - System.nanoTime() <= 0) {
+                return null;
+            }
+            if (iguales(entrada.codigo(), codigo)) {
+                valido[0] = true;
+                return null;
+            }
+            int intentos = entrada.intentos() + 1;
+            return intentos >= maxIntentos ? null : new Entrada(entrada.codigo(), entrada.expiraEnNanos(), intentos);
+        });
+        return valido[0];
+    }
+
+    private static boolean iguales(String esperado, String recibido) {
+        return recibido != null && MessageDigest.isEqual(
+                esperado.getBytes(StandardCharsets.UTF_8), recibido.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,82 @@
+package com.helpcore.notification_service.servicios;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.StringWriter;
+import java.util.function.Consumer;
+
+/**
+ * Plantillas de correo conocidas, parseadas al arrancar (quedan en la caché de Thymeleaf,
+ * spring.thymeleaf.cache=true) para que el primer correo no pague el parseo.
+ * Cada hilo reutiliza su Context y su StringWriter: por mensaje solo se asigna el String final.
+ */
+@Component
+public class PlantillaCorreoRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(PlantillaCorreoRegistry.class);
+
+    // Un buffer que creció por un correo muy grande no se conserva en el hilo
+    private static final int CAPACIDAD_MAXIMA_BUFFER = 256 * 1024;
+    private static final int CAPACIDAD_INICIAL_BUFFER = 8 * 1024;
+
+    public enum Plantilla {
+        TICKET_CREADO("ticket-created"),
+        TICKET_RESUMEN("ticket-resumen"),
+        CODIGO_VERIFICACION("codigo-verificated");
+
+        private final String nombre;
+
+        Plantilla(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+    }
+
+    private final TemplateEngine templateEngine;
+
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    public PlantillaCorreoRegistry(TemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    @PostConstruct
+    public void precargar() {
+        for (Plantilla plantilla : Plantilla.values()) {
+            long inicio = System.nanoTime();
+            renderizar(plantilla, context -> { });
+            log.debug("Plantilla {} precargada en {} ms", plantilla.getNombre(), (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+
+    public String renderizar(Plantilla plantilla, Consumer<Context> variables) {
+        Buffers actual = buffers.get();
+        actual.context.clearVariables();
+        variables.accept(actual.context);
+
+        StringWriter writer = actual.writer;
+        writer.getBuffer().setLength(0);
+        try {
+            templateEngine.process(plantilla.getNombre(), actual.context, writer);
+            return writer.toString();
+        } finally {
+            actual.context.clearVariables();
+            if (writer.getBuffer().capacity() > CAPACIDAD_MAXIMA_BUFFER) {
+                actual.writer = new StringWriter(CAPACIDAD_INICIAL_BUFFER);
+            }
+        }
+    }
+
+    private static final class Buffers {
+        private final Context context = new Context();
+        private StringWriter writer = new StringWriter(CAPACIDAD_INICIAL_BUFFER);
+    }
+}
@@ -0,0 +1,162 @@
+package com.helpcore.notification_service.servicios;
+
+import com.helpcore.notification_service.dto.CorreoPendiente;
+import com.helpcore.notification_service.dto.TicketCreatedDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modo resumen para los avisos al equipo de soporte: los tickets creados se acumulan por destinatario
+ * y se envían en un único correo cuando se cumple la ventana de tiempo o se llega a maximo-tickets.
+ * Los correos al solicitante no pasan por aquí y siguen siendo individuales.
+ * El ratio de agrupación es notificaciones.resumen.tickets / notificaciones.resumen.correos
+ * (o la media de notificaciones.resumen.tamano).
+ */
+@Service
+@RequiredArgsConstructor
+public class ResumenSoporteService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumenSoporteService.class);
+
+    private final ColaCorreoService colaCorreoService;
+    private final PlantillaCorreoRegistry plantillaCorreoRegistry;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.notificaciones.resumen.habilitado:false}")
+    private boolean habilitado;
+
+    @Value("${app.notificaciones.resumen.ventana:60s}")
+    private Duration ventana;
+
+    @Value("${app.notificaciones.resumen.maximo-tickets:50}")
+    private int maximoTickets;
+
+    // Tickets pendientes de resumir por destinatario de soporte
+    private final Map<String, Pendientes> pendientes = new LinkedHashMap<>();
+
+    private DistributionSummary tamanoResumen;
+    private Counter ticketsResumidos;
+    private Counter correosResumen;
+
+    @PostConstruct
+    public void init() {
+        tamanoResumen = DistributionSummary.builder("notificaciones.resumen.tamano")
+                .description("Tickets incluidos en cada correo de resumen")
+                .register(meterRegistry);
+        ticketsResumidos = Counter.builder("notificaciones.resumen.tickets").register(meterRegistry);
+        correosResumen = Counter.builder("notificaciones.resumen.correos").register(meterRegistry);
+        Gauge.builder("notificaciones.resumen.ratio", this,
+                        r -> r.correosResumen.count() == 0 ? 0 : r.ticketsResumidos.count() / r.correosResumen.count())
+                .description("Tickets por correo de resumen enviado")
+                .register(meterRegistry);
+        Gauge.builder("notificaciones.resumen.pendientes", this, ResumenSoporteService::totalPendientes)
+                .register(meterRegistry);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void agregar(TicketCreatedDto ticket, String soporte) {
+        List<TicketCreatedDto> lleno = null;
+        synchronized (pendientes) {
+            Pendientes grupo = pendientes.computeIfAbsent(soporte, clave -> new Pendientes(System.currentTimeMillis()));
+            grupo.tickets.add(ticket);
+            if (grupo.tickets.size() >= maximoTickets) {
+                lleno = pendientes.remove(soporte).tickets;
+            }
+        }
+        if (lleno != null) {
+            enviar(soporte, lleno);
+        }
+    }
+
+    // Cierra los resúmenes cuya ventana ya venció
+    @Scheduled(fixedDelayString = "${app.notificaciones.resumen.revision:1000}")
+    public void cerrarVencidos() {
+        if (!habilitado) {
+            return;
+        }
+        long limite = System.currentTimeMillis() - ventana.toMillis();
+        Map<String, List<TicketCreatedDto>> vencidos = new LinkedHashMap<>();
+        synchronized (pendientes) {
+            pendientes.entrySet().removeIf(entrada -> {
+                if (entrada.getValue().inicio > limite) {
+                    return false;
+                }
+                vencidos.put(entrada.getKey(), entrada.getValue().tickets);
+                return true;
+            });
+        }
+        vencidos.forEach(this::enviar);
+    }
+
+    private void enviar(String soporte, List<TicketCreatedDto> tickets) {
+        String asunto = tickets.size() == 1
+                ? "Nuevo ticket creado: " + tickets.get(0).getTitulo()
+                : tickets.size() + " nuevos tickets creados";
+        String cuerpo = plantillaCorreoRegistry.renderizar(PlantillaCorreoRegistry.Plantilla.TICKET_RESUMEN, context -> {
+            context.setVariable("tickets", tickets);
+            context.setVariable("total", tickets.size());
+            context.setVariable("ventanaMinutos", Math.max(1, ventana.toMinutes()));
+        });
+
+        try {
+            colaCorreoService.encolar(List.of(new CorreoPendiente(soporte, asunto, cuerpo)));
+        } catch (ColaCorreoLlenaException e) {
+            // Cola llena: los tickets vuelven al resumen y salen en la siguiente revisión
+            synchronized (pendientes) {
+                Pendientes grupo = pendientes.computeIfAbsent(soporte, clave -> new Pendientes(0));
+                grupo.tickets.addAll(0, tickets);
+            }
+            log.warn("Resumen para {} aplazado ({} tickets): {}", soporte, tickets.size(), e.getMessage());
+            return;
+        }
+
+        tamanoResumen.record(tickets.size());
+        ticketsResumidos.increment(tickets.size());
+        correosResumen.increment();
+    }
+
+    private int totalPendientes() {
+        synchronized (pendientes) {
+            return pendientes.values().stream().mapToInt(grupo -> grupo.tickets.size()).sum();
+        }
+    }
+
+    // Al apagar se envía lo acumulado; la cola lo guarda en disco si no llega a salir
+    @PreDestroy
+    public void vaciar() {
+        Map<String, List<TicketCreatedDto>> restantes = new LinkedHashMap<>();
+        synchronized (pendientes) {
+            pendientes.forEach((soporte, grupo) -> restantes.put(soporte, grupo.tickets));
+            pendientes.clear();
+        }
+        restantes.forEach(this::enviar);
+    }
+
+    private static final class Pendientes {
+        private final long inicio;
+        private final List<TicketCreatedDto> tickets = new ArrayList<>();
+
+        private Pendientes(long inicio) {
+            this.inicio = inicio;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.helpcore.notification_service.repositorios;
+
+import com.helpcore.notification_service.entidades.NotificacionProcesada;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// H2 en modo MySQL: INSERT IGNORE y UPDATE condicional devuelven solo las filas que cambian
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:notificaciones;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificacionProcesadaRepositoryTest {
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    @Autowired
+    private NotificacionProcesadaRepository repository;
+
+    @Test
+    void unaClaveYaCompletadaNoSeVuelveAReservar() {
+        assertEquals(1, repository.insertarSiNueva("completada", AHORA.minusHours(1)));
+        repository.confirmar("completada", AHORA.minusHours(1));
+
+        assertEquals(0, repository.insertarSiNueva("completada", AHORA));
+        assertEquals(0, repository.retomarCaducada("completada", AHORA, AHORA.minusMinutes(2)));
+        assertEquals(Optional.of(NotificacionProcesada.Estado.COMPLETADA), repository.findEstado("completada"));
+    }
+
+    @Test
+    void unaReservaEnCursoVigenteNoSeRetoma() {
+        assertEquals(1, repository.insertarSiNueva("en-curso", AHORA.minusSeconds(30)));
+
+        assertEquals(0, repository.insertarSiNueva("en-curso", AHORA));
+        assertEquals(0, repository.retomarCaducada("en-curso", AHORA, AHORA.minusMinutes(2)));
+    }
+
+    @Test
+    void unaReservaCaducadaLaRetomaUnaSolaEntrega() {
+        assertEquals(1, repository.insertarSiNueva("caducada", AHORA.minusMinutes(10)));
+
+        assertEquals(1, repository.retomarCaducada("caducada", AHORA, AHORA.minusMinutes(2)));
+        assertEquals(0, repository.retomarCaducada("caducada", AHORA, AHORA.minusMinutes(2)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.helpcore.notification_service.servicios;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoriaCodigoVerificacionStoreTest {
+
+    private final MemoriaCodigoVerificacionStore store = new MemoriaCodigoVerificacionStore(1000);
+
+    @Test
+    void elCodigoSoloSePuedeUsarUnaVez() throws Exception {
+        store.guardar("ana@mail.com", "123456", Duration.ofMinutes(10));
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Callable<Boolean> validar = () -> store.consumir("ana@mail.com", "123456", 5);
+            int aceptados = 0;
+            for (Future<Boolean> resultado : pool.invokeAll(Collections.nCopies(8, validar))) {
+                if (resultado.get(5, TimeUnit.SECONDS)) {
+                    aceptados++;
+                }
+            }
+            assertEquals(1, aceptados);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void elCodigoSeInvalidaTrasAgotarLosIntentos() {
+        store.guardar("luis@mail.com", "654321", Duration.ofMinutes(10));
+
+        assertFalse(store.consumir("luis@mail.com", "000000", 3));
+        assertFalse(store.consumir("luis@mail.com", "111111", 3));
+        assertFalse(store.consumir("luis@mail.com", "222222", 3));
+        assertFalse(store.consumir("luis@mail.com", "654321", 3));
+    }
+
+    @Test
+    void elCodigoExpiradoNoEsValido() throws Exception {
+        store.guardar("eva@mail.com", "999999", Duration.ofMillis(20));
+        Thread.sleep(50);
+
+        assertFalse(store.consumir("eva@mail.com", "999999", 5));
+    }
+
+    @Test
+    void elLimitadorPermiteLaRafagaYLuegoRechaza() {
+        LimitadorTokens limitador = new LimitadorTokens(3, Duration.ofMinutes(15), 100);
+
+        assertEquals(0, limitador.consumir("ana@mail.com"));
+        assertEquals(0, limitador.consumir("ana@mail.com"));
+        assertEquals(0, limitador.consumir("ana@mail.com"));
+        assertTrue(limitador.consumir("ana@mail.com") > 0);
+        assertEquals(0, limitador.consumir("otra@mail.com"));
+    }
+}
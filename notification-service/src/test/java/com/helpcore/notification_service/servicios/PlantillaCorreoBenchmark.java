@@ -0,0 +1,109 @@
+package com.helpcore.notification_service.servicios;
+
+import com.helpcore.notification_service.dto.TicketCreatedDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Correos/seg y bytes asignados por correo (gc.alloc.rate.norm) al renderizar ticket-created
+ * y codigo-verificated: antes (Context y String nuevos por mensaje) y después (PlantillaCorreoRegistry).
+ * Ejecutar con el main de esta clase o: java -cp target/test-classes:... org.openjdk.jmh.Main PlantillaCorreoBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlantillaCorreoBenchmark {
+
+    private SpringTemplateEngine templateEngine;
+    private PlantillaCorreoRegistry registry;
+    private TicketCreatedDto ticket;
+
+    @Setup
+    public void setup() {
+        // Misma configuración que la autoconfiguración de Spring Boot: classpath:/templates/*.html con caché
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        registry = new PlantillaCorreoRegistry(templateEngine);
+        registry.precargar();
+
+        ticket = new TicketCreatedDto();
+        ticket.setTicketId(1024L);
+        ticket.setTitulo("No puedo acceder al aula virtual");
+        ticket.setDescripcion("Desde ayer el aula virtual muestra error 500 al iniciar sesión con mi código de alumno.");
+        ticket.setCorreoCreador("alumno@mail.com");
+    }
+
+    @Benchmark
+    public String ticketCreadoAntes() {
+        Context context = new Context();
+        context.setVariable("ticketId", ticket.getTicketId());
+        context.setVariable("titulo", ticket.getTitulo());
+        context.setVariable("descripcion", ticket.getDescripcion());
+        context.setVariable("correoCreador", ticket.getCorreoCreador());
+        context.setVariable("soporte", "✅ Por favor, revise el ticket lo antes posible");
+        return templateEngine.process("ticket-created", context);
+    }
+
+    @Benchmark
+    public String ticketCreadoDespues() {
+        return registry.renderizar(PlantillaCorreoRegistry.Plantilla.TICKET_CREADO, context -> {
+            context.setVariable("ticketId", ticket.getTicketId());
+            context.setVariable("titulo", ticket.getTitulo());
+            context.setVariable("descripcion", ticket.getDescripcion());
+            context.setVariable("correoCreador", ticket.getCorreoCreador());
+            context.setVariable("soporte", "✅ Por favor, revise el ticket lo antes posible");
+        });
+    }
+
+    @Benchmark
+    public String codigoVerificacionAntes() {
+        Context context = new Context();
+        context.setVariable("email", "alumno@mail.com");
+        context.setVariable("codigo", "482913");
+        return templateEngine.process("codigo-verificated", context);
+    }
+
+    @Benchmark
+    public String codigoVerificacionDespues() {
+        return registry.renderizar(PlantillaCorreoRegistry.Plantilla.CODIGO_VERIFICACION, context -> {
+            context.setVariable("email", "alumno@mail.com");
+            context.setVariable("codigo", "482913");
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PlantillaCorreoBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
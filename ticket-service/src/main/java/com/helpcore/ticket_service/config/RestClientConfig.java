@@ -0,0 +1,26 @@
+package com.helpcore.ticket_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class RestClientConfig {
+
+    // Resuelve http://notification-service/... vía Eureka; con timeouts para no bloquear el relay
+    @Bean
+    @LoadBalanced
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Value("${app.outbox.relay.connect-timeout:2s}") Duration connectTimeout,
+                                     @Value("${app.outbox.relay.read-timeout:10s}") Duration readTimeout) {
+        return builder
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.helpcore.ticket_service.controladores;
+
+import com.helpcore.ticket_service.servicios.AsignacionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/ticket/asignacion")
+public class AsignacionController {
+
+    @Autowired
+    AsignacionService asignacionService;
+
+    // El agente es el usuario autenticado (X-User-Id del gateway): 200 con el ticket asignado,
+    // 204 si la cola está vacía, 409 si ya tiene el máximo de tickets abiertos
+    @PostMapping("/reclamar")
+    public ResponseEntity<?> reclamarSiguiente(@RequestHeader(value = "X-User-Id", required = false) String idUsuario) {
+        Integer idAgente;
+        try {
+            idAgente = Integer.valueOf(idUsuario);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Agente no identificado"));
+        }
+
+        AsignacionService.Reclamo reclamo = asignacionService.reclamarSiguiente(idAgente);
+        return switch (reclamo.resultado()) {
+            case ASIGNADO -> ResponseEntity.ok(reclamo.asignacion());
+            case SIN_TICKETS -> ResponseEntity.noContent().build();
+            case SIN_CAPACIDAD -> ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Alcanzaste el máximo de tickets en atención"));
+        };
+    }
+
+    // Tickets en atención por agente, según los contadores de esta instancia
+    @GetMapping("/carga")
+    public ResponseEntity<Map<Integer, Integer>> carga() {
+        return ResponseEntity.ok(asignacionService.cargas());
+    }
+}
@@ -1,15 +1,18 @@
 package com.helpcore.ticket_service.controladores;
 
-import com.helpcore.ticket_service.entidades.CategoriaTicket;
 import com.helpcore.ticket_service.servicios.CategoriaTicketService;
-import org.apache.coyote.Response;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/categoria-ticket")
@@ -17,15 +20,47 @@ public class CategoriaTicketController {
     @Autowired
     CategoriaTicketService categoriaTicketService;
 
+    // Las categorías casi no cambian: el navegador puede reutilizarlas y luego revalidar con ETag
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(5, TimeUnit.MINUTES).mustRevalidate();
+
+    // JSON ya serializado en memoria; con If-None-Match vigente responde 304 sin cuerpo
     @GetMapping("/listar")
-    public ResponseEntity<List<CategoriaTicket>> listarCategoriaTicket(){
+    public ResponseEntity<byte[]> listarCategoriaTicket(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
 
-        List<CategoriaTicket> listaTickets = categoriaTicketService.listar();
+        CategoriaTicketService.CategoriasSnapshot snapshot = categoriaTicketService.obtenerSnapshot();
 
-        if(listaTickets == null){
-            return ResponseEntity.ok(null);
+        if (coincideEtag(ifNoneMatch, snapshot.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .cacheControl(CACHE_CONTROL)
+                    .build();
         }
 
-        return ResponseEntity.ok(categoriaTicketService.listar());
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .cacheControl(CACHE_CONTROL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.json());
+    }
+
+    // If-None-Match admite "*", una lista separada por comas y etiquetas débiles (W/"...")
+    private static boolean coincideEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
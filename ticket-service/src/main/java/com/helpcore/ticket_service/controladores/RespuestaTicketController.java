@@ -0,0 +1,94 @@
+package com.helpcore.ticket_service.controladores;
+
+import com.helpcore.ticket_service.entidades.RespuestaTicket;
+import com.helpcore.ticket_service.entidades.dto.RespuestaNuevaDTO;
+import com.helpcore.ticket_service.servicios.RespuestaTicketService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/ticket/respuestas")
+public class RespuestaTicketController {
+
+    @Autowired
+    RespuestaTicketService respuestaTicketService;
+
+    private static final int MAXIMO_TICKETS_CONTADORES = 200;
+
+    // Resúmenes de la conversación por cursor: la primera página sin cursor, las siguientes con siguienteCursor
+    @GetMapping
+    public ResponseEntity<?> listarRespuestas(
+            @RequestParam Integer ticketId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int tamano) {
+        try {
+            return ResponseEntity.ok(respuestaTicketService.listar(ticketId, cursor, tamano));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Contenido completo de un mensaje, al desplegarlo
+    @GetMapping("/contenido")
+    public ResponseEntity<?> contenidoRespuesta(@RequestParam Long respuestaId) {
+        return respuestaTicketService.contenido(respuestaId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // El autor lo identifica el gateway (X-User-Id puede traer el nombre de usuario si el token no lleva id)
+    @PostMapping
+    public ResponseEntity<?> responder(
+            @RequestBody RespuestaNuevaDTO respuesta,
+            @RequestHeader(value = "X-User-Id", required = false) String idUsuario,
+            @RequestHeader(value = "X-User-Username", required = false) String nombreUsuario) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(respuestaTicketService.responder(
+                    respuesta.ticketId(), respuesta.tipoAutor(), idNumerico(idUsuario), nombreUsuario, respuesta.contenido()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // hasta = último id_respuesta mostrado al lector; sin él se marca toda la conversación
+    @PostMapping("/leer")
+    public ResponseEntity<Void> marcarLeidas(
+            @RequestParam Integer ticketId,
+            @RequestParam RespuestaTicket.TipoAutor lector,
+            @RequestParam(required = false) Long hasta) {
+        respuestaTicketService.marcarLeidas(ticketId, lector, hasta);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Contadores para una bandeja: los tickets que no aparecen no tienen respuestas
+    @GetMapping("/no-leidas")
+    public ResponseEntity<?> noLeidas(@RequestParam List<Integer> ticketIds) {
+        if (ticketIds.size() > MAXIMO_TICKETS_CONTADORES) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Máximo " + MAXIMO_TICKETS_CONTADORES + " tickets por consulta"));
+        }
+        return ResponseEntity.ok(respuestaTicketService.contadores(ticketIds));
+    }
+
+    private static Integer idNumerico(String idUsuario) {
+        if (idUsuario == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(idUsuario);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
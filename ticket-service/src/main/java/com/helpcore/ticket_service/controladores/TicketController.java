@@ -3,18 +3,55 @@ package com.helpcore.ticket_service.controladores;
 import com.helpcore.ticket_service.entidades.CategoriaTicket;
 import com.helpcore.ticket_service.entidades.Invitado;
 import com.helpcore.ticket_service.entidades.Ticket;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpcore.ticket_service.entidades.dto.TicketBusquedaEstadoDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketFiltroDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketInvitadoDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketLoteResultadoDTO;
 import com.helpcore.ticket_service.repositorios.CategoriaTicketRepository;
+import com.helpcore.ticket_service.servicios.TicketBusquedaService;
+import com.helpcore.ticket_service.servicios.TicketEstadoService;
+import com.helpcore.ticket_service.servicios.TicketExportService;
+import com.helpcore.ticket_service.servicios.TicketHistorialService;
+import com.helpcore.ticket_service.servicios.TicketLoteService;
 import com.helpcore.ticket_service.servicios.TicketService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/ticket")
@@ -26,6 +63,162 @@ public class TicketController {
     @Autowired
     CategoriaTicketRepository categoriaTicketRepository;
 
+    @Autowired
+    TicketExportService ticketExportService;
+
+    @Autowired
+    TicketLoteService ticketLoteService;
+
+    @Autowired
+    TicketEstadoService ticketEstadoService;
+
+    @Autowired
+    TicketBusquedaService ticketBusquedaService;
+
+    @Autowired
+    TicketHistorialService ticketHistorialService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${app.ticket.lote.maximo-elementos:5000}")
+    int maximoElementosLote;
+
+    // Solo para /exportar; el resto de endpoints asíncronos conserva el timeout por defecto
+    @Value("${app.ticket.exportacion.timeout:30m}")
+    Duration timeoutExportacion;
+
+    private static final int TAMANO_MAXIMO_BUSQUEDA = 100;
+    // Las páginas profundas obligan a Lucene a ordenar todos los resultados anteriores
+    private static final int VENTANA_MAXIMA_BUSQUEDA = 1000;
+
+    // Listado paginado por cursor: la primera página sin cursor, las siguientes con siguienteCursor
+    @GetMapping("/listar")
+    public ResponseEntity<?> listarTickets(
+            @RequestParam(required = false) Ticket.Estado estado,
+            @RequestParam(required = false) Ticket.Prioridad prioridad,
+            @RequestParam(required = false) String sede,
+            @RequestParam(required = false) Integer categoria,
+            @RequestParam(required = false) Integer idUsuarioAgente,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int tamano) {
+
+        TicketFiltroDTO filtro = new TicketFiltroDTO(estado, prioridad, sede, categoria, idUsuarioAgente, desde, hasta);
+
+        try {
+            return ResponseEntity.ok(ticketService.listarPagina(filtro, cursor, tamano));
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Búsqueda de texto en título y descripción, ordenada por relevancia (q vacío: solo filtros, más recientes primero)
+    @GetMapping("/buscar")
+    public ResponseEntity<?> buscarTickets(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Ticket.Estado estado,
+            @RequestParam(required = false) String sede,
+            @RequestParam(required = false) Integer categoria,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamano) {
+
+        Map<String, Object> response = new HashMap<>();
+        if (!ticketBusquedaService.isListo()) {
+            response.put("error", "El índice de búsqueda se está reconstruyendo, inténtelo en unos segundos");
+            response.put("estado", ticketBusquedaService.estado());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "10").body(response);
+        }
+
+        int tamanoPagina = Math.max(1, Math.min(tamano, TAMANO_MAXIMO_BUSQUEDA));
+        if (pagina < 0 || (long) (pagina + 1) * tamanoPagina > VENTANA_MAXIMA_BUSQUEDA) {
+            response.put("error", "Página fuera de rango: refine la búsqueda");
+            return ResponseEntity.badRequest().body(response);
+        }
+        return ResponseEntity.ok(ticketBusquedaService.buscar(q, estado, sede, categoria, pagina, tamanoPagina));
+    }
+
+    // Estado del índice de búsqueda: 200 si está listo, 503 mientras se reconstruye o tras un fallo (con el error)
+    @GetMapping("/buscar/estado")
+    public ResponseEntity<TicketBusquedaEstadoDTO> estadoBusqueda() {
+        TicketBusquedaEstadoDTO estado = ticketBusquedaService.estado();
+        return ResponseEntity.status(estado.listo() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(estado);
+    }
+
+    // Exportación completa en streaming (formato=csv|ndjson, gzip=true para comprimir)
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarTickets(
+            @RequestParam(defaultValue = "csv") String formato,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Ticket.Estado estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            HttpServletRequest request) {
+
+        TicketExportService.Formato formatoExportacion;
+        try {
+            formatoExportacion = TicketExportService.Formato.valueOf(formato.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TicketFiltroDTO filtro = new TicketFiltroDTO(estado, null, null, null, null, desde, hasta);
+        boolean csv = formatoExportacion == TicketExportService.Formato.CSV;
+        String nombreArchivo = "tickets." + (csv ? "csv" : "ndjson") + (gzip ? ".gz" : "");
+
+        // El AsyncWebRequest ya existe pero aún no arrancó: el timeout se aplica solo a esta petición
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(timeoutExportacion.toMillis());
+
+        StreamingResponseBody cuerpo = salida -> {
+            OutputStream destino = gzip ? new GZIPOutputStream(salida, 8192) : salida;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), 64 * 1024);
+            ticketExportService.exportar(filtro, formatoExportacion, writer);
+            if (gzip) {
+                ((GZIPOutputStream) destino).finish();
+            }
+            destino.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(nombreArchivo).build().toString())
+                .body(cuerpo);
+    }
+
+    // Línea de tiempo de cambios del ticket en NDJSON (del más antiguo al más reciente), en streaming
+    @GetMapping("/historial")
+    public ResponseEntity<StreamingResponseBody> historialTicket(@RequestParam Integer ticketId) {
+        if (ticketService.buscar(ticketId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        StreamingResponseBody cuerpo = salida -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 16 * 1024);
+            ticketHistorialService.escribirTimeline(ticketId, writer);
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(cuerpo);
+    }
+
+    // Consulta pública (sin login) del estado de un ticket de invitado: id + email con el que se creó.
+    // Id inexistente y email incorrecto responden igual para no revelar qué tickets existen
+    @GetMapping("/consultar-estado")
+    public ResponseEntity<?> consultarEstado(@RequestParam Integer ticketId, @RequestParam String email) {
+        return ticketEstadoService.consultar(ticketId, email)
+                .<ResponseEntity<?>>map(estado -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        .body(estado))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .cacheControl(CacheControl.noStore())
+                        .body(Map.of("error", "No se encontró un ticket con ese número y email")));
+    }
+
     @PostMapping("/crear-invitado")
     public ResponseEntity<Map<String, Object>> crearTicketDesdeFormulario(@RequestBody Map<String, Object> requestData) {
         Map<String, Object> response = new HashMap<>();
@@ -50,33 +243,9 @@ public class TicketController {
 
 
             // Validaciones básicas
-            if (invitado.getNombre() == null || invitado.getNombre().trim().isEmpty()) {
-                response.put("error", "Los nombres son obligatorios");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            if (invitado.getApellido() == null || invitado.getApellido().trim().isEmpty()) {
-                response.put("error", "Los apellidos son obligatorios");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            if (invitado.getDni() == null || invitado.getDni().trim().isEmpty()) {
-                response.put("error", "El DNI es obligatorio");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            if (invitado.getEmail() == null || invitado.getEmail().trim().isEmpty()) {
-                response.put("error", "El email es obligatorio");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            if (ticket.getTitulo() == null || ticket.getTitulo().trim().isEmpty()) {
-                response.put("error", "El asunto es obligatorio");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            if (ticket.getDescripcion() == null || ticket.getDescripcion().trim().isEmpty()) {
-                response.put("error", "Los comentarios son obligatorios");
+            String errorValidacion = ticketService.validarTicketInvitado(ticket, invitado);
+            if (errorValidacion != null) {
+                response.put("error", errorValidacion);
                 return ResponseEntity.badRequest().body(response);
             }
 
@@ -97,4 +266,97 @@ public class TicketController {
         }
     }
 
+    // Carga por lotes: array JSON con el mismo formato que /crear-invitado
+    @PostMapping(value = "/crear-lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> crearLote(@RequestBody List<TicketInvitadoDTO> lote) {
+        return procesarLote(lote);
+    }
+
+    // Carga por lotes: NDJSON, un ticket por línea. Se lee línea a línea y se guarda por bloques a medida
+    // que llega; una línea con JSON inválido se informa en su posición y no corta el resto
+    @PostMapping(value = "/crear-lote", consumes = "application/x-ndjson")
+    public ResponseEntity<Map<String, Object>> crearLoteNdjson(InputStream cuerpo) {
+        List<TicketLoteResultadoDTO> resultados = new ArrayList<>();
+        List<TicketInvitadoDTO> bloque = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        int elementos = 0;
+        String error = null;
+
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(cuerpo, StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                if (elementos == maximoElementosLote) {
+                    error = "El lote supera el máximo de " + maximoElementosLote + " tickets; el resto no se procesó";
+                    break;
+                }
+                int indice = elementos++;
+                try {
+                    bloque.add(objectMapper.readValue(linea, TicketInvitadoDTO.class));
+                    indices.add(indice);
+                } catch (JsonProcessingException e) {
+                    resultados.add(TicketLoteResultadoDTO.fallido(indice, "JSON inválido: " + e.getOriginalMessage()));
+                }
+                if (bloque.size() == ticketLoteService.getTamanoBloque()) {
+                    guardarBloque(bloque, indices, resultados);
+                }
+            }
+        } catch (IOException e) {
+            error = "No se pudo leer el lote: " + e.getMessage();
+        }
+        guardarBloque(bloque, indices, resultados);
+
+        if (elementos == 0) {
+            return errorLote(error != null ? error : "El lote está vacío");
+        }
+        resultados.sort(Comparator.comparingInt(TicketLoteResultadoDTO::indice));
+        return respuestaLote(resultados, error);
+    }
+
+    // Los índices del bloque son locales: se traducen a la línea del NDJSON
+    private void guardarBloque(List<TicketInvitadoDTO> bloque, List<Integer> indices, List<TicketLoteResultadoDTO> resultados) {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        for (TicketLoteResultadoDTO resultado : ticketLoteService.crearBloque(bloque, 0)) {
+            resultados.add(resultado.conIndice(indices.get(resultado.indice())));
+        }
+        bloque.clear();
+        indices.clear();
+    }
+
+    private ResponseEntity<Map<String, Object>> procesarLote(List<TicketInvitadoDTO> lote) {
+        if (lote == null || lote.isEmpty()) {
+            return errorLote("El lote está vacío");
+        }
+        if (lote.size() > maximoElementosLote) {
+            return errorLote("El lote supera el máximo de " + maximoElementosLote + " tickets");
+        }
+        return respuestaLote(ticketLoteService.crearLote(lote), null);
+    }
+
+    private static ResponseEntity<Map<String, Object>> respuestaLote(List<TicketLoteResultadoDTO> resultados, String error) {
+        long creados = resultados.stream().filter(TicketLoteResultadoDTO::success).count();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", error == null && creados == resultados.size());
+        response.put("total", resultados.size());
+        response.put("creados", creados);
+        response.put("fallidos", resultados.size() - creados);
+        response.put("resultados", resultados);
+        if (error != null) {
+            response.put("error", error);
+        }
+        return ResponseEntity.status(creados > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> errorLote(String mensaje) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", mensaje);
+        return ResponseEntity.badRequest().body(response);
+    }
+
 }
@@ -0,0 +1,71 @@
+package com.helpcore.ticket_service.entidades;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Evento pendiente de publicar, escrito en la misma transacción que el cambio que lo origina
+@Entity
+@Table(name = "tb_evento_outbox", indexes = {
+        @Index(name = "idx_outbox_estado_proximo", columnList = "estado, proximo_intento, id_evento")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_evento")
+    private Long id;
+
+    @Column(length = 50, nullable = false)
+    private String tipo;
+
+    @Column(name = "id_agregado", nullable = false)
+    private Integer idAgregado;
+
+    // Lo recibe el consumidor en la cabecera Idempotency-Key para descartar reenvíos
+    @Column(name = "idempotency_key", length = 36, nullable = false, unique = true)
+    private String idempotencyKey;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private Estado estado;
+
+    @Column(nullable = false)
+    private int intentos;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_envio")
+    private LocalDateTime fechaEnvio;
+
+    @PrePersist
+    public void prePersist() {
+        fechaCreacion = LocalDateTime.now();
+        if (estado == null) estado = Estado.PENDIENTE;
+        if (proximoIntento == null) proximoIntento = fechaCreacion;
+    }
+
+    // EN_CURSO: reclamado por el relay y enviándose; proximo_intento marca cuándo se da por abandonado
+    public enum Estado {
+        PENDIENTE, EN_CURSO, ENVIADO, FALLIDO
+    }
+
+    public enum Tipo {
+        TICKET_CREADO
+    }
+}
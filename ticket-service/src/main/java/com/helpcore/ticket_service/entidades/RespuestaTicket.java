@@ -1,4 +1,77 @@
 package com.helpcore.ticket_service.entidades;
 
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Mensaje de la conversación de un ticket. Los listados proyectan resumen y longitud:
+// contenido solo se lee al pedir un mensaje concreto (RespuestaTicketRepository)
+@Entity
+@Table(name = "tb_respuesta_ticket", indexes = {
+        // Conversación en orden de llegada y "siguientes N" por id_respuesta
+        @Index(name = "idx_respuesta_ticket_id", columnList = "id_ticket, id_respuesta")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
 public class RespuestaTicket {
+
+    public static final int LONGITUD_RESUMEN = 150;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_respuesta")
+    private Long id;
+
+    // Solo el id: guardar una respuesta no carga el ticket con su descripción
+    @Column(name = "id_ticket", nullable = false, updatable = false)
+    private Integer idTicket;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_autor", length = 10, nullable = false, updatable = false)
+    private TipoAutor tipoAutor;
+
+    @Column(name = "id_usuario_autor", updatable = false)
+    private Integer idUsuarioAutor;
+
+    @Column(name = "nombre_autor", length = 100, nullable = false, updatable = false)
+    private String nombreAutor;
+
+    @Column(length = 200, nullable = false, updatable = false)
+    private String resumen;
+
+    @Column(nullable = false, updatable = false)
+    private int longitud;
+
+    @Column(columnDefinition = "MEDIUMTEXT", nullable = false, updatable = false)
+    private String contenido;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false, columnDefinition = "DATETIME(3)")
+    private LocalDateTime fechaCreacion;
+
+    @PrePersist
+    public void prePersist() {
+        fechaCreacion = LocalDateTime.now();
+        longitud = contenido.length();
+        resumen = resumir(contenido);
+    }
+
+    // Primeros LONGITUD_RESUMEN caracteres con los espacios colapsados, sin partir pares sustitutos
+    public static String resumir(String contenido) {
+        String texto = contenido.strip().replaceAll("\\s+", " ");
+        if (texto.length() <= LONGITUD_RESUMEN) {
+            return texto;
+        }
+        int corte = LONGITUD_RESUMEN;
+        if (Character.isHighSurrogate(texto.charAt(corte - 1))) {
+            corte--;
+        }
+        return texto.substring(0, corte).stripTrailing() + "…";
+    }
+
+    public enum TipoAutor {
+        CLIENTE, AGENTE
+    }
 }
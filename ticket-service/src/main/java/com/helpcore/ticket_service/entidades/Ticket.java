@@ -6,7 +6,16 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tb_ticket")
+@Table(name = "tb_ticket", indexes = {
+        // Listado paginado por (fecha_creacion, id_ticket): uno por cada filtro habitual de las bandejas
+        @Index(name = "idx_ticket_activo_fecha", columnList = "es_activo, fecha_creacion, id_ticket"),
+        @Index(name = "idx_ticket_estado_fecha", columnList = "estado, fecha_creacion, id_ticket"),
+        @Index(name = "idx_ticket_agente_fecha", columnList = "id_usuario_agente, fecha_creacion, id_ticket"),
+        @Index(name = "idx_ticket_sede_fecha", columnList = "sede, fecha_creacion, id_ticket"),
+        @Index(name = "idx_ticket_categoria_fecha", columnList = "id_categoria, fecha_creacion, id_ticket"),
+        // Cola de asignación: una prioridad a la vez, por orden de llegada (TicketRepository.reclamarSiguiente)
+        @Index(name = "idx_ticket_cola", columnList = "estado, es_activo, prioridad, fecha_creacion, id_ticket")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,36 @@
+package com.helpcore.ticket_service.entidades;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Contadores de la conversación de un ticket. Se mantienen con cada respuesta (upsert en
+// TicketConversacionRepository), así las bandejas no cuentan filas de tb_respuesta_ticket
+@Entity
+@Table(name = "tb_ticket_conversacion")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketConversacion {
+
+    @Id
+    @Column(name = "id_ticket")
+    private Integer idTicket;
+
+    @Column(name = "total_respuestas", nullable = false)
+    private int totalRespuestas;
+
+    // Respuestas del cliente que el agente aún no ha leído, y viceversa
+    @Column(name = "no_leidas_agente", nullable = false)
+    private int noLeidasAgente;
+
+    @Column(name = "no_leidas_cliente", nullable = false)
+    private int noLeidasCliente;
+
+    @Column(name = "id_ultima_respuesta", nullable = false)
+    private Long idUltimaRespuesta;
+
+    @Column(name = "fecha_ultima_respuesta", nullable = false, columnDefinition = "DATETIME(3)")
+    private LocalDateTime fechaUltimaRespuesta;
+}
@@ -1,4 +1,48 @@
 package com.helpcore.ticket_service.entidades;
 
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// Cambio de un campo de un ticket. Solo se inserta (TicketHistorialService, por lotes); nunca se modifica
+@Entity
+@Immutable
+@Table(name = "tb_ticket_historial", indexes = {
+        // Línea de tiempo de un ticket en orden de creación
+        @Index(name = "idx_historial_ticket_fecha", columnList = "id_ticket, fecha")
+})
+@Getter
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
 public class TicketHistorial {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_historial")
+    private Long id;
+
+    // Sin FK: MySQL no admite claves foráneas en tablas particionadas
+    @Column(name = "id_ticket", nullable = false, updatable = false)
+    private Integer idTicket;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30, nullable = false, updatable = false)
+    private Campo campo;
+
+    @Column(name = "valor_anterior", length = 50, updatable = false)
+    private String valorAnterior;
+
+    @Column(name = "valor_nuevo", length = 50, updatable = false)
+    private String valorNuevo;
+
+    @Column(nullable = false, updatable = false, columnDefinition = "DATETIME(3)")
+    private LocalDateTime fecha;
+
+    public enum Campo {
+        ESTADO, PRIORIDAD, AGENTE, FECHA_ASIGNACION, FECHA_RESOLUCION, FECHA_CIERRE
+    }
 }
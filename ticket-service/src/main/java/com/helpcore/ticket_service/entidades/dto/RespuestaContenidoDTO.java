@@ -0,0 +1,9 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+// Cuerpo completo de un mensaje, pedido al desplegarlo en la conversación
+public record RespuestaContenidoDTO(
+        Long id,
+        Integer idTicket,
+        String contenido
+) {
+}
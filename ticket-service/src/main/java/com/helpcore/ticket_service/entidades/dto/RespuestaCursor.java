@@ -0,0 +1,23 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Último id_respuesta devuelto, opaco para el cliente
+public record RespuestaCursor(Long id) {
+
+    public String codificar() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RespuestaCursor decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new RespuestaCursor(Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import com.helpcore.ticket_service.entidades.RespuestaTicket;
+
+// Cuerpo de POST /ticket/respuestas; el autor sale de las cabeceras X-User-* del gateway
+public record RespuestaNuevaDTO(
+        Integer ticketId,
+        RespuestaTicket.TipoAutor tipoAutor,
+        String contenido
+) {
+}
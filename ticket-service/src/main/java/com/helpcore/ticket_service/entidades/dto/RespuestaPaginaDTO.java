@@ -0,0 +1,11 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import java.util.List;
+
+// siguienteCursor se envía tal cual para pedir los N mensajes siguientes; null cuando no hay más
+public record RespuestaPaginaDTO(
+        List<RespuestaResumenDTO> contenido,
+        String siguienteCursor,
+        boolean hayMas
+) {
+}
@@ -0,0 +1,17 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import com.helpcore.ticket_service.entidades.RespuestaTicket;
+
+import java.time.LocalDateTime;
+
+// Mensaje en la lista de la conversación: autor, fecha y resumen; el contenido se pide aparte
+public record RespuestaResumenDTO(
+        Long id,
+        RespuestaTicket.TipoAutor tipoAutor,
+        Integer idUsuarioAutor,
+        String nombreAutor,
+        String resumen,
+        int longitud,
+        LocalDateTime fechaCreacion
+) {
+}
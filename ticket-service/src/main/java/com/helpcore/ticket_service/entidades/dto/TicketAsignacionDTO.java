@@ -0,0 +1,16 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+
+import java.time.LocalDateTime;
+
+// Ticket reclamado por un agente y su carga tras la asignación
+public record TicketAsignacionDTO(
+        Integer ticketId,
+        String titulo,
+        Ticket.Prioridad prioridad,
+        Integer idUsuarioAgente,
+        LocalDateTime fechaAsignacion,
+        int abiertosAgente
+) {
+}
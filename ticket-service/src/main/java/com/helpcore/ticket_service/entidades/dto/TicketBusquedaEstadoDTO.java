@@ -0,0 +1,13 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import java.time.LocalDateTime;
+
+// Respuesta de /ticket/buscar/estado: si el índice está disponible y, si no, por qué y cuándo se reintenta
+public record TicketBusquedaEstadoDTO(
+        boolean listo,
+        boolean reconstruyendo,
+        int intentosFallidos,
+        String ultimoError,
+        LocalDateTime proximoIntento
+) {
+}
@@ -0,0 +1,12 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import java.util.List;
+
+// total puede ser una cota inferior cuando hay muchas coincidencias (Lucene deja de contar a partir de 1000)
+public record TicketBusquedaPaginaDTO(
+        List<TicketBusquedaResultadoDTO> resultados,
+        int pagina,
+        long total,
+        boolean hayMas
+) {
+}
@@ -0,0 +1,17 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+
+import java.time.LocalDateTime;
+
+// Resultado de /ticket/buscar, leído del índice (sin ir a la BD); relevancia es null si no hubo texto
+public record TicketBusquedaResultadoDTO(
+        Integer id,
+        String titulo,
+        Ticket.Estado estado,
+        String sede,
+        Integer idCategoria,
+        LocalDateTime fechaCreacion,
+        Float relevancia
+) {
+}
@@ -0,0 +1,34 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Posición de la última fila devuelta (fecha_creacion, id_ticket), opaca para el cliente
+public record TicketCursor(LocalDateTime fechaCreacion, Integer id) {
+
+    public static TicketCursor de(TicketResumenDTO ticket) {
+        return new TicketCursor(ticket.fechaCreacion(), ticket.id());
+    }
+
+    public String codificar() {
+        String valor = fechaCreacion + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TicketCursor decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf('|');
+            return new TicketCursor(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    Integer.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
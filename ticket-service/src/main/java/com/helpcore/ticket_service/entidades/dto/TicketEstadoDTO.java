@@ -0,0 +1,17 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+
+import java.time.LocalDateTime;
+
+// Respuesta de /ticket/consultar-estado: solo el estado y sus fechas, nada del contenido del ticket
+public record TicketEstadoDTO(
+        Integer id,
+        Ticket.Estado estado,
+        Ticket.Prioridad prioridad,
+        LocalDateTime fechaCreacion,
+        LocalDateTime fechaAsignacion,
+        LocalDateTime fechaResolucion,
+        LocalDateTime fechaCierre
+) {
+}
@@ -0,0 +1,22 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+
+import java.time.LocalDateTime;
+
+// Fila de TicketRepository.consultarEstado: el estado más el email del invitado para validar al solicitante
+public record TicketEstadoFila(
+        Integer id,
+        String emailInvitado,
+        Ticket.Estado estado,
+        Ticket.Prioridad prioridad,
+        LocalDateTime fechaCreacion,
+        LocalDateTime fechaAsignacion,
+        LocalDateTime fechaResolucion,
+        LocalDateTime fechaCierre
+) {
+
+    public TicketEstadoDTO toDTO() {
+        return new TicketEstadoDTO(id, estado, prioridad, fechaCreacion, fechaAsignacion, fechaResolucion, fechaCierre);
+    }
+}
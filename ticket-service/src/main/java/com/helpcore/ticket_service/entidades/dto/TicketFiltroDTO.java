@@ -0,0 +1,17 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+
+import java.time.LocalDateTime;
+
+// Filtros opcionales del listado; null = sin filtrar por ese campo
+public record TicketFiltroDTO(
+        Ticket.Estado estado,
+        Ticket.Prioridad prioridad,
+        String sede,
+        Integer idCategoria,
+        Integer idUsuarioAgente,
+        LocalDateTime desde,
+        LocalDateTime hasta
+) {
+}
@@ -0,0 +1,38 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import com.helpcore.ticket_service.entidades.Invitado;
+import com.helpcore.ticket_service.entidades.Ticket;
+
+// Ticket de invitado en la carga por lotes; mismos nombres de campo que el formulario de /crear-invitado
+public record TicketInvitadoDTO(
+        String nombres,
+        String apellidos,
+        String dni,
+        String email,
+        String telefono,
+        String asunto,
+        String comentarios,
+        String codigoAlumno,
+        String sede,
+        Integer categoria
+) {
+
+    public Invitado toInvitado() {
+        Invitado invitado = new Invitado();
+        invitado.setNombre(nombres);
+        invitado.setApellido(apellidos);
+        invitado.setDni(dni);
+        invitado.setEmail(email);
+        invitado.setTelefono(telefono);
+        return invitado;
+    }
+
+    public Ticket toTicket() {
+        Ticket ticket = new Ticket();
+        ticket.setTitulo(asunto);
+        ticket.setDescripcion(comentarios);
+        ticket.setCodigoAlumno(codigoAlumno);
+        ticket.setSede(sede);
+        return ticket;
+    }
+}
@@ -0,0 +1,23 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+// Resultado de un elemento del lote, en el mismo orden (indice) en que se recibió
+public record TicketLoteResultadoDTO(
+        int indice,
+        boolean success,
+        Integer ticketId,
+        Integer invitadoId,
+        String error
+) {
+
+    public static TicketLoteResultadoDTO creado(int indice, Integer ticketId, Integer invitadoId) {
+        return new TicketLoteResultadoDTO(indice, true, ticketId, invitadoId, null);
+    }
+
+    public static TicketLoteResultadoDTO fallido(int indice, String error) {
+        return new TicketLoteResultadoDTO(indice, false, null, null, error);
+    }
+
+    public TicketLoteResultadoDTO conIndice(int nuevoIndice) {
+        return new TicketLoteResultadoDTO(nuevoIndice, success, ticketId, invitadoId, error);
+    }
+}
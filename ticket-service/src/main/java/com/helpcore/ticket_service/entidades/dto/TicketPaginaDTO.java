@@ -0,0 +1,11 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import java.util.List;
+
+// siguienteCursor se envía tal cual en la próxima petición; null cuando no hay más resultados
+public record TicketPaginaDTO(
+        List<TicketResumenDTO> contenido,
+        String siguienteCursor,
+        boolean hayMas
+) {
+}
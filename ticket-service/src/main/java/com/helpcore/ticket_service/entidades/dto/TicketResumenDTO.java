@@ -0,0 +1,23 @@
+package com.helpcore.ticket_service.entidades.dto;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+
+import java.time.LocalDateTime;
+
+// Fila del listado de tickets: solo lo que muestran las bandejas, sin descripción ni entidades LAZY
+public record TicketResumenDTO(
+        Integer id,
+        String titulo,
+        Ticket.Estado estado,
+        Ticket.Prioridad prioridad,
+        String sede,
+        String codigoAlumno,
+        Integer idUsuarioAgente,
+        LocalDateTime fechaCreacion,
+        Integer idCategoria,
+        String categoria,
+        Integer idInvitado,
+        String nombreInvitado,
+        String apellidoInvitado
+) {
+}
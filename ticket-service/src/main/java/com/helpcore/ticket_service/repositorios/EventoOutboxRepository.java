@@ -0,0 +1,25 @@
+package com.helpcore.ticket_service.repositorios;
+
+import com.helpcore.ticket_service.entidades.EventoOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    // Bloquea el lote para esta instancia; otras réplicas del relay saltan estas filas en vez de esperar.
+    // EN_CURSO con proximo_intento vencido = réplica caída a mitad del envío
+    @Query(value = "SELECT * FROM tb_evento_outbox " +
+            "WHERE estado IN ('PENDIENTE', 'EN_CURSO') AND proximo_intento <= :ahora " +
+            "ORDER BY proximo_intento, id_evento LIMIT :lote FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EventoOutbox> reclamarPendientes(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+
+    @Modifying
+    @Query(value = "DELETE FROM tb_evento_outbox WHERE estado = 'ENVIADO' AND fecha_envio < :limite LIMIT :lote",
+            nativeQuery = true)
+    int eliminarEnviados(@Param("limite") LocalDateTime limite, @Param("lote") int lote);
+}
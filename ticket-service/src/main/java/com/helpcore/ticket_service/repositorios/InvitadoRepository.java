@@ -3,5 +3,16 @@ package com.helpcore.ticket_service.repositorios;
 import com.helpcore.ticket_service.entidades.Invitado;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface InvitadoRepository extends JpaRepository<Invitado, Integer> {
+
+    // dni y email tienen índice único
+    Optional<Invitado> findByDni(String dni);
+
+    Optional<Invitado> findByEmail(String email);
+
+    List<Invitado> findByDniInOrEmailIn(Collection<String> dnis, Collection<String> emails);
 }
@@ -0,0 +1,32 @@
+package com.helpcore.ticket_service.repositorios;
+
+import com.helpcore.ticket_service.entidades.RespuestaTicket;
+import com.helpcore.ticket_service.entidades.dto.RespuestaContenidoDTO;
+import com.helpcore.ticket_service.entidades.dto.RespuestaResumenDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RespuestaTicketRepository extends JpaRepository<RespuestaTicket, Long> {
+
+    // Rango de idx_respuesta_ticket_id a partir del cursor. Proyección sin contenido: con ROW_FORMAT=DYNAMIC
+    // el MEDIUMTEXT largo vive fuera de la página de la fila y no se lee, ni entra en el contexto de persistencia
+    @Query("SELECT new com.helpcore.ticket_service.entidades.dto.RespuestaResumenDTO(" +
+            "r.id, r.tipoAutor, r.idUsuarioAutor, r.nombreAutor, r.resumen, r.longitud, r.fechaCreacion) " +
+            "FROM RespuestaTicket r WHERE r.idTicket = :idTicket AND r.id > :despuesDe ORDER BY r.id")
+    List<RespuestaResumenDTO> listarResumen(@Param("idTicket") Integer idTicket, @Param("despuesDe") Long despuesDe, Limit limite);
+
+    @Query("SELECT new com.helpcore.ticket_service.entidades.dto.RespuestaContenidoDTO(r.id, r.idTicket, r.contenido) " +
+            "FROM RespuestaTicket r WHERE r.id = :id")
+    Optional<RespuestaContenidoDTO> obtenerContenido(@Param("id") Long id);
+
+    // Solo la cola posterior a lo leído (rango corto del índice), para recalcular no leídas
+    @Query("SELECT COUNT(r) FROM RespuestaTicket r " +
+            "WHERE r.idTicket = :idTicket AND r.id > :despuesDe AND r.tipoAutor = :tipoAutor")
+    long contarPosteriores(@Param("idTicket") Integer idTicket, @Param("despuesDe") Long despuesDe,
+                          @Param("tipoAutor") RespuestaTicket.TipoAutor tipoAutor);
+}
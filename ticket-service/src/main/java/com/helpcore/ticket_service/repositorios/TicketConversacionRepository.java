@@ -0,0 +1,37 @@
+package com.helpcore.ticket_service.repositorios;
+
+import com.helpcore.ticket_service.entidades.TicketConversacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface TicketConversacionRepository extends JpaRepository<TicketConversacion, Integer> {
+
+    // Crea la fila con la primera respuesta y después solo suma; sin leer antes ni contar tb_respuesta_ticket
+    @Modifying
+    @Query(value = "INSERT INTO tb_ticket_conversacion (id_ticket, total_respuestas, no_leidas_agente, no_leidas_cliente, " +
+            "id_ultima_respuesta, fecha_ultima_respuesta) VALUES (:idTicket, 1, :paraAgente, :paraCliente, :idRespuesta, :fecha) " +
+            "ON DUPLICATE KEY UPDATE total_respuestas = total_respuestas + 1, " +
+            "no_leidas_agente = no_leidas_agente + :paraAgente, no_leidas_cliente = no_leidas_cliente + :paraCliente, " +
+            "id_ultima_respuesta = :idRespuesta, fecha_ultima_respuesta = :fecha", nativeQuery = true)
+    void sumarRespuesta(@Param("idTicket") Integer idTicket, @Param("idRespuesta") Long idRespuesta,
+                        @Param("fecha") LocalDateTime fecha, @Param("paraAgente") int paraAgente,
+                        @Param("paraCliente") int paraCliente);
+
+    // Bloquea la fila: una respuesta nueva espera a que termine de marcarse lo leído
+    @Query(value = "SELECT id_ultima_respuesta FROM tb_ticket_conversacion WHERE id_ticket = :idTicket FOR UPDATE",
+            nativeQuery = true)
+    Optional<Long> bloquearUltimaRespuesta(@Param("idTicket") Integer idTicket);
+
+    @Modifying
+    @Query("UPDATE TicketConversacion c SET c.noLeidasAgente = :noLeidas WHERE c.idTicket = :idTicket")
+    int fijarNoLeidasAgente(@Param("idTicket") Integer idTicket, @Param("noLeidas") int noLeidas);
+
+    @Modifying
+    @Query("UPDATE TicketConversacion c SET c.noLeidasCliente = :noLeidas WHERE c.idTicket = :idTicket")
+    int fijarNoLeidasCliente(@Param("idTicket") Integer idTicket, @Param("noLeidas") int noLeidas);
+}
@@ -2,7 +2,40 @@ package com.helpcore.ticket_service.repositorios;
 
 import com.helpcore.ticket_service.entidades.Invitado;
 import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.entidades.dto.TicketEstadoFila;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface TicketRepository extends JpaRepository<Ticket, Integer> {
+import java.util.List;
+import java.util.Optional;
+
+public interface TicketRepository extends JpaRepository<Ticket, Integer>, TicketRepositoryCustom {
+
+    boolean existsByIdAndActivoTrue(Integer id);
+
+    // Una sola consulta: tb_ticket y tb_invitado por PK (descripcion TEXT queda fuera de página y no se lee)
+    @Query("SELECT new com.helpcore.ticket_service.entidades.dto.TicketEstadoFila(" +
+            "t.id, i.email, t.estado, t.prioridad, t.fechaCreacion, t.fechaAsignacion, t.fechaResolucion, t.fechaCierre) " +
+            "FROM Ticket t JOIN t.invitado i " +
+            "WHERE t.id = :id AND t.activo = true")
+    Optional<TicketEstadoFila> consultarEstado(@Param("id") Integer id);
+
+    // Cola de una prioridad por idx_ticket_cola, la más antigua primero. SKIP LOCKED: los agentes que
+    // reclaman a la vez se reparten filas distintas en vez de esperar al mismo bloqueo
+    @Query(value = "SELECT * FROM tb_ticket FORCE INDEX (idx_ticket_cola) " +
+            "WHERE estado = 'NUEVO' AND es_activo = true AND prioridad = :prioridad AND id_usuario_agente IS NULL " +
+            "ORDER BY fecha_creacion, id_ticket LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Ticket> reclamarSiguiente(@Param("prioridad") String prioridad);
+
+    @Query("SELECT COUNT(t) FROM Ticket t WHERE t.idUsuarioAgente = :idAgente " +
+            "AND t.estado = com.helpcore.ticket_service.entidades.Ticket.Estado.EN_ATENCION AND t.activo = true")
+    long contarAbiertosDeAgente(@Param("idAgente") Integer idAgente);
+
+    // [idUsuarioAgente, abiertos] de todos los agentes con tickets en atención
+    @Query("SELECT t.idUsuarioAgente, COUNT(t) FROM Ticket t " +
+            "WHERE t.idUsuarioAgente IS NOT NULL " +
+            "AND t.estado = com.helpcore.ticket_service.entidades.Ticket.Estado.EN_ATENCION AND t.activo = true " +
+            "GROUP BY t.idUsuarioAgente")
+    List<Object[]> contarAbiertosPorAgente();
 }
@@ -0,0 +1,12 @@
+package com.helpcore.ticket_service.repositorios;
+
+import com.helpcore.ticket_service.entidades.dto.TicketCursor;
+import com.helpcore.ticket_service.entidades.dto.TicketFiltroDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketResumenDTO;
+
+import java.util.List;
+
+public interface TicketRepositoryCustom {
+
+    List<TicketResumenDTO> listarResumen(TicketFiltroDTO filtro, TicketCursor despuesDe, int limite);
+}
@@ -0,0 +1,76 @@
+package com.helpcore.ticket_service.repositorios;
+
+import com.helpcore.ticket_service.entidades.dto.TicketCursor;
+import com.helpcore.ticket_service.entidades.dto.TicketFiltroDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketResumenDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listado de tickets con paginación por cursor (keyset) sobre (fecha_creacion, id_ticket).
+ * Cada página es un rango del índice que empieza justo después del cursor, así el coste
+ * no crece con el número de página como ocurre con OFFSET. Categoría e invitado se
+ * resuelven con LEFT JOIN dentro de la misma consulta, sin N+1.
+ */
+public class TicketRepositoryImpl implements TicketRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TicketResumenDTO> listarResumen(TicketFiltroDTO filtro, TicketCursor despuesDe, int limite) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.helpcore.ticket_service.entidades.dto.TicketResumenDTO(" +
+                "t.id, t.titulo, t.estado, t.prioridad, t.sede, t.codigoAlumno, t.idUsuarioAgente, t.fechaCreacion, " +
+                "c.id, c.nombre, i.id, i.nombre, i.apellido) " +
+                "FROM Ticket t LEFT JOIN t.categoria c LEFT JOIN t.invitado i " +
+                "WHERE t.activo = true");
+        Map<String, Object> parametros = new HashMap<>();
+
+        if (filtro.estado() != null) {
+            jpql.append(" AND t.estado = :estado");
+            parametros.put("estado", filtro.estado());
+        }
+        if (filtro.prioridad() != null) {
+            jpql.append(" AND t.prioridad = :prioridad");
+            parametros.put("prioridad", filtro.prioridad());
+        }
+        if (filtro.sede() != null) {
+            jpql.append(" AND t.sede = :sede");
+            parametros.put("sede", filtro.sede());
+        }
+        if (filtro.idCategoria() != null) {
+            jpql.append(" AND t.categoria.id = :idCategoria");
+            parametros.put("idCategoria", filtro.idCategoria());
+        }
+        if (filtro.idUsuarioAgente() != null) {
+            jpql.append(" AND t.idUsuarioAgente = :idUsuarioAgente");
+            parametros.put("idUsuarioAgente", filtro.idUsuarioAgente());
+        }
+        if (filtro.desde() != null) {
+            jpql.append(" AND t.fechaCreacion >= :desde");
+            parametros.put("desde", filtro.desde());
+        }
+        if (filtro.hasta() != null) {
+            jpql.append(" AND t.fechaCreacion < :hasta");
+            parametros.put("hasta", filtro.hasta());
+        }
+        if (despuesDe != null) {
+            jpql.append(" AND (t.fechaCreacion < :cursorFecha OR (t.fechaCreacion = :cursorFecha AND t.id < :cursorId))");
+            parametros.put("cursorFecha", despuesDe.fechaCreacion());
+            parametros.put("cursorId", despuesDe.id());
+        }
+
+        jpql.append(" ORDER BY t.fechaCreacion DESC, t.id DESC");
+
+        TypedQuery<TicketResumenDTO> query = entityManager.createQuery(jpql.toString(), TicketResumenDTO.class);
+        parametros.forEach(query::setParameter);
+        query.setMaxResults(limite);
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,229 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.entidades.TicketHistorial;
+import com.helpcore.ticket_service.entidades.dto.TicketAsignacionDTO;
+import com.helpcore.ticket_service.repositorios.TicketRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asignación de tickets NUEVO a agentes ("reclamar el siguiente").
+ * - Cada agente reserva primero un hueco en su contador de abiertos (en memoria, CAS); sin hueco no
+ *   toca MySQL. Así la carga se reparte entre los agentes que aún tienen capacidad
+ * - El ticket se reclama con FOR UPDATE SKIP LOCKED, de URGENTE a BAJA y por orden de llegada:
+ *   dos agentes nunca obtienen la misma fila y ninguno espera el bloqueo de otro
+ * - La transacción es corta (READ COMMITTED, una fila) y deja el ticket EN_ATENCION con agente y fecha
+ * - TicketService.actualizar/eliminar ajustan los contadores cuando un ticket sale de EN_ATENCION
+ * Con varias réplicas cada una lleva sus contadores; la resincronización periódica con MySQL corrige
+ * la deriva, así que el máximo por agente es aproximado entre réplicas.
+ */
+@Service
+public class AsignacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsignacionService.class);
+
+    // De mayor a menor prioridad: una consulta por nivel, cada una recorre solo su tramo de idx_ticket_cola
+    private static final Ticket.Prioridad[] ORDEN_PRIORIDAD = {
+            Ticket.Prioridad.URGENTE, Ticket.Prioridad.ALTA, Ticket.Prioridad.MEDIA, Ticket.Prioridad.BAJA
+    };
+
+    public enum Resultado {
+        ASIGNADO, SIN_TICKETS, SIN_CAPACIDAD
+    }
+
+    public record Reclamo(Resultado resultado, TicketAsignacionDTO asignacion) {
+    }
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TicketHistorialService ticketHistorialService;
+
+    @Autowired
+    private TicketEstadoService ticketEstadoService;
+
+    @Autowired
+    private TicketBusquedaService ticketBusquedaService;
+
+    @Value("${app.ticket.asignacion.maximo-abiertos:10}")
+    private int maximoAbiertos;
+
+    // Tickets EN_ATENCION por agente; se carga de MySQL la primera vez que aparece cada agente
+    private final Map<Integer, AtomicInteger> abiertos = new ConcurrentHashMap<>();
+
+    private TransactionTemplate transaccion;
+
+    @PostConstruct
+    public void init() {
+        transaccion = new TransactionTemplate(transactionManager);
+        // Con READ COMMITTED no quedan bloqueos de hueco sobre el índice de la cola
+        transaccion.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    public Reclamo reclamarSiguiente(Integer idAgente) {
+        AtomicInteger carga = carga(idAgente);
+        if (!reservarHueco(carga)) {
+            return new Reclamo(Resultado.SIN_CAPACIDAD, null);
+        }
+
+        Ticket asignado = null;
+        try {
+            asignado = transaccion.execute(estado -> asignar(idAgente));
+        } finally {
+            if (asignado == null) {
+                carga.decrementAndGet();
+            }
+        }
+        if (asignado == null) {
+            return new Reclamo(Resultado.SIN_TICKETS, null);
+        }
+
+        return new Reclamo(Resultado.ASIGNADO, new TicketAsignacionDTO(asignado.getId(), asignado.getTitulo(),
+                asignado.getPrioridad(), idAgente, asignado.getFechaAsignacion(), carga.get()));
+    }
+
+    private Ticket asignar(Integer idAgente) {
+        for (Ticket.Prioridad prioridad : ORDEN_PRIORIDAD) {
+            Optional<Ticket> candidato = ticketRepository.reclamarSiguiente(prioridad.name());
+            if (candidato.isEmpty()) {
+                continue;
+            }
+
+            Ticket ticket = candidato.get();
+            Ticket anterior = Ticket.builder()
+                    .id(ticket.getId())
+                    .estado(ticket.getEstado())
+                    .prioridad(ticket.getPrioridad())
+                    .idUsuarioAgente(ticket.getIdUsuarioAgente())
+                    .fechaAsignacion(ticket.getFechaAsignacion())
+                    .fechaResolucion(ticket.getFechaResolucion())
+                    .fechaCierre(ticket.getFechaCierre())
+                    .build();
+
+            // Entidad gestionada: el UPDATE sale en el commit, que también libera el bloqueo
+            LocalDateTime ahora = LocalDateTime.now();
+            ticket.setEstado(Ticket.Estado.EN_ATENCION);
+            ticket.setIdUsuarioAgente(idAgente);
+            ticket.setFechaAsignacion(ahora);
+
+            List<TicketHistorial> cambios = TicketHistorialService.diferencias(anterior, ticket, ahora);
+            ticketHistorialService.registrar(cambios);
+            ticketEstadoService.invalidar(ticket.getId());
+            ticketBusquedaService.indexar(ticket);
+            return ticket;
+        }
+        return null;
+    }
+
+    // Incrementa solo si queda capacidad; varios reclamos del mismo agente no pueden pasarse del máximo
+    private boolean reservarHueco(AtomicInteger carga) {
+        int actual;
+        do {
+            actual = carga.get();
+            if (actual >= maximoAbiertos) {
+                return false;
+            }
+        } while (!carga.compareAndSet(actual, actual + 1));
+        return true;
+    }
+
+    private AtomicInteger carga(Integer idAgente) {
+        AtomicInteger carga = abiertos.get(idAgente);
+        if (carga != null) {
+            return carga;
+        }
+        // Fuera de computeIfAbsent: la consulta no bloquea a otros agentes del mismo segmento del mapa
+        AtomicInteger leida = new AtomicInteger((int) ticketRepository.contarAbiertosDeAgente(idAgente));
+        carga = abiertos.putIfAbsent(idAgente, leida);
+        return carga != null ? carga : leida;
+    }
+
+    /**
+     * Ajusta los contadores tras un cambio manual (TicketService). Dentro de una transacción
+     * se aplica tras el commit, como el resto de efectos fuera de MySQL.
+     */
+    public void ajustarCarga(Integer agenteAnterior, Ticket.Estado estadoAnterior, Integer agenteNuevo, Ticket.Estado estadoNuevo) {
+        Integer liberado = estadoAnterior == Ticket.Estado.EN_ATENCION ? agenteAnterior : null;
+        Integer ocupado = estadoNuevo == Ticket.Estado.EN_ATENCION ? agenteNuevo : null;
+        if (liberado != null && liberado.equals(ocupado)) {
+            return;
+        }
+        if (liberado == null && ocupado == null) {
+            return;
+        }
+
+        Runnable ajuste = () -> {
+            if (liberado != null) {
+                abiertos.computeIfPresent(liberado, (id, carga) -> {
+                    carga.updateAndGet(valor -> Math.max(0, valor - 1));
+                    return carga;
+                });
+            }
+            if (ocupado != null) {
+                abiertos.computeIfPresent(ocupado, (id, carga) -> {
+                    carga.incrementAndGet();
+                    return carga;
+                });
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ajuste.run();
+                }
+            });
+        } else {
+            ajuste.run();
+        }
+    }
+
+    public Map<Integer, Integer> cargas() {
+        Map<Integer, Integer> copia = new HashMap<>();
+        abiertos.forEach((id, carga) -> copia.put(id, carga.get()));
+        return copia;
+    }
+
+    // Corrige la deriva (otras réplicas, cambios hechos directamente en MySQL) de los agentes conocidos
+    @Scheduled(fixedDelayString = "${app.ticket.asignacion.resincronizar:300000}")
+    public void resincronizar() {
+        if (abiertos.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> reales = new HashMap<>();
+        for (Object[] fila : ticketRepository.contarAbiertosPorAgente()) {
+            reales.put((Integer) fila[0], ((Number) fila[1]).intValue());
+        }
+        abiertos.forEach((id, carga) -> {
+            int real = reales.getOrDefault(id, 0);
+            int anterior = carga.getAndSet(real);
+            if (anterior != real) {
+                log.debug("Carga del agente {} corregida de {} a {}", id, anterior, real);
+            }
+        });
+    }
+}
@@ -1,10 +1,19 @@
 package com.helpcore.ticket_service.servicios;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.helpcore.ticket_service.entidades.CategoriaTicket;
 import com.helpcore.ticket_service.repositorios.CategoriaTicketRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 
 @Service
@@ -12,11 +21,63 @@ public class CategoriaTicketService {
     @Autowired
     CategoriaTicketRepository categoriaTicketRepository;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
+    // Foto inmutable de tb_categoria_ticket: lista, JSON ya serializado y su ETag
+    public record CategoriasSnapshot(List<CategoriaTicket> categorias, byte[] json, String etag) {
+    }
+
+    private volatile CategoriasSnapshot snapshot;
+
     public CategoriaTicket buscar(Integer id){
         return categoriaTicketRepository.findById(id).orElse(null);
     }
 
     public List<CategoriaTicket> listar(){
-        return categoriaTicketRepository.findAll();
+        return obtenerSnapshot().categorias();
+    }
+
+    public CategoriasSnapshot obtenerSnapshot() {
+        CategoriasSnapshot actual = snapshot;
+        return actual != null ? actual : recargar();
+    }
+
+    /**
+     * Relee las categorías y publica una nueva foto solo si el contenido cambió
+     * (así el ETag se mantiene y los clientes siguen recibiendo 304).
+     * Se ejecuta al arrancar y periódicamente, porque las categorías se mantienen por SQL.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.ticket.categorias.refresh-interval:300000}",
+            initialDelayString = "${app.ticket.categorias.refresh-interval:300000}")
+    public void refrescar() {
+        recargar();
+    }
+
+    public synchronized CategoriasSnapshot recargar() {
+        List<CategoriaTicket> categorias = List.copyOf(categoriaTicketRepository.findAll());
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(categorias);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar las categorías", e);
+        }
+
+        CategoriasSnapshot actual = snapshot;
+        if (actual == null || !Arrays.equals(actual.json(), json)) {
+            snapshot = new CategoriasSnapshot(categorias, json, etag(json));
+        }
+        return snapshot;
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 }
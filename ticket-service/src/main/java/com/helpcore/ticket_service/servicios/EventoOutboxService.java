@@ -0,0 +1,58 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpcore.ticket_service.entidades.EventoOutbox;
+import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.repositorios.EventoOutboxRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Registro de eventos en tb_evento_outbox. Debe llamarse dentro de la transacción que
+ * guarda el ticket: o se confirman ambos o ninguno, y el envío real lo hace OutboxRelay.
+ */
+@Service
+public class EventoOutboxService {
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public EventoOutbox registrarTicketCreado(Ticket ticket) {
+        // Mismo formato que TicketCreatedDto de notification-service
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("ticketId", ticket.getId());
+        payload.put("titulo", ticket.getTitulo());
+        payload.put("descripcion", ticket.getDescripcion());
+        payload.put("correoCreador", ticket.getInvitado() != null ? ticket.getInvitado().getEmail() : null);
+
+        return registrar(EventoOutbox.Tipo.TICKET_CREADO, ticket.getId(), payload);
+    }
+
+    private EventoOutbox registrar(EventoOutbox.Tipo tipo, Integer idAgregado, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + tipo, e);
+        }
+
+        EventoOutbox evento = EventoOutbox.builder()
+                .tipo(tipo.name())
+                .idAgregado(idAgregado)
+                .idempotencyKey(UUID.randomUUID().toString())
+                .payload(json)
+                .build();
+
+        return eventoOutboxRepository.save(evento);
+    }
+}
@@ -1,14 +1,25 @@
 package com.helpcore.ticket_service.servicios;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.helpcore.ticket_service.entidades.Invitado;
-import com.helpcore.ticket_service.entidades.Ticket;
 import com.helpcore.ticket_service.repositorios.InvitadoRepository;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.print.attribute.standard.Media;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -17,6 +28,33 @@ public class InvitadoService {
     @Autowired
     private InvitadoRepository invitadoRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.ticket.invitado-cache.maximum-size:10000}")
+    private long tamanoCache;
+
+    @Value("${app.ticket.invitado-cache.ttl:10m}")
+    private Duration ttlCache;
+
+    // Invitados ya resueltos por DNI (entidades desacopladas, solo se usan como referencia del ticket)
+    private Cache<String, Invitado> cachePorDni;
+
+    private TransactionTemplate nuevaTransaccion;
+
+    @PostConstruct
+    public void init() {
+        cachePorDni = Caffeine.newBuilder()
+                .maximumSize(tamanoCache)
+                .expireAfterWrite(ttlCache)
+                .build();
+
+        // El INSERT del invitado va en su propia transacción: si choca con la restricción única
+        // solo se revierte esa, y la del ticket sigue viva para reutilizar el invitado ganador
+        nuevaTransaccion = new TransactionTemplate(transactionManager);
+        nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
     public Invitado buscar(Integer id) {
         return invitadoRepository.findById(id).orElse(null);
     }
@@ -30,10 +68,115 @@ public class InvitadoService {
         return invitadoRepository.save(invitado);
     }
 
+    /**
+     * Devuelve el invitado con ese DNI o lo crea si no existe.
+     * - Caché por DNI: un invitado recurrente no toca la BD
+     * - Sin caché: una lectura por el índice único de dni
+     * - Si dos peticiones crean el mismo invitado a la vez, la que pierde la restricción
+     *   única relee y usa el invitado de la otra en lugar de fallar
+     * - Si un invitado recurrente trae otro email o teléfono se actualizan: las notificaciones
+     *   del ticket van a los datos de contacto más recientes (un teléfono vacío no borra el guardado)
+     * - Dentro de la transacción del ticket la caché se actualiza tras el commit
+     */
+    public Invitado obtenerOCrear(Invitado invitado) {
+        String dni = invitado.getDni().trim();
+
+        Invitado enCache = cachePorDni.getIfPresent(dni);
+        if (enCache != null && !cambiaContacto(enCache, invitado)) {
+            return enCache;
+        }
+
+        Invitado existente = invitadoRepository.findByDni(dni).orElse(null);
+        if (existente == null) {
+            validarEmailLibre(invitado.getEmail());
+            existente = insertarOReleer(invitado, dni);
+        } else if (!existente.isActivo() || cambiaContacto(existente, invitado)) {
+            actualizarContacto(existente, invitado);
+            existente.setActivo(true);
+            existente = invitadoRepository.save(existente);
+        }
+
+        cachear(dni, existente);
+        return existente;
+    }
+
+    // Si la transacción se revierte, la caché no debe quedarse con un email o teléfono que no está en MySQL:
+    // con él, la siguiente petición no vería cambios y la fila nunca se actualizaría
+    private void cachear(String dni, Invitado invitado) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cachePorDni.put(dni, invitado);
+            return;
+        }
+        cachePorDni.invalidate(dni);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cachePorDni.put(dni, invitado);
+            }
+        });
+    }
+
+    public void invalidarCache(Collection<String> dnis) {
+        cachePorDni.invalidateAll(dnis);
+    }
+
+    private Invitado insertarOReleer(Invitado invitado, String dni) {
+        try {
+            return nuevaTransaccion.execute(estado -> {
+                invitado.setDni(dni);
+                invitado.setActivo(true);
+                return invitadoRepository.saveAndFlush(invitado);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Relectura en transacción nueva: con REPEATABLE READ la transacción actual
+            // no vería la fila que acaba de confirmar la otra petición
+            Invitado ganador = nuevaTransaccion.execute(estado -> invitadoRepository.findByDni(dni).orElse(null));
+            if (ganador == null) {
+                // La restricción que falló fue la del email, no la del DNI
+                throw new IllegalArgumentException("El email ya está registrado con otro DNI");
+            }
+            return ganador;
+        }
+    }
+
+    private static boolean cambiaContacto(Invitado actual, Invitado nuevo) {
+        String email = recortar(nuevo.getEmail());
+        String telefono = recortar(nuevo.getTelefono());
+        return (email != null && !email.equals(actual.getEmail()))
+                || (telefono != null && !telefono.equals(actual.getTelefono()));
+    }
+
+    private void actualizarContacto(Invitado actual, Invitado nuevo) {
+        String email = recortar(nuevo.getEmail());
+        String telefono = recortar(nuevo.getTelefono());
+
+        if (email != null && !email.equals(actual.getEmail())) {
+            Invitado conEmail = invitadoRepository.findByEmail(email).orElse(null);
+            if (conEmail != null && !conEmail.getId().equals(actual.getId())) {
+                throw new IllegalArgumentException("El email ya está registrado con otro DNI");
+            }
+            actual.setEmail(email);
+        }
+        if (telefono != null) {
+            actual.setTelefono(telefono);
+        }
+    }
+
+    private static String recortar(String valor) {
+        return valor == null || valor.trim().isEmpty() ? null : valor.trim();
+    }
+
+    private void validarEmailLibre(String email) {
+        if (email != null && invitadoRepository.findByEmail(email.trim()).isPresent()) {
+            throw new IllegalArgumentException("El email ya está registrado con otro DNI");
+        }
+    }
+
     public Invitado actualizar(Invitado invitado) {
         Invitado invitadoActual = buscar(invitado.getId());
 
         if (invitadoActual != null && invitadoActual.isActivo()) {
+            cachePorDni.invalidate(invitadoActual.getDni());
             invitadoActual.setNombre(invitado.getNombre());
             invitadoActual.setApellido(invitado.getApellido());
             invitadoActual.setDni(invitado.getDni());
@@ -48,10 +191,11 @@ public class InvitadoService {
     public boolean eliminar(Integer id) {
         Invitado invitadoActual = buscar(id);
         if (invitadoActual != null && invitadoActual.isActivo()) {
+            cachePorDni.invalidate(invitadoActual.getDni());
             invitadoActual.setActivo(false);
             invitadoRepository.save(invitadoActual);
             return true;
         }
         return false;
     }
-}
\ No newline at end of file
+}
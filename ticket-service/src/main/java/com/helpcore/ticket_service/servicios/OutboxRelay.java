@@ -0,0 +1,165 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.EventoOutbox;
+import com.helpcore.ticket_service.repositorios.EventoOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Publica los eventos de tb_evento_outbox en notification-service (entrega al menos una vez).
+ * - Reclama lotes con FOR UPDATE SKIP LOCKED en una transacción corta que los deja EN_CURSO;
+ *   varias réplicas no procesan el mismo evento y nadie espera bloqueos mientras se envía
+ * - El POST se hace sin transacción abierta; el resultado (ENVIADO o reintento) se guarda
+ *   después, evento a evento, en otra transacción corta
+ * - Un evento EN_CURSO de una réplica caída se vuelve a reclamar pasado tiempo-en-curso
+ * - Cada envío lleva Idempotency-Key; el consumidor descarta los duplicados
+ * - Si falla, reintenta con backoff exponencial con jitter hasta max-intentos (luego FALLIDO)
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.outbox.relay.batch-size:50}")
+    private int tamanoLote;
+
+    @Value("${app.outbox.relay.max-intentos:10}")
+    private int maxIntentos;
+
+    @Value("${app.outbox.relay.backoff-inicial:5s}")
+    private Duration backoffInicial;
+
+    @Value("${app.outbox.relay.backoff-maximo:30m}")
+    private Duration backoffMaximo;
+
+    // Debe cubrir el envío de un lote completo: batch-size x (connect-timeout + read-timeout) en el peor caso
+    @Value("${app.outbox.relay.tiempo-en-curso:15m}")
+    private Duration tiempoEnCurso;
+
+    @Value("${app.outbox.relay.retencion:7d}")
+    private Duration retencion;
+
+    @Value("${app.outbox.relay.url-ticket-creado:http://notification-service/notifications/ticket-creado}")
+    private String urlTicketCreado;
+
+    private TransactionTemplate transaccion;
+
+    @PostConstruct
+    public void init() {
+        transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:2000}")
+    public void publicarPendientes() {
+        List<EventoOutbox> eventos;
+        do {
+            eventos = transaccion.execute(estado -> reclamarLote());
+            if (eventos == null) {
+                return;
+            }
+            for (EventoOutbox evento : eventos) {
+                publicar(evento);
+            }
+        } while (eventos.size() == tamanoLote);
+    }
+
+    // Los bloqueos de FOR UPDATE se liberan al salir: los eventos quedan EN_CURSO hasta registrar el resultado
+    private List<EventoOutbox> reclamarLote() {
+        LocalDateTime ahora = LocalDateTime.now();
+        List<EventoOutbox> eventos = eventoOutboxRepository.reclamarPendientes(ahora, tamanoLote);
+        for (EventoOutbox evento : eventos) {
+            evento.setEstado(EventoOutbox.Estado.EN_CURSO);
+            evento.setProximoIntento(ahora.plus(tiempoEnCurso));
+        }
+        return eventos;
+    }
+
+    private void publicar(EventoOutbox evento) {
+        try {
+            enviar(evento);
+            evento.setEstado(EventoOutbox.Estado.ENVIADO);
+            evento.setFechaEnvio(LocalDateTime.now());
+            evento.setUltimoError(null);
+        } catch (RuntimeException e) {
+            programarReintento(evento, e);
+        }
+        transaccion.executeWithoutResult(estado -> eventoOutboxRepository.save(evento));
+    }
+
+    private void enviar(EventoOutbox evento) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Idempotency-Key", evento.getIdempotencyKey());
+
+        String url = destino(evento.getTipo());
+        restTemplate.postForEntity(url, new HttpEntity<>(evento.getPayload(), headers), String.class);
+    }
+
+    private String destino(String tipo) {
+        if (EventoOutbox.Tipo.TICKET_CREADO.name().equals(tipo)) {
+            return urlTicketCreado;
+        }
+        throw new IllegalStateException("Sin destino para el evento " + tipo);
+    }
+
+    private void programarReintento(EventoOutbox evento, RuntimeException e) {
+        int intentos = evento.getIntentos() + 1;
+        evento.setIntentos(intentos);
+        evento.setUltimoError(recortar(e.getMessage()));
+
+        if (intentos >= maxIntentos) {
+            evento.setEstado(EventoOutbox.Estado.FALLIDO);
+            log.error("Evento outbox {} descartado tras {} intentos: {}", evento.getId(), intentos, e.getMessage());
+            return;
+        }
+
+        // 5s, 10s, 20s... hasta backoff-maximo, con ±20% de jitter para no sincronizar reintentos
+        long base = Math.min(backoffMaximo.toMillis(), backoffInicial.toMillis() << Math.min(intentos - 1, 20));
+        long espera = (long) (base * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+        evento.setEstado(EventoOutbox.Estado.PENDIENTE);
+        evento.setProximoIntento(LocalDateTime.now().plus(Duration.ofMillis(espera)));
+        log.warn("Evento outbox {} falló (intento {}), reintento en {} ms: {}", evento.getId(), intentos, espera, e.getMessage());
+    }
+
+    // Limpieza de eventos ya enviados, por lotes para no bloquear la tabla
+    @Scheduled(fixedDelayString = "${app.outbox.relay.purge-interval:3600000}")
+    public void purgarEnviados() {
+        LocalDateTime limite = LocalDateTime.now().minus(retencion);
+        Integer eliminados;
+        do {
+            eliminados = transaccion.execute(estado -> eventoOutboxRepository.eliminarEnviados(limite, 1000));
+        } while (eliminados != null && eliminados == 1000);
+    }
+
+    private static String recortar(String mensaje) {
+        if (mensaje == null) {
+            return null;
+        }
+        return mensaje.length() > 500 ? mensaje.substring(0, 500) : mensaje;
+    }
+}
@@ -0,0 +1,132 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.RespuestaTicket;
+import com.helpcore.ticket_service.entidades.TicketConversacion;
+import com.helpcore.ticket_service.entidades.dto.RespuestaContenidoDTO;
+import com.helpcore.ticket_service.entidades.dto.RespuestaCursor;
+import com.helpcore.ticket_service.entidades.dto.RespuestaPaginaDTO;
+import com.helpcore.ticket_service.entidades.dto.RespuestaResumenDTO;
+import com.helpcore.ticket_service.repositorios.RespuestaTicketRepository;
+import com.helpcore.ticket_service.repositorios.TicketConversacionRepository;
+import com.helpcore.ticket_service.repositorios.TicketRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Conversación de un ticket (tb_respuesta_ticket) y sus contadores (tb_ticket_conversacion).
+ * - La lista se pagina por cursor sobre id_respuesta y trae resúmenes; el contenido se pide por mensaje
+ * - Cada respuesta suma en el contador del otro lado con un upsert, en la misma transacción
+ * - Marcar como leído bloquea la fila de contadores y, si llegaron mensajes después de lo leído,
+ *   cuenta solo esa cola; nunca un COUNT de toda la conversación
+ */
+@Service
+public class RespuestaTicketService {
+
+    private static final int TAMANO_MAXIMO_PAGINA = 100;
+
+    @Autowired
+    private RespuestaTicketRepository respuestaTicketRepository;
+
+    @Autowired
+    private TicketConversacionRepository ticketConversacionRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Value("${app.ticket.respuestas.maximo-caracteres:20000}")
+    private int maximoCaracteres;
+
+    @Transactional
+    public RespuestaResumenDTO responder(Integer idTicket, RespuestaTicket.TipoAutor tipoAutor, Integer idUsuarioAutor,
+                                         String nombreAutor, String contenido) {
+        if (tipoAutor == null) {
+            throw new IllegalArgumentException("El tipo de autor es obligatorio");
+        }
+        if (nombreAutor == null || nombreAutor.isBlank()) {
+            throw new IllegalArgumentException("Autor no identificado");
+        }
+        if (contenido == null || contenido.isBlank()) {
+            throw new IllegalArgumentException("El mensaje es obligatorio");
+        }
+        if (contenido.length() > maximoCaracteres) {
+            throw new IllegalArgumentException("El mensaje supera los " + maximoCaracteres + " caracteres");
+        }
+        if (idTicket == null || !ticketRepository.existsByIdAndActivoTrue(idTicket)) {
+            throw new IllegalArgumentException("Ticket no encontrado");
+        }
+
+        RespuestaTicket respuesta = respuestaTicketRepository.save(RespuestaTicket.builder()
+                .idTicket(idTicket)
+                .tipoAutor(tipoAutor)
+                .idUsuarioAutor(idUsuarioAutor)
+                .nombreAutor(nombreAutor.trim())
+                .contenido(contenido)
+                .build());
+
+        boolean delCliente = tipoAutor == RespuestaTicket.TipoAutor.CLIENTE;
+        ticketConversacionRepository.sumarRespuesta(idTicket, respuesta.getId(), respuesta.getFechaCreacion(),
+                delCliente ? 1 : 0, delCliente ? 0 : 1);
+
+        return new RespuestaResumenDTO(respuesta.getId(), respuesta.getTipoAutor(), respuesta.getIdUsuarioAutor(),
+                respuesta.getNombreAutor(), respuesta.getResumen(), respuesta.getLongitud(), respuesta.getFechaCreacion());
+    }
+
+    /**
+     * Los N mensajes siguientes al cursor, del más antiguo al más reciente.
+     * Se pide una fila extra para saber si hay más sin lanzar un COUNT.
+     */
+    public RespuestaPaginaDTO listar(Integer idTicket, String cursor, int tamano) {
+        int tamanoPagina = Math.max(1, Math.min(tamano, TAMANO_MAXIMO_PAGINA));
+        RespuestaCursor despuesDe = RespuestaCursor.decodificar(cursor);
+
+        List<RespuestaResumenDTO> filas = respuestaTicketRepository.listarResumen(
+                idTicket, despuesDe != null ? despuesDe.id() : 0L, Limit.of(tamanoPagina + 1));
+
+        boolean hayMas = filas.size() > tamanoPagina;
+        List<RespuestaResumenDTO> contenido = hayMas ? filas.subList(0, tamanoPagina) : filas;
+        String siguienteCursor = hayMas ? new RespuestaCursor(contenido.get(contenido.size() - 1).id()).codificar() : null;
+
+        return new RespuestaPaginaDTO(contenido, siguienteCursor, hayMas);
+    }
+
+    public Optional<RespuestaContenidoDTO> contenido(Long idRespuesta) {
+        return respuestaTicketRepository.obtenerContenido(idRespuesta);
+    }
+
+    // Tickets sin respuestas no tienen fila: para ellos todos los contadores son 0
+    public List<TicketConversacion> contadores(Collection<Integer> idsTicket) {
+        return ticketConversacionRepository.findAllById(idsTicket);
+    }
+
+    /**
+     * El lector (agente o cliente) ha leído hasta {@code hasta} (null: hasta el último mensaje).
+     * Si después llegaron mensajes del otro lado, quedan como no leídos.
+     */
+    @Transactional
+    public void marcarLeidas(Integer idTicket, RespuestaTicket.TipoAutor lector, Long hasta) {
+        Optional<Long> ultima = ticketConversacionRepository.bloquearUltimaRespuesta(idTicket);
+        if (ultima.isEmpty()) {
+            return;
+        }
+
+        RespuestaTicket.TipoAutor autorLeido = lector == RespuestaTicket.TipoAutor.AGENTE
+                ? RespuestaTicket.TipoAutor.CLIENTE
+                : RespuestaTicket.TipoAutor.AGENTE;
+        int noLeidas = hasta == null || hasta >= ultima.get()
+                ? 0
+                : (int) respuestaTicketRepository.contarPosteriores(idTicket, hasta, autorLeido);
+
+        if (lector == RespuestaTicket.TipoAutor.AGENTE) {
+            ticketConversacionRepository.fijarNoLeidasAgente(idTicket, noLeidas);
+        } else {
+            ticketConversacionRepository.fijarNoLeidasCliente(idTicket, noLeidas);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.entidades.dto.TicketBusquedaEstadoDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketBusquedaPaginaDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Búsqueda de texto completo de tickets para los agentes (TicketIndice sobre Lucene).
+ * - Al arrancar se reconstruye desde tb_ticket en paralelo: el rango de id_ticket se parte en
+ *   bloques que leen varios hilos, y todos escriben en el mismo IndexWriter
+ * - Después se mantiene al día desde TicketService y TicketLoteService, tras el commit
+ * - Mientras se reconstruye, un ticket que cambia por la vía incremental no lo pisa la
+ *   reconstrucción con la fila que leyó antes (bloqueo por id + conjunto de ids ya actualizados)
+ * - Si la reconstrucción falla (p. ej. MySQL aún no disponible) se reintenta con backoff exponencial;
+ *   el estado y el último error se consultan en /ticket/buscar/estado
+ * - Un fallo del índice se registra y no afecta a la operación sobre el ticket
+ */
+@Service
+public class TicketBusquedaService {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketBusquedaService.class);
+
+    private static final String SQL_RANGO = "SELECT MIN(id_ticket) AS minimo, MAX(id_ticket) AS maximo FROM tb_ticket WHERE es_activo = true";
+
+    private static final String SQL_BLOQUE =
+            "SELECT id_ticket, titulo, descripcion, estado, sede, id_categoria, fecha_creacion " +
+            "FROM tb_ticket WHERE es_activo = true AND id_ticket BETWEEN ? AND ?";
+
+    private static final int BLOQUEOS = 64;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.ticket.busqueda.directorio:}")
+    private String directorio;
+
+    @Value("${app.ticket.busqueda.ram-buffer-mb:64}")
+    private double ramBufferMb;
+
+    @Value("${app.ticket.busqueda.hilos-reconstruccion:0}")
+    private int hilosReconstruccion;
+
+    @Value("${app.ticket.busqueda.tamano-bloque:5000}")
+    private int tamanoBloque;
+
+    @Value("${app.ticket.busqueda.reintento-inicial:5s}")
+    private Duration reintentoInicial;
+
+    @Value("${app.ticket.busqueda.reintento-maximo:5m}")
+    private Duration reintentoMaximo;
+
+    private TicketIndice indice;
+    private volatile boolean listo;
+    private volatile boolean reconstruyendo;
+    private volatile int intentosFallidos;
+    private volatile String ultimoError;
+    private volatile LocalDateTime proximoIntento;
+    private Thread hiloReconstruccion;
+    private final Set<Integer> actualizadosDuranteReconstruccion = ConcurrentHashMap.newKeySet();
+    private final Object[] bloqueos = new Object[BLOQUEOS];
+
+    @PostConstruct
+    public void init() throws IOException {
+        for (int i = 0; i < BLOQUEOS; i++) {
+            bloqueos[i] = new Object();
+        }
+        // Sin directorio: índice en el heap; con directorio: ficheros mapeados en memoria (se recrea en cada arranque)
+        Directory dir = directorio.isBlank() ? new ByteBuffersDirectory() : new MMapDirectory(Path.of(directorio));
+        indice = new TicketIndice(dir, ramBufferMb);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirAlArrancar() {
+        hiloReconstruccion = new Thread(this::reconstruirConReintentos, "ticket-busqueda-reconstruccion");
+        hiloReconstruccion.setDaemon(true);
+        hiloReconstruccion.start();
+    }
+
+    public boolean isListo() {
+        return listo;
+    }
+
+    public TicketBusquedaEstadoDTO estado() {
+        return new TicketBusquedaEstadoDTO(listo, reconstruyendo, intentosFallidos, ultimoError, proximoIntento);
+    }
+
+    // Hasta que una reconstrucción termine bien: espera inicial, doblándola en cada fallo hasta el máximo
+    void reconstruirConReintentos() {
+        Duration espera = reintentoInicial;
+        while (!reconstruir()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            proximoIntento = LocalDateTime.now().plus(espera);
+            log.warn("Reintento de la reconstrucción del índice de búsqueda (fallo nº {}) en {} s",
+                    intentosFallidos, espera.toSeconds());
+            try {
+                Thread.sleep(espera.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Duration doble = espera.multipliedBy(2);
+            espera = doble.compareTo(reintentoMaximo) > 0 ? reintentoMaximo : doble;
+        }
+    }
+
+    public TicketBusquedaPaginaDTO buscar(String texto, Ticket.Estado estado, String sede, Integer idCategoria,
+                                          int pagina, int tamano) {
+        return indice.buscar(texto, estado, sede, idCategoria, pagina, tamano);
+    }
+
+    public void indexar(Ticket ticket) {
+        indexar(List.of(TicketIndice.Documento.de(ticket)));
+    }
+
+    public void indexar(List<TicketIndice.Documento> tickets) {
+        trasCommit(() -> {
+            for (TicketIndice.Documento ticket : tickets) {
+                escribirIncremental(ticket.id(), () -> indice.indexar(ticket));
+            }
+        });
+    }
+
+    public void eliminar(Integer id) {
+        trasCommit(() -> escribirIncremental(id, () -> indice.eliminar(id)));
+    }
+
+    boolean reconstruir() {
+        long inicio = System.nanoTime();
+        actualizadosDuranteReconstruccion.clear();
+        reconstruyendo = true;
+
+        int hilos = hilosReconstruccion > 0 ? hilosReconstruccion : Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "ticket-busqueda-bloque");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        AtomicLong indexados = new AtomicLong();
+
+        try {
+            Map<String, Object> rango = jdbcTemplate.queryForMap(SQL_RANGO);
+            Number minimo = (Number) rango.get("minimo");
+            Number maximo = (Number) rango.get("maximo");
+
+            if (minimo != null) {
+                List<Future<?>> bloques = new ArrayList<>();
+                for (long desde = minimo.longValue(); desde <= maximo.longValue(); desde += tamanoBloque) {
+                    long inicioBloque = desde;
+                    long finBloque = Math.min(desde + tamanoBloque - 1, maximo.longValue());
+                    bloques.add(pool.submit(() -> indexados.addAndGet(indexarBloque(inicioBloque, finBloque))));
+                }
+                for (Future<?> bloque : bloques) {
+                    bloque.get();
+                }
+            }
+
+            indice.refrescar();
+            listo = true;
+            intentosFallidos = 0;
+            ultimoError = null;
+            proximoIntento = null;
+            log.info("Índice de búsqueda reconstruido: {} tickets en {} ms con {} hilos",
+                    indexados.get(), (System.nanoTime() - inicio) / 1_000_000, hilos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            intentosFallidos++;
+            ultimoError = e.getMessage();
+            log.error("No se pudo reconstruir el índice de búsqueda de tickets", e);
+        } finally {
+            reconstruyendo = false;
+            pool.shutdownNow();
+        }
+        return false;
+    }
+
+    private int indexarBloque(long desde, long hasta) {
+        int[] filas = {0};
+        jdbcTemplate.query(SQL_BLOQUE, rs -> {
+            Integer idCategoria = rs.getObject("id_categoria", Integer.class);
+            Timestamp fecha = rs.getTimestamp("fecha_creacion");
+            TicketIndice.Documento ticket = new TicketIndice.Documento(
+                    rs.getInt("id_ticket"),
+                    rs.getString("titulo"),
+                    rs.getString("descripcion"),
+                    Ticket.Estado.valueOf(rs.getString("estado")),
+                    rs.getString("sede"),
+                    idCategoria,
+                    fecha != null ? fecha.toLocalDateTime() : null);
+
+            synchronized (bloqueo(ticket.id())) {
+                if (!actualizadosDuranteReconstruccion.contains(ticket.id())) {
+                    indice.indexar(ticket);
+                }
+            }
+            filas[0]++;
+        }, desde, hasta);
+        return filas[0];
+    }
+
+    private void escribirIncremental(Integer id, Runnable escritura) {
+        try {
+            if (!reconstruyendo) {
+                escritura.run();
+                return;
+            }
+            synchronized (bloqueo(id)) {
+                actualizadosDuranteReconstruccion.add(id);
+                escritura.run();
+            }
+        } catch (UncheckedIOException e) {
+            log.warn("No se pudo actualizar el ticket {} en el índice de búsqueda: {}", id, e.getMessage());
+        }
+    }
+
+    private Object bloqueo(Integer id) {
+        return bloqueos[Math.floorMod(id, BLOQUEOS)];
+    }
+
+    // Lo que se revierte no debe quedar en el índice
+    private static void trasCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() throws IOException {
+        if (hiloReconstruccion != null) {
+            hiloReconstruccion.interrupt();
+        }
+        indice.close();
+    }
+}
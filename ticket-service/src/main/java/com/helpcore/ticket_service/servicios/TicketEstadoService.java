@@ -0,0 +1,110 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.helpcore.ticket_service.entidades.dto.TicketEstadoDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketEstadoFila;
+import com.helpcore.ticket_service.repositorios.TicketRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Consulta pública del estado de un ticket de invitado (id + email del invitado).
+ * - Una consulta de proyección por id; el email se compara en memoria, así cualquier email
+ *   probado contra un id ya consultado se responde desde la caché
+ * - Caché por id con dos TTL: corto para tickets existentes (el estado cambia) y largo para
+ *   ids inexistentes (caché negativa: enumerar ids al azar no llega a MySQL más de una vez por id)
+ * - Email incorrecto e id inexistente dan el mismo resultado vacío
+ * - TicketService y TicketLoteService invalidan el id al crear, actualizar o eliminar
+ */
+@Service
+public class TicketEstadoService {
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Value("${app.ticket.estado-cache.maximum-size:100000}")
+    private long tamanoCache;
+
+    @Value("${app.ticket.estado-cache.ttl:30s}")
+    private Duration ttl;
+
+    @Value("${app.ticket.estado-cache.ttl-negativo:5m}")
+    private Duration ttlNegativo;
+
+    // fila == null: el id no existe o no es un ticket de invitado activo
+    private record Consulta(TicketEstadoFila fila) {
+    }
+
+    private Cache<Integer, Consulta> cache;
+
+    @PostConstruct
+    public void init() {
+        long ttlNanos = ttl.toNanos();
+        long ttlNegativoNanos = ttlNegativo.toNanos();
+
+        cache = Caffeine.newBuilder()
+                .maximumSize(tamanoCache)
+                .expireAfter(new Expiry<Integer, Consulta>() {
+                    @Override
+                    public long expireAfterCreate(Integer id, Consulta consulta, long ahora) {
+                        return consulta.fila() != null ? ttlNanos : ttlNegativoNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Integer id, Consulta consulta, long ahora, long restante) {
+                        return expireAfterCreate(id, consulta, ahora);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Integer id, Consulta consulta, long ahora, long restante) {
+                        return restante;
+                    }
+                })
+                .build();
+    }
+
+    public Optional<TicketEstadoDTO> consultar(Integer id, String email) {
+        if (id == null || id <= 0 || email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+
+        // get(): si se invalida mientras carga, la invalidación espera y descarta lo cargado
+        TicketEstadoFila fila = cache.get(id, clave -> new Consulta(ticketRepository.consultarEstado(clave).orElse(null))).fila();
+
+        if (fila == null || !fila.emailInvitado().equalsIgnoreCase(email.trim())) {
+            return Optional.empty();
+        }
+        return Optional.of(fila.toDTO());
+    }
+
+    public void invalidar(Integer id) {
+        if (id != null) {
+            invalidar(List.of(id));
+        }
+    }
+
+    // Dentro de una transacción se invalida también tras el commit: una consulta entre medias
+    // leería la fila anterior (o ninguna, si es un ticket nuevo) y la dejaría en caché
+    public void invalidar(Collection<Integer> ids) {
+        cache.invalidateAll(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll(ids);
+                }
+            });
+        }
+    }
+}
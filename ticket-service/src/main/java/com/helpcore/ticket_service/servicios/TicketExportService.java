@@ -0,0 +1,246 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpcore.ticket_service.entidades.dto.TicketFiltroDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exportación de tickets (con invitado y categoría) en CSV o NDJSON.
+ * Lee con un ResultSet de solo avance en modo streaming de MySQL y escribe cada fila
+ * al Writer según llega: no hay entidades ni contexto de persistencia, y la memoria
+ * usada no depende del número de filas.
+ */
+@Service
+public class TicketExportService {
+
+    // Con Connector/J, fetchSize = Integer.MIN_VALUE activa el streaming fila a fila
+    private static final int FETCH_SIZE_STREAMING = Integer.MIN_VALUE;
+    private static final int FILAS_POR_FLUSH = 500;
+
+    private static final String[] COLUMNAS = {
+            "id_ticket", "titulo", "descripcion", "estado", "prioridad", "codigo_alumno", "sede",
+            "id_usuario_cliente", "id_usuario_agente", "categoria", "invitado_nombre", "invitado_apellido",
+            "invitado_dni", "invitado_email", "fecha_creacion", "fecha_asignacion", "fecha_resolucion",
+            "fecha_cierre", "es_activo"
+    };
+
+    private static final String SQL_BASE =
+            "SELECT t.id_ticket, t.titulo, t.descripcion, t.estado, t.prioridad, t.codigo_alumno, t.sede, " +
+            "t.id_usuario_cliente, t.id_usuario_agente, c.nombre AS categoria, i.nombre AS invitado_nombre, " +
+            "i.apellido AS invitado_apellido, i.dni AS invitado_dni, i.email AS invitado_email, " +
+            "t.fecha_creacion, t.fecha_asignacion, t.fecha_resolucion, t.fecha_cierre, t.es_activo " +
+            "FROM tb_ticket t " +
+            "LEFT JOIN tb_invitado i ON i.id_invitado = t.id_invitado " +
+            "LEFT JOIN tb_categoria_ticket c ON c.id_categoria = t.id_categoria " +
+            "WHERE 1 = 1";
+
+    public enum Formato {
+        CSV, NDJSON
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void exportar(TicketFiltroDTO filtro, Formato formato, Writer writer) throws IOException {
+        FilaWriter filaWriter = formato == Formato.CSV ? new CsvWriter(writer) : new NdjsonWriter(writer);
+        filaWriter.cabecera();
+
+        List<Object> parametros = new ArrayList<>();
+        String sql = construirSql(filtro, parametros);
+
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE_STREAMING);
+                for (int i = 0; i < parametros.size(); i++) {
+                    ps.setObject(i + 1, parametros.get(i));
+                }
+                return ps;
+            }, new RowCallbackHandler() {
+                private int filas;
+
+                @Override
+                public void processRow(ResultSet rs) throws SQLException {
+                    try {
+                        filaWriter.fila(rs);
+                        if (++filas % FILAS_POR_FLUSH == 0) {
+                            filaWriter.flush();
+                        }
+                    } catch (IOException e) {
+                        // Cliente desconectado: se corta la lectura y se libera la conexión
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        filaWriter.fin();
+        filaWriter.flush();
+    }
+
+    private static String construirSql(TicketFiltroDTO filtro, List<Object> parametros) {
+        StringBuilder sql = new StringBuilder(SQL_BASE);
+
+        if (filtro.estado() != null) {
+            sql.append(" AND t.estado = ?");
+            parametros.add(filtro.estado().name());
+        }
+        if (filtro.prioridad() != null) {
+            sql.append(" AND t.prioridad = ?");
+            parametros.add(filtro.prioridad().name());
+        }
+        if (filtro.sede() != null) {
+            sql.append(" AND t.sede = ?");
+            parametros.add(filtro.sede());
+        }
+        if (filtro.idCategoria() != null) {
+            sql.append(" AND t.id_categoria = ?");
+            parametros.add(filtro.idCategoria());
+        }
+        if (filtro.idUsuarioAgente() != null) {
+            sql.append(" AND t.id_usuario_agente = ?");
+            parametros.add(filtro.idUsuarioAgente());
+        }
+        if (filtro.desde() != null) {
+            sql.append(" AND t.fecha_creacion >= ?");
+            parametros.add(Timestamp.valueOf(filtro.desde()));
+        }
+        if (filtro.hasta() != null) {
+            sql.append(" AND t.fecha_creacion < ?");
+            parametros.add(Timestamp.valueOf(filtro.hasta()));
+        }
+
+        return sql.append(" ORDER BY t.id_ticket").toString();
+    }
+
+    private interface FilaWriter {
+        void cabecera() throws IOException;
+
+        void fila(ResultSet rs) throws SQLException, IOException;
+
+        void fin() throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class CsvWriter implements FilaWriter {
+        private final Writer writer;
+
+        CsvWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void cabecera() throws IOException {
+            writer.write(String.join(",", COLUMNAS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void fila(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= COLUMNAS.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                escribirCampo(rs.getString(i));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void fin() {
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        // RFC 4180: comillas solo si el valor contiene separador, comillas o saltos de línea
+        private void escribirCampo(String valor) throws IOException {
+            if (valor == null) {
+                return;
+            }
+            boolean requiereComillas = valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+                    || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+            if (!requiereComillas) {
+                writer.write(valor);
+                return;
+            }
+            writer.write('"');
+            writer.write(valor.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonWriter implements FilaWriter {
+        private final JsonGenerator generator;
+        private boolean vacio = true;
+
+        NdjsonWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        }
+
+        @Override
+        public void cabecera() {
+        }
+
+        @Override
+        public void fila(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField(COLUMNAS[0], rs.getInt(1));
+            for (int i = 2; i <= COLUMNAS.length - 1; i++) {
+                Object valor = rs.getObject(i);
+                if (valor == null) {
+                    generator.writeNullField(COLUMNAS[i - 1]);
+                } else if (valor instanceof Number numero) {
+                    generator.writeNumberField(COLUMNAS[i - 1], numero.longValue());
+                } else if (valor instanceof Timestamp fecha) {
+                    generator.writeStringField(COLUMNAS[i - 1], fecha.toLocalDateTime().toString());
+                } else if (valor instanceof LocalDateTime fecha) {
+                    generator.writeStringField(COLUMNAS[i - 1], fecha.toString());
+                } else {
+                    generator.writeStringField(COLUMNAS[i - 1], valor.toString());
+                }
+            }
+            generator.writeBooleanField(COLUMNAS[COLUMNAS.length - 1], rs.getBoolean(COLUMNAS.length));
+            generator.writeEndObject();
+            vacio = false;
+        }
+
+        // MinimalPrettyPrinter separa las filas con '\n'; falta el de la última
+        @Override
+        public void fin() throws IOException {
+            if (!vacio) {
+                generator.writeRaw('\n');
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.helpcore.ticket_service.servicios;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Particiones mensuales de tb_ticket_historial (PARTITION BY RANGE COLUMNS(fecha), ver dbOPERATIVA.sql).
+ * Parte p_futuro (MAXVALUE) para crear por adelantado los meses siguientes; como p_futuro
+ * está vacía, el REORGANIZE no copia filas. Si la tabla no está particionada (la creó
+ * Hibernate con ddl-auto) no hace nada.
+ */
+@Component
+public class TicketHistorialParticiones {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketHistorialParticiones.class);
+
+    private static final DateTimeFormatter NOMBRE = DateTimeFormatter.ofPattern("'p'yyyy_MM");
+
+    private static final String SQL_PARTICIONES =
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'tb_ticket_historial' AND PARTITION_NAME IS NOT NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.ticket.historial.meses-adelantados:2}")
+    private int mesesAdelantados;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.ticket.historial.cron-particiones:0 0 3 * * *}")
+    public void asegurarParticiones() {
+        try {
+            List<String> existentes = jdbcTemplate.queryForList(SQL_PARTICIONES, String.class);
+            if (!existentes.contains("p_futuro")) {
+                return;
+            }
+
+            YearMonth ultimo = existentes.stream()
+                    .filter(nombre -> !nombre.equals("p_futuro"))
+                    .map(nombre -> YearMonth.parse(nombre, NOMBRE))
+                    .max(YearMonth::compareTo)
+                    .orElse(YearMonth.now().minusMonths(1));
+            YearMonth hasta = YearMonth.now().plusMonths(mesesAdelantados);
+
+            for (YearMonth mes = ultimo.plusMonths(1); !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+                jdbcTemplate.execute("ALTER TABLE tb_ticket_historial REORGANIZE PARTITION p_futuro INTO (" +
+                        "PARTITION " + mes.format(NOMBRE) + " VALUES LESS THAN ('" + mes.plusMonths(1).atDay(1) + "'), " +
+                        "PARTITION p_futuro VALUES LESS THAN (MAXVALUE))");
+                log.info("Creada la partición {} de tb_ticket_historial", mes.format(NOMBRE));
+            }
+        } catch (DataAccessException e) {
+            // Otra réplica pudo crearla a la vez; se vuelve a comprobar en la siguiente pasada
+            log.warn("No se pudieron crear las particiones de tb_ticket_historial: {}", e.getMessage());
+        }
+    }
+}
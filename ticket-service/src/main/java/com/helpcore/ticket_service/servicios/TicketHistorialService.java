@@ -0,0 +1,291 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.entidades.TicketHistorial;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Historial de cambios de tickets (tb_ticket_historial, solo inserciones).
+ * - TicketService.actualizar calcula las diferencias campo a campo antes de sobrescribir
+ * - Tras el commit los cambios van a un buffer en memoria; la petición no espera al INSERT
+ * - Un hilo programado vacía el buffer con INSERT multi-fila (un viaje a MySQL por lote)
+ * - Si el buffer se llena, quien registra vacía un lote él mismo antes de encolar
+ * - Un lote que falla max-intentos veces se escribe fila a fila: las filas que MySQL rechaza van
+ *   al log de descartados (logger historial.descartados) y no bloquean al resto del buffer
+ * - La línea de tiempo de un ticket se lee en streaming por idx_historial_ticket_fecha
+ * Los cambios aún en el buffer se pierden si el proceso muere sin pasar por @PreDestroy.
+ */
+@Service
+public class TicketHistorialService {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketHistorialService.class);
+    private static final Logger descartados = LoggerFactory.getLogger("historial.descartados");
+
+    // Con Connector/J, fetchSize = Integer.MIN_VALUE activa el streaming fila a fila
+    private static final int FETCH_SIZE_STREAMING = Integer.MIN_VALUE;
+    private static final int FILAS_POR_FLUSH = 500;
+
+    private static final String SQL_INSERT =
+            "INSERT INTO tb_ticket_historial (id_ticket, campo, valor_anterior, valor_nuevo, fecha) VALUES ";
+    private static final String SQL_TIMELINE =
+            "SELECT id_historial, campo, valor_anterior, valor_nuevo, fecha FROM tb_ticket_historial " +
+            "WHERE id_ticket = ? ORDER BY fecha, id_historial";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.ticket.historial.tamano-lote:500}")
+    private int tamanoLote;
+
+    @Value("${app.ticket.historial.capacidad-buffer:20000}")
+    private int capacidadBuffer;
+
+    @Value("${app.ticket.historial.max-intentos:5}")
+    private int maxIntentos;
+
+    private BlockingQueue<TicketHistorial> buffer;
+
+    // Un solo escritor a la vez: mantiene el orden de inserción (id_historial) entre lotes
+    private final ReentrantLock escritura = new ReentrantLock();
+
+    // Lote cuyo INSERT falló; se reintenta antes de sacar más del buffer
+    private List<TicketHistorial> loteFallido = List.of();
+    private int intentosLoteFallido;
+
+    @PostConstruct
+    public void init() {
+        buffer = new ArrayBlockingQueue<>(capacidadBuffer);
+    }
+
+    /**
+     * Cambios de estado, prioridad, agente y fechas entre el ticket guardado y el recibido.
+     * Debe llamarse antes de copiar los valores nuevos sobre {@code actual}.
+     */
+    public static List<TicketHistorial> diferencias(Ticket actual, Ticket nuevo, LocalDateTime fecha) {
+        List<TicketHistorial> cambios = new ArrayList<>(4);
+        comparar(cambios, actual.getId(), TicketHistorial.Campo.ESTADO, actual.getEstado(), nuevo.getEstado(), fecha);
+        comparar(cambios, actual.getId(), TicketHistorial.Campo.PRIORIDAD, actual.getPrioridad(), nuevo.getPrioridad(), fecha);
+        comparar(cambios, actual.getId(), TicketHistorial.Campo.AGENTE, actual.getIdUsuarioAgente(), nuevo.getIdUsuarioAgente(), fecha);
+        comparar(cambios, actual.getId(), TicketHistorial.Campo.FECHA_ASIGNACION, actual.getFechaAsignacion(), nuevo.getFechaAsignacion(), fecha);
+        comparar(cambios, actual.getId(), TicketHistorial.Campo.FECHA_RESOLUCION, actual.getFechaResolucion(), nuevo.getFechaResolucion(), fecha);
+        comparar(cambios, actual.getId(), TicketHistorial.Campo.FECHA_CIERRE, actual.getFechaCierre(), nuevo.getFechaCierre(), fecha);
+        return cambios;
+    }
+
+    private static void comparar(List<TicketHistorial> cambios, Integer idTicket, TicketHistorial.Campo campo,
+                                 Object anterior, Object nuevo, LocalDateTime fecha) {
+        if (!Objects.equals(anterior, nuevo)) {
+            cambios.add(TicketHistorial.builder()
+                    .idTicket(idTicket)
+                    .campo(campo)
+                    .valorAnterior(anterior != null ? anterior.toString() : null)
+                    .valorNuevo(nuevo != null ? nuevo.toString() : null)
+                    .fecha(fecha)
+                    .build());
+        }
+    }
+
+    // Dentro de una transacción se encola tras el commit: un rollback no deja rastro en el historial
+    public void registrar(List<TicketHistorial> cambios) {
+        if (cambios.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    encolar(cambios);
+                }
+            });
+        } else {
+            encolar(cambios);
+        }
+    }
+
+    private void encolar(List<TicketHistorial> cambios) {
+        for (TicketHistorial cambio : cambios) {
+            if (buffer.offer(cambio)) {
+                continue;
+            }
+            // Buffer lleno: contrapresión sobre quien escribe en vez de crecer sin límite
+            vaciarLote();
+            if (!buffer.offer(cambio)) {
+                log.error("Buffer de historial lleno y MySQL sin responder; se descarta {}", cambio);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.ticket.historial.intervalo-flush:500}")
+    public void vaciar() {
+        while (vaciarLote() == tamanoLote) {
+            // Lotes completos seguidos: sigue hasta dejar el buffer por debajo de un lote
+        }
+    }
+
+    // Devuelve las filas escritas (0 si no había nada o si el INSERT falló)
+    int vaciarLote() {
+        escritura.lock();
+        try {
+            List<TicketHistorial> lote = loteFallido;
+            if (lote.isEmpty()) {
+                lote = new ArrayList<>(Math.min(tamanoLote, buffer.size()));
+                buffer.drainTo(lote, tamanoLote);
+                if (lote.isEmpty()) {
+                    return 0;
+                }
+            }
+            try {
+                insertar(lote);
+                loteFallido = List.of();
+                intentosLoteFallido = 0;
+                return lote.size();
+            } catch (DataAccessException e) {
+                if (++intentosLoteFallido < maxIntentos) {
+                    loteFallido = lote;
+                    log.warn("No se pudo escribir un lote de {} cambios de historial (intento {} de {}), se reintentará: {}",
+                            lote.size(), intentosLoteFallido, maxIntentos, e.getMessage());
+                    return 0;
+                }
+                return insertarFilaAFila(lote);
+            }
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    // Aísla las filas que MySQL rechaza; si lo que falla es la conexión, lo pendiente sigue como lote fallido
+    private int insertarFilaAFila(List<TicketHistorial> lote) {
+        int escritas = 0;
+        for (int i = 0; i < lote.size(); i++) {
+            TicketHistorial cambio = lote.get(i);
+            try {
+                insertar(List.of(cambio));
+                escritas++;
+            } catch (DataAccessResourceFailureException | TransientDataAccessException e) {
+                loteFallido = List.copyOf(lote.subList(i, lote.size()));
+                intentosLoteFallido = 0;
+                log.warn("MySQL no responde; {} cambios de historial quedan pendientes: {}", loteFallido.size(), e.getMessage());
+                return escritas;
+            } catch (DataAccessException e) {
+                descartados.error("idTicket={} campo={} valorAnterior={} valorNuevo={} fecha={} error={}",
+                        cambio.getIdTicket(), cambio.getCampo(), cambio.getValorAnterior(), cambio.getValorNuevo(),
+                        cambio.getFecha(), e.getMostSpecificCause().getMessage());
+            }
+        }
+        loteFallido = List.of();
+        intentosLoteFallido = 0;
+        log.error("Lote de historial escrito fila a fila tras {} intentos: {} de {} filas descartadas",
+                maxIntentos, lote.size() - escritas, lote.size());
+        return escritas;
+    }
+
+    private void insertar(List<TicketHistorial> lote) {
+        StringBuilder sql = new StringBuilder(SQL_INSERT.length() + lote.size() * 12).append(SQL_INSERT);
+        for (int i = 0; i < lote.size(); i++) {
+            sql.append(i == 0 ? "(?,?,?,?,?)" : ",(?,?,?,?,?)");
+        }
+
+        jdbcTemplate.update(sql.toString(), ps -> {
+            int p = 1;
+            for (TicketHistorial cambio : lote) {
+                ps.setInt(p++, cambio.getIdTicket());
+                ps.setString(p++, cambio.getCampo().name());
+                ps.setString(p++, cambio.getValorAnterior());
+                ps.setString(p++, cambio.getValorNuevo());
+                ps.setTimestamp(p++, Timestamp.valueOf(cambio.getFecha()));
+            }
+        });
+    }
+
+    /**
+     * Escribe la línea de tiempo del ticket en NDJSON, del cambio más antiguo al más reciente.
+     * Antes vacía el buffer para incluir los cambios ya confirmados que aún no estaban en MySQL.
+     */
+    public void escribirTimeline(Integer idTicket, Writer writer) throws IOException {
+        vaciar();
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_TIMELINE, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE_STREAMING);
+                ps.setInt(1, idTicket);
+                return ps;
+            }, new RowCallbackHandler() {
+                private int filas;
+
+                @Override
+                public void processRow(ResultSet rs) throws SQLException {
+                    try {
+                        generator.writeStartObject();
+                        generator.writeNumberField("id", rs.getLong(1));
+                        generator.writeStringField("campo", rs.getString(2));
+                        generator.writeStringField("valorAnterior", rs.getString(3));
+                        generator.writeStringField("valorNuevo", rs.getString(4));
+                        generator.writeStringField("fecha", rs.getTimestamp(5).toLocalDateTime().toString());
+                        generator.writeEndObject();
+                        if (++filas % FILAS_POR_FLUSH == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        // Cliente desconectado: se corta la lectura y se libera la conexión
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // MinimalPrettyPrinter separa las filas con '\n'; falta el de la última
+        if (generator.getOutputContext().getEntryCount() > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        vaciar();
+        if (!buffer.isEmpty() || !loteFallido.isEmpty()) {
+            log.error("Se pierden {} cambios de historial sin escribir al cerrar", buffer.size() + loteFallido.size());
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.entidades.dto.TicketBusquedaPaginaDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketBusquedaResultadoDTO;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Índice invertido de tickets sobre Lucene (sin Spring; lo usan TicketBusquedaService y el benchmark).
+ * - titulo y descripcion con SpanishAnalyzer: minúsculas, stopwords y stemming ligero
+ *   ("impresoras" encuentra "impresora"; el stemmer también quita las tildes)
+ * - estado, sede y categoria como términos exactos para filtrar
+ * - updateDocument por id: crear y actualizar son la misma operación, y es seguro repetirla
+ * - Lecturas casi en tiempo real: un hilo reabre el searcher cada segundo como mucho
+ * - totalHits es exacto hasta 1000 coincidencias; por encima es una cota inferior
+ */
+public class TicketIndice implements Closeable {
+
+    static final String ID = "id";
+    static final String TITULO = "titulo";
+    static final String DESCRIPCION = "descripcion";
+    static final String ESTADO = "estado";
+    static final String SEDE = "sede";
+    static final String CATEGORIA = "categoria";
+    static final String FECHA = "fecha";
+
+    private static final float BOOST_TITULO = 2.0f;
+
+    // El índice se guarda ya ordenado por fecha descendente: el listado sin texto termina tras leer
+    // los primeros documentos que pasan los filtros, sin ordenar todas las coincidencias
+    private static final Sort ORDEN_FECHA = new Sort(new SortField(FECHA, SortField.Type.LONG, true));
+
+    public record Documento(Integer id, String titulo, String descripcion, Ticket.Estado estado,
+                            String sede, Integer idCategoria, LocalDateTime fechaCreacion) {
+
+        public static Documento de(Ticket ticket) {
+            return new Documento(ticket.getId(), ticket.getTitulo(), ticket.getDescripcion(), ticket.getEstado(),
+                    ticket.getSede(), ticket.getCategoria() != null ? ticket.getCategoria().getId() : null,
+                    ticket.getFechaCreacion());
+        }
+    }
+
+    private final Analyzer analyzer = new SpanishAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ControlledRealTimeReopenThread<IndexSearcher> reapertura;
+
+    public TicketIndice(Directory directorio, double ramBufferMb) {
+        try {
+            IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                    .setIndexSort(ORDEN_FECHA)
+                    .setRAMBufferSizeMB(ramBufferMb);
+            this.writer = new IndexWriter(directorio, config);
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el índice de tickets", e);
+        }
+        this.reapertura = new ControlledRealTimeReopenThread<>(writer, searcherManager, 1.0, 0.1);
+        this.reapertura.setName("ticket-indice-reapertura");
+        this.reapertura.setDaemon(true);
+        this.reapertura.start();
+    }
+
+    // IndexWriter admite escrituras concurrentes desde varios hilos
+    public void indexar(Documento ticket) {
+        Document doc = new Document();
+        String id = ticket.id().toString();
+        doc.add(new StringField(ID, id, Field.Store.YES));
+        doc.add(new TextField(TITULO, valor(ticket.titulo()), Field.Store.YES));
+        doc.add(new TextField(DESCRIPCION, valor(ticket.descripcion()), Field.Store.NO));
+        if (ticket.estado() != null) {
+            doc.add(new StringField(ESTADO, ticket.estado().name(), Field.Store.YES));
+        }
+        if (ticket.sede() != null) {
+            doc.add(new StringField(SEDE, ticket.sede(), Field.Store.YES));
+        }
+        if (ticket.idCategoria() != null) {
+            doc.add(new StringField(CATEGORIA, ticket.idCategoria().toString(), Field.Store.YES));
+        }
+        long fecha = ticket.fechaCreacion() != null ? ticket.fechaCreacion().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        doc.add(new NumericDocValuesField(FECHA, fecha));
+        doc.add(new StoredField(FECHA, fecha));
+
+        try {
+            writer.updateDocument(new Term(ID, id), doc);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo indexar el ticket " + id, e);
+        }
+    }
+
+    public void eliminar(Integer id) {
+        try {
+            writer.deleteDocuments(new Term(ID, id.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo quitar del índice el ticket " + id, e);
+        }
+    }
+
+    // Hace visibles de inmediato las escrituras anteriores (sin esperar al hilo de reapertura)
+    public void refrescar() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Todos los términos de texto deben aparecer (en el título o en la descripción; el título
+     * puntúa el doble). Sin texto se listan los que cumplen los filtros, más recientes primero.
+     */
+    public TicketBusquedaPaginaDTO buscar(String texto, Ticket.Estado estado, String sede, Integer idCategoria,
+                                          int pagina, int tamano) {
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder();
+        Set<String> terminos = analizar(texto);
+        for (String termino : terminos) {
+            Query enTitulo = new BoostQuery(new TermQuery(new Term(TITULO, termino)), BOOST_TITULO);
+            Query enDescripcion = new TermQuery(new Term(DESCRIPCION, termino));
+            consulta.add(new BooleanQuery.Builder()
+                    .add(enTitulo, BooleanClause.Occur.SHOULD)
+                    .add(enDescripcion, BooleanClause.Occur.SHOULD)
+                    .build(), BooleanClause.Occur.MUST);
+        }
+        if (terminos.isEmpty()) {
+            consulta.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        if (estado != null) {
+            consulta.add(new TermQuery(new Term(ESTADO, estado.name())), BooleanClause.Occur.FILTER);
+        }
+        if (sede != null && !sede.isBlank()) {
+            consulta.add(new TermQuery(new Term(SEDE, sede)), BooleanClause.Occur.FILTER);
+        }
+        if (idCategoria != null) {
+            consulta.add(new TermQuery(new Term(CATEGORIA, idCategoria.toString())), BooleanClause.Occur.FILTER);
+        }
+
+        int desde = pagina * tamano;
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // Con texto, orden solo por relevancia: Lucene salta bloques que no pueden entrar en el top (WAND)
+                TopDocs top = terminos.isEmpty()
+                        ? searcher.search(consulta.build(), desde + tamano, ORDEN_FECHA, false)
+                        : searcher.search(consulta.build(), desde + tamano);
+
+                List<TicketBusquedaResultadoDTO> resultados = new ArrayList<>(tamano);
+                var campos = searcher.storedFields();
+                for (int i = desde; i < top.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = top.scoreDocs[i];
+                    resultados.add(resultado(campos.document(scoreDoc.doc), terminos.isEmpty() ? Float.NaN : scoreDoc.score));
+                }
+                long total = top.totalHits.value;
+                return new TicketBusquedaPaginaDTO(resultados, pagina, total, total > desde + tamano);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al buscar en el índice de tickets", e);
+        }
+    }
+
+    public int documentos() {
+        return writer.getDocStats().numDocs;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reapertura.close();
+        searcherManager.close();
+        writer.close();
+    }
+
+    private Set<String> analizar(String texto) {
+        Set<String> terminos = new LinkedHashSet<>();
+        if (texto == null || texto.isBlank()) {
+            return terminos;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(TITULO, texto)) {
+            CharTermAttribute termino = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terminos.add(termino.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terminos;
+    }
+
+    private static TicketBusquedaResultadoDTO resultado(Document doc, float relevancia) {
+        String estado = doc.get(ESTADO);
+        String categoria = doc.get(CATEGORIA);
+        return new TicketBusquedaResultadoDTO(
+                Integer.valueOf(doc.get(ID)),
+                doc.get(TITULO),
+                estado != null ? Ticket.Estado.valueOf(estado) : null,
+                doc.get(SEDE),
+                categoria != null ? Integer.valueOf(categoria) : null,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(doc.getField(FECHA).numericValue().longValue()), ZoneOffset.UTC),
+                Float.isNaN(relevancia) ? null : relevancia);
+    }
+
+    private static String valor(String texto) {
+        return texto != null ? texto : "";
+    }
+}
@@ -0,0 +1,316 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.CategoriaTicket;
+import com.helpcore.ticket_service.entidades.Invitado;
+import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.entidades.dto.TicketInvitadoDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketLoteResultadoDTO;
+import com.helpcore.ticket_service.repositorios.CategoriaTicketRepository;
+import com.helpcore.ticket_service.repositorios.InvitadoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Alta masiva de tickets de invitado (importaciones desde correo y sistemas antiguos).
+ * - Se procesa por bloques de app.ticket.lote.tamano-bloque, cada uno en su transacción: el NDJSON
+ *   se guarda a medida que se lee, sin tener el lote entero en memoria
+ * - Misma validación que /crear-invitado (TicketService.validarTicketInvitado y la categoría),
+ *   con una sola consulta por bloque para categorías y otra para invitados
+ * - Invitados: se reutilizan por DNI y los nuevos se insertan en lote; los existentes se actualizan
+ *   por dirty checking de JPA al confirmar (UPDATE en lote con hibernate.jdbc.batch_size)
+ * - Tickets: INSERT por lotes con JDBC; con rewriteBatchedStatements Connector/J lo envía como
+ *   INSERT multi-fila y devuelve los id generados (IDENTITY impide el batching de Hibernate)
+ * Los elementos inválidos se informan en su posición y no impiden guardar el resto. Si MySQL rechaza
+ * un bloque, se reintenta elemento a elemento para que el error quede en su línea.
+ */
+@Service
+public class TicketLoteService {
+
+    private static final String SQL_INSERT_INVITADO =
+            "INSERT INTO tb_invitado (nombre, apellido, dni, email, telefono, es_activo, fecha_creacion) " +
+            "VALUES (?, ?, ?, ?, ?, true, ?)";
+
+    private static final String SQL_INSERT_TICKET =
+            "INSERT INTO tb_ticket (titulo, descripcion, estado, prioridad, codigo_alumno, sede, id_invitado, " +
+            "id_categoria, fecha_creacion, es_activo) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, true)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private InvitadoRepository invitadoRepository;
+
+    @Autowired
+    private InvitadoService invitadoService;
+
+    @Autowired
+    private CategoriaTicketRepository categoriaTicketRepository;
+
+    @Autowired
+    private TicketEstadoService ticketEstadoService;
+
+    @Autowired
+    private TicketBusquedaService ticketBusquedaService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.ticket.lote.tamano-bloque:500}")
+    private int tamanoBloque;
+
+    private TransactionTemplate transaccion;
+
+    @PostConstruct
+    public void init() {
+        transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    public int getTamanoBloque() {
+        return tamanoBloque;
+    }
+
+    // Lote ya leído (array JSON): los índices del resultado son las posiciones en el lote
+    public List<TicketLoteResultadoDTO> crearLote(List<TicketInvitadoDTO> lote) {
+        List<TicketLoteResultadoDTO> resultados = new ArrayList<>(lote.size());
+        for (int desde = 0; desde < lote.size(); desde += tamanoBloque) {
+            resultados.addAll(crearBloque(lote.subList(desde, Math.min(lote.size(), desde + tamanoBloque)), desde));
+        }
+        return resultados;
+    }
+
+    /**
+     * Guarda un bloque en su propia transacción; los índices del resultado empiezan en desde.
+     * Un error de MySQL revierte el bloque y se reintenta cada elemento por separado.
+     */
+    public List<TicketLoteResultadoDTO> crearBloque(List<TicketInvitadoDTO> bloque, int desde) {
+        try {
+            return transaccion.execute(estado -> guardar(bloque, desde));
+        } catch (DataAccessException | TransactionException e) {
+            if (bloque.size() == 1) {
+                return List.of(TicketLoteResultadoDTO.fallido(desde,
+                        "Error al guardar el ticket: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+            }
+            List<TicketLoteResultadoDTO> resultados = new ArrayList<>(bloque.size());
+            for (int k = 0; k < bloque.size(); k++) {
+                resultados.addAll(crearBloque(bloque.subList(k, k + 1), desde + k));
+            }
+            return resultados;
+        }
+    }
+
+    private List<TicketLoteResultadoDTO> guardar(List<TicketInvitadoDTO> lote, int desde) {
+        TicketLoteResultadoDTO[] resultados = new TicketLoteResultadoDTO[lote.size()];
+        LocalDateTime ahora = LocalDateTime.now();
+
+        Set<Integer> categorias = categoriaTicketRepository.findAll().stream()
+                .map(CategoriaTicket::getId)
+                .collect(Collectors.toSet());
+
+        // 1. Validación de formato de cada elemento
+        List<Integer> validos = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            TicketInvitadoDTO item = lote.get(i);
+            String error = item == null ? "Elemento vacío" : validar(item, categorias);
+            if (error != null) {
+                resultados[i] = TicketLoteResultadoDTO.fallido(desde + i, error);
+            } else {
+                validos.add(i);
+            }
+        }
+
+        // 2. Invitados existentes del lote en una sola consulta (DNI o email)
+        Set<String> dnis = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Integer i : validos) {
+            dnis.add(lote.get(i).dni().trim());
+            emails.add(lote.get(i).email().trim());
+        }
+
+        Map<String, Invitado> porDni = new HashMap<>();
+        Map<String, Invitado> porEmail = new HashMap<>();
+        if (!validos.isEmpty()) {
+            for (Invitado invitado : invitadoRepository.findByDniInOrEmailIn(dnis, emails)) {
+                porDni.put(invitado.getDni(), invitado);
+                porEmail.put(invitado.getEmail(), invitado);
+            }
+        }
+
+        // 3. Resolución del invitado de cada ticket: existente (se actualiza) o nuevo (se inserta)
+        Map<Integer, Invitado> invitadoDeItem = new HashMap<>();
+        Map<String, Invitado> nuevos = new LinkedHashMap<>();
+
+        for (Integer i : validos) {
+            TicketInvitadoDTO item = lote.get(i);
+            String dni = item.dni().trim();
+            String email = item.email().trim();
+
+            Invitado invitado = porDni.get(dni);
+            Invitado conEmail = porEmail.get(email);
+
+            if (invitado == null && conEmail != null) {
+                resultados[i] = TicketLoteResultadoDTO.fallido(desde + i, "El email ya está registrado con otro DNI");
+                continue;
+            }
+            if (invitado != null && conEmail != null && conEmail != invitado) {
+                resultados[i] = TicketLoteResultadoDTO.fallido(desde + i, "El email ya está registrado con otro DNI");
+                continue;
+            }
+
+            if (invitado == null) {
+                invitado = item.toInvitado();
+                invitado.setDni(dni);
+                invitado.setEmail(email);
+                nuevos.put(dni, invitado);
+                porDni.put(dni, invitado);
+            } else {
+                porEmail.remove(invitado.getEmail());
+                invitado.setNombre(item.nombres());
+                invitado.setApellido(item.apellidos());
+                invitado.setEmail(email);
+                invitado.setTelefono(item.telefono());
+                invitado.setActivo(true);
+            }
+            porEmail.put(email, invitado);
+            invitadoDeItem.put(i, invitado);
+        }
+
+        // Los UPDATE de invitados existentes van antes que los INSERT (un email puede pasar de uno a otro)
+        invitadoRepository.flush();
+        // Con open-in-view el EntityManager vive toda la petición: sin esto acumularía los invitados de cada bloque
+        entityManager.clear();
+        invitadoService.invalidarCache(porDni.keySet());
+        insertarInvitados(new ArrayList<>(nuevos.values()), ahora);
+
+        // 4. Tickets en un único batch
+        List<Integer> aInsertar = new ArrayList<>(invitadoDeItem.keySet());
+        aInsertar.sort(null);
+        List<Integer> idsTickets = insertarTickets(lote, aInsertar, invitadoDeItem, ahora);
+        ticketEstadoService.invalidar(idsTickets);
+
+        List<TicketIndice.Documento> documentos = new ArrayList<>(aInsertar.size());
+        for (int k = 0; k < aInsertar.size(); k++) {
+            int i = aInsertar.get(k);
+            TicketInvitadoDTO item = lote.get(i);
+            resultados[i] = TicketLoteResultadoDTO.creado(desde + i, idsTickets.get(k), invitadoDeItem.get(i).getId());
+            documentos.add(new TicketIndice.Documento(idsTickets.get(k), item.asunto(), item.comentarios(),
+                    Ticket.Estado.NUEVO, item.sede(), item.categoria(), ahora));
+        }
+        ticketBusquedaService.indexar(documentos);
+
+        return List.of(resultados);
+    }
+
+    private String validar(TicketInvitadoDTO item, Set<Integer> categorias) {
+        String error = ticketService.validarTicketInvitado(item.toTicket(), item.toInvitado());
+        if (error != null) {
+            return error;
+        }
+        // /crear-invitado también la exige (findById de la categoría); el resto lo rechaza MySQL por línea
+        if (item.categoria() == null || !categorias.contains(item.categoria())) {
+            return "Categoría no encontrada";
+        }
+        return null;
+    }
+
+    private void insertarInvitados(List<Invitado> invitados, LocalDateTime ahora) {
+        if (invitados.isEmpty()) {
+            return;
+        }
+        Timestamp fecha = Timestamp.valueOf(ahora);
+        List<Integer> ids = insertarConClaves(SQL_INSERT_INVITADO, invitados.size(), (ps, k) -> {
+            Invitado invitado = invitados.get(k);
+            ps.setString(1, invitado.getNombre());
+            ps.setString(2, invitado.getApellido());
+            ps.setString(3, invitado.getDni());
+            ps.setString(4, invitado.getEmail());
+            ps.setString(5, invitado.getTelefono());
+            ps.setTimestamp(6, fecha);
+        });
+        for (int k = 0; k < invitados.size(); k++) {
+            invitados.get(k).setId(ids.get(k));
+        }
+    }
+
+    private List<Integer> insertarTickets(List<TicketInvitadoDTO> lote, List<Integer> indices,
+                                          Map<Integer, Invitado> invitadoDeItem, LocalDateTime ahora) {
+        if (indices.isEmpty()) {
+            return List.of();
+        }
+        Timestamp fecha = Timestamp.valueOf(ahora);
+        return insertarConClaves(SQL_INSERT_TICKET, indices.size(), (ps, k) -> {
+            int i = indices.get(k);
+            TicketInvitadoDTO item = lote.get(i);
+            ps.setString(1, item.asunto());
+            ps.setString(2, item.comentarios());
+            ps.setString(3, Ticket.Estado.NUEVO.name());
+            ps.setString(4, Ticket.Prioridad.MEDIA.name());
+            ps.setString(5, item.codigoAlumno());
+            ps.setString(6, item.sede());
+            ps.setInt(7, invitadoDeItem.get(i).getId());
+            ps.setInt(8, item.categoria());
+            ps.setTimestamp(9, fecha);
+        });
+    }
+
+    // Batch de INSERT devolviendo las claves generadas en el mismo orden que las filas
+    private List<Integer> insertarConClaves(String sql, int filas, ParametrosFila parametros) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int k) throws SQLException {
+                        parametros.asignar(ps, k);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return filas;
+                    }
+                },
+                keyHolder);
+
+        List<Integer> ids = new ArrayList<>(filas);
+        for (Map<String, Object> claves : keyHolder.getKeyList()) {
+            ids.add(((Number) claves.values().iterator().next()).intValue());
+        }
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface ParametrosFila {
+        void asignar(PreparedStatement ps, int fila) throws SQLException;
+    }
+}
@@ -4,6 +4,11 @@ package com.helpcore.ticket_service.servicios;
 import com.helpcore.ticket_service.entidades.CategoriaTicket;
 import com.helpcore.ticket_service.entidades.Invitado;
 import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.entidades.TicketHistorial;
+import com.helpcore.ticket_service.entidades.dto.TicketCursor;
+import com.helpcore.ticket_service.entidades.dto.TicketFiltroDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketPaginaDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketResumenDTO;
 import com.helpcore.ticket_service.repositorios.CategoriaTicketRepository;
 import com.helpcore.ticket_service.repositorios.InvitadoRepository;
 import com.helpcore.ticket_service.repositorios.TicketRepository;
@@ -17,6 +22,8 @@ import java.util.List;
 @Service
 public class TicketService {
 
+    private static final int TAMANO_MAXIMO_PAGINA = 100;
+
     @Autowired
     private TicketRepository ticketRepository;
 
@@ -26,6 +33,21 @@ public class TicketService {
     @Autowired
     private CategoriaTicketRepository categoriaTicketRepository;
 
+    @Autowired
+    private EventoOutboxService eventoOutboxService;
+
+    @Autowired
+    private TicketEstadoService ticketEstadoService;
+
+    @Autowired
+    private TicketBusquedaService ticketBusquedaService;
+
+    @Autowired
+    private TicketHistorialService ticketHistorialService;
+
+    @Autowired
+    private AsignacionService asignacionService;
+
     public Ticket buscar(Integer id) {
         return ticketRepository.findById(id).orElse(null);
     }
@@ -34,15 +56,41 @@ public class TicketService {
         return ticketRepository.findAll();
     }
 
+    /**
+     * Página de tickets ordenada del más reciente al más antiguo.
+     * Se pide una fila extra para saber si hay más sin lanzar un COUNT.
+     */
+    public TicketPaginaDTO listarPagina(TicketFiltroDTO filtro, String cursor, int tamano) {
+        int tamanoPagina = Math.max(1, Math.min(tamano, TAMANO_MAXIMO_PAGINA));
+
+        List<TicketResumenDTO> filas = ticketRepository.listarResumen(
+                filtro, TicketCursor.decodificar(cursor), tamanoPagina + 1);
+
+        boolean hayMas = filas.size() > tamanoPagina;
+        List<TicketResumenDTO> contenido = hayMas ? filas.subList(0, tamanoPagina) : filas;
+        String siguienteCursor = hayMas ? TicketCursor.de(contenido.get(contenido.size() - 1)).codificar() : null;
+
+        return new TicketPaginaDTO(contenido, siguienteCursor, hayMas);
+    }
+
     public Ticket crear(Ticket ticket) {
         ticket.setActivo(true);
-        return ticketRepository.save(ticket);
+        Ticket nuevo = ticketRepository.save(ticket);
+        // Puede haber una entrada negativa si alguien consultó este id antes de existir
+        ticketEstadoService.invalidar(nuevo.getId());
+        ticketBusquedaService.indexar(nuevo);
+        return nuevo;
     }
 
     public Ticket actualizar(Ticket ticket) {
         Ticket ticketActual = buscar(ticket.getId());
 
         if (ticketActual != null && ticketActual.isActivo()) {
+            // Se compara antes de sobrescribir; el INSERT del historial va por lotes, fuera de la petición
+            List<TicketHistorial> cambios = TicketHistorialService.diferencias(ticketActual, ticket, LocalDateTime.now());
+            Integer agenteAnterior = ticketActual.getIdUsuarioAgente();
+            Ticket.Estado estadoAnterior = ticketActual.getEstado();
+
             ticketActual.setTitulo(ticket.getTitulo());
             ticketActual.setDescripcion(ticket.getDescripcion());
             ticketActual.setEstado(ticket.getEstado());
@@ -57,7 +105,12 @@ public class TicketService {
             ticketActual.setFechaResolucion(ticket.getFechaResolucion());
             ticketActual.setFechaCierre(ticket.getFechaCierre());
 
-            return ticketRepository.save(ticketActual);
+            Ticket actualizado = ticketRepository.save(ticketActual);
+            ticketHistorialService.registrar(cambios);
+            asignacionService.ajustarCarga(agenteAnterior, estadoAnterior, actualizado.getIdUsuarioAgente(), actualizado.getEstado());
+            ticketEstadoService.invalidar(actualizado.getId());
+            ticketBusquedaService.indexar(actualizado);
+            return actualizado;
         }
         return null;
     }
@@ -67,11 +120,44 @@ public class TicketService {
         if (ticketActual != null && ticketActual.isActivo()) {
             ticketActual.setActivo(false);
             ticketRepository.save(ticketActual);
+            asignacionService.ajustarCarga(ticketActual.getIdUsuarioAgente(), ticketActual.getEstado(), null, null);
+            ticketEstadoService.invalidar(id);
+            ticketBusquedaService.eliminar(id);
             return true;
         }
         return false;
     }
 
+    /**
+     * Validaciones comunes del formulario de invitado (individual y por lotes).
+     * Devuelve el primer error encontrado o null si los datos son válidos.
+     */
+    public String validarTicketInvitado(Ticket ticket, Invitado invitado) {
+        if (estaVacio(invitado.getNombre())) {
+            return "Los nombres son obligatorios";
+        }
+        if (estaVacio(invitado.getApellido())) {
+            return "Los apellidos son obligatorios";
+        }
+        if (estaVacio(invitado.getDni())) {
+            return "El DNI es obligatorio";
+        }
+        if (estaVacio(invitado.getEmail())) {
+            return "El email es obligatorio";
+        }
+        if (estaVacio(ticket.getTitulo())) {
+            return "El asunto es obligatorio";
+        }
+        if (estaVacio(ticket.getDescripcion())) {
+            return "Los comentarios son obligatorios";
+        }
+        return null;
+    }
+
+    private static boolean estaVacio(String valor) {
+        return valor == null || valor.trim().isEmpty();
+    }
+
     /**
      * Método para crear ticket con invitado usando las entidades directamente
      * El objeto ticket debe venir con el invitado ya configurado
@@ -79,7 +165,7 @@ public class TicketService {
     @Transactional
     public Ticket crearTicketConInvitado(Ticket ticket, Invitado invitado, Integer idCategoria) {
         try {
-            Invitado invitadoGuardado = invitadoService.crear(invitado);
+            Invitado invitadoGuardado = invitadoService.obtenerOCrear(invitado);
 
             ticket.setInvitado(invitadoGuardado);
             ticket.setIdUsuarioCliente(null);
@@ -92,7 +178,12 @@ public class TicketService {
 
             ticket.setCategoria(categoria);
 
-            return crear(ticket);
+            Ticket nuevoTicket = crear(ticket);
+
+            // La notificación sale por el outbox: misma transacción, sin esperar al SMTP
+            eventoOutboxService.registrarTicketCreado(nuevoTicket);
+
+            return nuevoTicket;
 
         } catch (Exception e) {
             throw new RuntimeException("Error al crear el ticket con invitado: " + e.getMessage(), e);
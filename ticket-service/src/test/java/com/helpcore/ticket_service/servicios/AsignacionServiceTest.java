@@ -0,0 +1,191 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.repositorios.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AsignacionServiceTest {
+
+    // Simula tb_ticket con un bloqueo por fila: SKIP LOCKED = tryLock, el commit los libera
+    private record Fila(Ticket ticket, ReentrantLock bloqueo) {
+    }
+
+    private final List<Fila> tabla = new ArrayList<>();
+    private final ThreadLocal<List<Fila>> bloqueadas = ThreadLocal.withInitial(ArrayList::new);
+
+    private AsignacionService asignacionService;
+
+    @BeforeEach
+    void setUp() {
+        TicketRepository ticketRepository = mock(TicketRepository.class);
+        when(ticketRepository.reclamarSiguiente(anyString())).thenAnswer(inv -> skipLocked(inv.getArgument(0)));
+        when(ticketRepository.contarAbiertosDeAgente(anyInt())).thenReturn(0L);
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        doAnswer(inv -> liberarBloqueos()).when(transactionManager).commit(any());
+        doAnswer(inv -> liberarBloqueos()).when(transactionManager).rollback(any());
+
+        asignacionService = new AsignacionService();
+        ReflectionTestUtils.setField(asignacionService, "ticketRepository", ticketRepository);
+        ReflectionTestUtils.setField(asignacionService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(asignacionService, "ticketHistorialService", mock(TicketHistorialService.class));
+        ReflectionTestUtils.setField(asignacionService, "ticketEstadoService", mock(TicketEstadoService.class));
+        ReflectionTestUtils.setField(asignacionService, "ticketBusquedaService", mock(TicketBusquedaService.class));
+        ReflectionTestUtils.setField(asignacionService, "maximoAbiertos", Integer.MAX_VALUE);
+        asignacionService.init();
+    }
+
+    @Test
+    void agentesConcurrentesNoReclamanElMismoTicketYRespetanLaPrioridad() throws Exception {
+        crearTickets(2000);
+        int agentes = 16;
+        Map<Integer, Integer> agentePorTicket = new ConcurrentHashMap<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(agentes);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            List<Future<List<Ticket.Prioridad>>> reclamos = new ArrayList<>();
+            for (int agente = 1; agente <= agentes; agente++) {
+                int idAgente = agente;
+                reclamos.add(pool.submit(() -> {
+                    salida.await();
+                    List<Ticket.Prioridad> prioridades = new ArrayList<>();
+                    AsignacionService.Reclamo reclamo;
+                    while ((reclamo = asignacionService.reclamarSiguiente(idAgente)).resultado()
+                            == AsignacionService.Resultado.ASIGNADO) {
+                        Integer previo = agentePorTicket.putIfAbsent(reclamo.asignacion().ticketId(), idAgente);
+                        assertNull(previo, "Ticket asignado dos veces");
+                        prioridades.add(reclamo.asignacion().prioridad());
+                    }
+                    return prioridades;
+                }));
+            }
+            salida.countDown();
+
+            for (Future<List<Ticket.Prioridad>> reclamo : reclamos) {
+                List<Ticket.Prioridad> prioridades = reclamo.get(30, TimeUnit.SECONDS);
+                // Cada agente recibe primero lo más urgente: su secuencia de prioridades nunca sube
+                for (int i = 1; i < prioridades.size(); i++) {
+                    assertTrue(prioridades.get(i).compareTo(prioridades.get(i - 1)) <= 0);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(2000, agentePorTicket.size());
+        for (Fila fila : tabla) {
+            assertEquals(Ticket.Estado.EN_ATENCION, fila.ticket().getEstado());
+            assertEquals(agentePorTicket.get(fila.ticket().getId()), fila.ticket().getIdUsuarioAgente());
+        }
+        assertEquals(2000, asignacionService.cargas().values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    void reclamosSimultaneosDelMismoAgenteNoSuperanElMaximo() throws Exception {
+        crearTickets(100);
+        ReflectionTestUtils.setField(asignacionService, "maximoAbiertos", 5);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            List<Future<AsignacionService.Resultado>> reclamos = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                reclamos.add(pool.submit(() -> {
+                    salida.await();
+                    return asignacionService.reclamarSiguiente(7).resultado();
+                }));
+            }
+            salida.countDown();
+
+            int asignados = 0;
+            for (Future<AsignacionService.Resultado> reclamo : reclamos) {
+                if (reclamo.get(10, TimeUnit.SECONDS) == AsignacionService.Resultado.ASIGNADO) {
+                    asignados++;
+                }
+            }
+            assertEquals(5, asignados);
+            assertEquals(5, asignacionService.cargas().get(7));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void resolverUnTicketLiberaCapacidadDelAgente() {
+        crearTickets(3);
+        ReflectionTestUtils.setField(asignacionService, "maximoAbiertos", 1);
+
+        AsignacionService.Reclamo primero = asignacionService.reclamarSiguiente(3);
+        assertEquals(AsignacionService.Resultado.ASIGNADO, primero.resultado());
+        assertEquals(AsignacionService.Resultado.SIN_CAPACIDAD, asignacionService.reclamarSiguiente(3).resultado());
+
+        asignacionService.ajustarCarga(3, Ticket.Estado.EN_ATENCION, 3, Ticket.Estado.RESUELTO);
+
+        assertEquals(AsignacionService.Resultado.ASIGNADO, asignacionService.reclamarSiguiente(3).resultado());
+    }
+
+    private Optional<Ticket> skipLocked(String prioridad) {
+        for (Fila fila : tabla) {
+            if (!fila.ticket().getPrioridad().name().equals(prioridad) || !fila.bloqueo().tryLock()) {
+                continue;
+            }
+            if (fila.ticket().getEstado() == Ticket.Estado.NUEVO && fila.ticket().getIdUsuarioAgente() == null) {
+                bloqueadas.get().add(fila);
+                return Optional.of(fila.ticket());
+            }
+            fila.bloqueo().unlock();
+        }
+        return Optional.empty();
+    }
+
+    private Object liberarBloqueos() {
+        bloqueadas.get().forEach(fila -> fila.bloqueo().unlock());
+        bloqueadas.get().clear();
+        return null;
+    }
+
+    // Ya en el orden de idx_ticket_cola (fecha_creacion, id_ticket)
+    private void crearTickets(int cantidad) {
+        Ticket.Prioridad[] prioridades = Ticket.Prioridad.values();
+        LocalDateTime inicio = LocalDateTime.of(2026, 10, 1, 8, 0);
+        for (int i = 1; i <= cantidad; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setId(i);
+            ticket.setTitulo("Ticket " + i);
+            ticket.setEstado(Ticket.Estado.NUEVO);
+            ticket.setPrioridad(prioridades[i % prioridades.length]);
+            ticket.setFechaCreacion(inicio.plusMinutes(i));
+            ticket.setActivo(true);
+            tabla.add(new Fila(ticket, new ReentrantLock()));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.Invitado;
+import com.helpcore.ticket_service.repositorios.InvitadoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InvitadoServiceTest {
+
+    // Simula tb_invitado con sus restricciones únicas de dni y email
+    private final Map<String, Invitado> tablaPorDni = new ConcurrentHashMap<>();
+    private final Map<String, Invitado> tablaPorEmail = new ConcurrentHashMap<>();
+    private final AtomicInteger secuencia = new AtomicInteger();
+
+    private InvitadoRepository invitadoRepository;
+    private InvitadoService invitadoService;
+
+    @BeforeEach
+    void setUp() {
+        invitadoRepository = mock(InvitadoRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        when(invitadoRepository.findByDni(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(tablaPorDni.get(inv.<String>getArgument(0))));
+        when(invitadoRepository.findByEmail(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(tablaPorEmail.get(inv.<String>getArgument(0))));
+        when(invitadoRepository.saveAndFlush(any(Invitado.class))).thenAnswer(inv -> insertar(inv.getArgument(0)));
+        when(invitadoRepository.save(any(Invitado.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        invitadoService = new InvitadoService();
+        ReflectionTestUtils.setField(invitadoService, "invitadoRepository", invitadoRepository);
+        ReflectionTestUtils.setField(invitadoService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(invitadoService, "tamanoCache", 100L);
+        ReflectionTestUtils.setField(invitadoService, "ttlCache", Duration.ofMinutes(10));
+        invitadoService.init();
+    }
+
+    @Test
+    void dosPeticionesSimultaneasDelMismoInvitadoObtienenElMismoRegistro() throws Exception {
+        // Ambas peticiones pasan la lectura sin encontrar el DNI y llegan juntas al INSERT
+        CyclicBarrier barrera = new CyclicBarrier(2);
+        when(invitadoRepository.saveAndFlush(any(Invitado.class))).thenAnswer(inv -> {
+            barrera.await(5, TimeUnit.SECONDS);
+            return insertar(inv.getArgument(0));
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Invitado> primera = pool.submit(() -> invitadoService.obtenerOCrear(invitado("12345678", "ana@mail.com")));
+            Future<Invitado> segunda = pool.submit(() -> invitadoService.obtenerOCrear(invitado("12345678", "ana@mail.com")));
+
+            Invitado a = primera.get(10, TimeUnit.SECONDS);
+            Invitado b = segunda.get(10, TimeUnit.SECONDS);
+
+            assertEquals(a.getId(), b.getId());
+            assertEquals(1, tablaPorDni.size());
+            verify(invitadoRepository, times(2)).saveAndFlush(any(Invitado.class));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void invitadoRecurrenteSeResuelveSinInsertar() {
+        Invitado primero = invitadoService.obtenerOCrear(invitado("87654321", "luis@mail.com"));
+        Invitado segundo = invitadoService.obtenerOCrear(invitado("87654321", "luis@mail.com"));
+
+        assertSame(primero, segundo);
+        verify(invitadoRepository, times(1)).saveAndFlush(any(Invitado.class));
+        // El segundo sale de la caché: solo hubo la lectura previa al primer INSERT
+        verify(invitadoRepository, times(1)).findByDni("87654321");
+    }
+
+    @Test
+    void emailDeOtroDniSeRechaza() {
+        invitadoService.obtenerOCrear(invitado("11111111", "compartido@mail.com"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> invitadoService.obtenerOCrear(invitado("22222222", "compartido@mail.com")));
+        verify(invitadoRepository, times(1)).saveAndFlush(any(Invitado.class));
+    }
+
+    @Test
+    void invitadoRecurrenteConOtroContactoSeActualiza() {
+        invitadoService.obtenerOCrear(invitado("33333333", "vieja@mail.com"));
+
+        Invitado nuevo = invitado("33333333", "nueva@mail.com");
+        nuevo.setTelefono("999888777");
+        Invitado actualizado = invitadoService.obtenerOCrear(nuevo);
+
+        assertEquals("nueva@mail.com", actualizado.getEmail());
+        assertEquals("999888777", actualizado.getTelefono());
+        verify(invitadoRepository, times(1)).save(any(Invitado.class));
+
+        // Sin teléfono en la petición se conserva el guardado, y ya no hay nada que actualizar
+        Invitado repetido = invitadoService.obtenerOCrear(invitado("33333333", "nueva@mail.com"));
+        assertEquals("999888777", repetido.getTelefono());
+        verify(invitadoRepository, times(1)).save(any(Invitado.class));
+    }
+
+    @Test
+    void invitadoRecurrenteNoPuedeTomarElEmailDeOtro() {
+        invitadoService.obtenerOCrear(invitado("44444444", "ocupado@mail.com"));
+        invitadoService.obtenerOCrear(invitado("55555555", "propio@mail.com"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> invitadoService.obtenerOCrear(invitado("55555555", "ocupado@mail.com")));
+    }
+
+    @Test
+    void siLaTransaccionDelTicketSeRevierteLaCacheNoGuardaElContactoNuevo() {
+        invitadoService.obtenerOCrear(invitado("66666666", "vieja@mail.com"));
+        // Como JPA: cada lectura trae la fila de MySQL, que la transacción revertida no llegó a cambiar
+        when(invitadoRepository.findByDni("66666666")).thenAnswer(inv -> Optional.of(copia(tablaPorDni.get("66666666"))));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            invitadoService.obtenerOCrear(invitado("66666666", "nueva@mail.com"));
+            // Por ejemplo "Categoría no encontrada" después de resolver el invitado
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        Invitado reintento = invitadoService.obtenerOCrear(invitado("66666666", "nueva@mail.com"));
+
+        assertEquals("nueva@mail.com", reintento.getEmail());
+        verify(invitadoRepository, times(2)).save(any(Invitado.class));
+    }
+
+    private Invitado insertar(Invitado invitado) {
+        if (tablaPorEmail.containsKey(invitado.getEmail())) {
+            throw new DataIntegrityViolationException("Duplicate entry for key 'email'");
+        }
+        if (tablaPorDni.putIfAbsent(invitado.getDni(), invitado) != null) {
+            throw new DataIntegrityViolationException("Duplicate entry for key 'dni'");
+        }
+        tablaPorEmail.put(invitado.getEmail(), invitado);
+        invitado.setId(secuencia.incrementAndGet());
+        return invitado;
+    }
+
+    private static Invitado copia(Invitado fila) {
+        Invitado invitado = invitado(fila.getDni(), fila.getEmail());
+        invitado.setId(fila.getId());
+        invitado.setTelefono(fila.getTelefono());
+        invitado.setActivo(fila.isActivo());
+        return invitado;
+    }
+
+    private static Invitado invitado(String dni, String email) {
+        Invitado invitado = new Invitado();
+        invitado.setNombre("Nombre");
+        invitado.setApellido("Apellido");
+        invitado.setDni(dni);
+        invitado.setEmail(email);
+        return invitado;
+    }
+}
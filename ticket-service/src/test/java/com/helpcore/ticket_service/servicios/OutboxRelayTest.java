@@ -0,0 +1,113 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.EventoOutbox;
+import com.helpcore.ticket_service.repositorios.EventoOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final AtomicInteger transaccionesAbiertas = new AtomicInteger();
+    private final List<Integer> transaccionesDuranteEnvio = new ArrayList<>();
+    private final List<EventoOutbox.Estado> estadosGuardados = new ArrayList<>();
+
+    private EventoOutboxRepository eventoOutboxRepository;
+    private RestTemplate restTemplate;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        eventoOutboxRepository = mock(EventoOutboxRepository.class);
+        restTemplate = mock(RestTemplate.class);
+        when(eventoOutboxRepository.save(any(EventoOutbox.class))).thenAnswer(inv -> {
+            EventoOutbox evento = inv.getArgument(0);
+            estadosGuardados.add(evento.getEstado());
+            return evento;
+        });
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> {
+            transaccionesAbiertas.incrementAndGet();
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(inv -> transaccionesAbiertas.decrementAndGet()).when(transactionManager).commit(any());
+        doAnswer(inv -> transaccionesAbiertas.decrementAndGet()).when(transactionManager).rollback(any());
+
+        outboxRelay = new OutboxRelay();
+        ReflectionTestUtils.setField(outboxRelay, "eventoOutboxRepository", eventoOutboxRepository);
+        ReflectionTestUtils.setField(outboxRelay, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(outboxRelay, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(outboxRelay, "tamanoLote", 50);
+        ReflectionTestUtils.setField(outboxRelay, "maxIntentos", 10);
+        ReflectionTestUtils.setField(outboxRelay, "backoffInicial", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(outboxRelay, "backoffMaximo", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(outboxRelay, "tiempoEnCurso", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(outboxRelay, "urlTicketCreado", "http://notification-service/notifications/ticket-creado");
+        outboxRelay.init();
+    }
+
+    @Test
+    void elEnvioNoOcurreDentroDeLaTransaccionQueReclama() {
+        EventoOutbox evento = evento(1L);
+        when(eventoOutboxRepository.reclamarPendientes(any(LocalDateTime.class), anyInt())).thenReturn(List.of(evento));
+        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(String.class))).thenAnswer(inv -> {
+            transaccionesDuranteEnvio.add(transaccionesAbiertas.get());
+            assertEquals(EventoOutbox.Estado.EN_CURSO, evento.getEstado());
+            return ResponseEntity.accepted().body("ok");
+        });
+
+        outboxRelay.publicarPendientes();
+
+        assertEquals(List.of(0), transaccionesDuranteEnvio);
+        assertEquals(List.of(EventoOutbox.Estado.ENVIADO), estadosGuardados);
+    }
+
+    @Test
+    void unEnvioFallidoVuelveAPendienteConBackoff() {
+        EventoOutbox evento = evento(2L);
+        when(eventoOutboxRepository.reclamarPendientes(any(LocalDateTime.class), anyInt())).thenReturn(List.of(evento));
+        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(String.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        outboxRelay.publicarPendientes();
+
+        assertEquals(List.of(EventoOutbox.Estado.PENDIENTE), estadosGuardados);
+        assertEquals(1, evento.getIntentos());
+        assertTrue(evento.getProximoIntento().isAfter(LocalDateTime.now()));
+    }
+
+    private static EventoOutbox evento(Long id) {
+        return EventoOutbox.builder()
+                .id(id)
+                .tipo(EventoOutbox.Tipo.TICKET_CREADO.name())
+                .idAgregado(10)
+                .idempotencyKey("clave-" + id)
+                .payload("{}")
+                .estado(EventoOutbox.Estado.PENDIENTE)
+                .proximoIntento(LocalDateTime.now())
+                .build();
+    }
+}
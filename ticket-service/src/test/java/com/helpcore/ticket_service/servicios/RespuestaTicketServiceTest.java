@@ -0,0 +1,119 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.RespuestaTicket;
+import com.helpcore.ticket_service.entidades.dto.RespuestaCursor;
+import com.helpcore.ticket_service.entidades.dto.RespuestaPaginaDTO;
+import com.helpcore.ticket_service.entidades.dto.RespuestaResumenDTO;
+import com.helpcore.ticket_service.repositorios.RespuestaTicketRepository;
+import com.helpcore.ticket_service.repositorios.TicketConversacionRepository;
+import com.helpcore.ticket_service.repositorios.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RespuestaTicketServiceTest {
+
+    private RespuestaTicketRepository respuestaTicketRepository;
+    private TicketConversacionRepository ticketConversacionRepository;
+    private TicketRepository ticketRepository;
+    private RespuestaTicketService respuestaTicketService;
+
+    @BeforeEach
+    void setUp() {
+        respuestaTicketRepository = mock(RespuestaTicketRepository.class);
+        ticketConversacionRepository = mock(TicketConversacionRepository.class);
+        ticketRepository = mock(TicketRepository.class);
+
+        respuestaTicketService = new RespuestaTicketService();
+        ReflectionTestUtils.setField(respuestaTicketService, "respuestaTicketRepository", respuestaTicketRepository);
+        ReflectionTestUtils.setField(respuestaTicketService, "ticketConversacionRepository", ticketConversacionRepository);
+        ReflectionTestUtils.setField(respuestaTicketService, "ticketRepository", ticketRepository);
+        ReflectionTestUtils.setField(respuestaTicketService, "maximoCaracteres", 20000);
+    }
+
+    @Test
+    void elResumenColapsaEspaciosYCortaElTexto() {
+        assertEquals("Hola, no funciona", RespuestaTicket.resumir("  Hola,\n\n  no   funciona \n"));
+
+        String resumen = RespuestaTicket.resumir("x".repeat(5000));
+        assertEquals(RespuestaTicket.LONGITUD_RESUMEN + 1, resumen.length());
+        assertTrue(resumen.endsWith("…"));
+    }
+
+    @Test
+    void laPaginaSiguienteEmpiezaDespuesDelUltimoIdDevuelto() {
+        when(respuestaTicketRepository.listarResumen(eq(10), eq(0L), any(Limit.class))).thenReturn(filas(1, 4));
+        when(respuestaTicketRepository.listarResumen(eq(10), eq(3L), any(Limit.class))).thenReturn(filas(4, 5));
+
+        RespuestaPaginaDTO primera = respuestaTicketService.listar(10, null, 3);
+        assertEquals(3, primera.contenido().size());
+        assertTrue(primera.hayMas());
+        assertEquals(3L, RespuestaCursor.decodificar(primera.siguienteCursor()).id());
+
+        RespuestaPaginaDTO segunda = respuestaTicketService.listar(10, primera.siguienteCursor(), 3);
+        assertEquals(List.of(4L, 5L), segunda.contenido().stream().map(RespuestaResumenDTO::id).toList());
+        assertFalse(segunda.hayMas());
+        assertNull(segunda.siguienteCursor());
+    }
+
+    @Test
+    void unaRespuestaDelClienteSumaEnLasNoLeidasDelAgente() {
+        when(ticketRepository.existsByIdAndActivoTrue(10)).thenReturn(true);
+        when(respuestaTicketRepository.save(any(RespuestaTicket.class))).thenAnswer(inv -> {
+            RespuestaTicket respuesta = inv.getArgument(0);
+            respuesta.prePersist();
+            respuesta.setId(77L);
+            return respuesta;
+        });
+
+        respuestaTicketService.responder(10, RespuestaTicket.TipoAutor.CLIENTE, 5, "ana", "Sigue sin funcionar");
+
+        verify(ticketConversacionRepository).sumarRespuesta(eq(10), eq(77L), any(LocalDateTime.class), eq(1), eq(0));
+    }
+
+    @Test
+    void marcarLeidoHastaElUltimoMensajeNoCuentaFilas() {
+        when(ticketConversacionRepository.bloquearUltimaRespuesta(10)).thenReturn(Optional.of(40L));
+
+        respuestaTicketService.marcarLeidas(10, RespuestaTicket.TipoAutor.AGENTE, 40L);
+
+        verify(ticketConversacionRepository).fijarNoLeidasAgente(10, 0);
+        verify(respuestaTicketRepository, never()).contarPosteriores(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void losMensajesLlegadosDespuesDeLoLeidoSiguenSinLeer() {
+        when(ticketConversacionRepository.bloquearUltimaRespuesta(10)).thenReturn(Optional.of(42L));
+        when(respuestaTicketRepository.contarPosteriores(10, 40L, RespuestaTicket.TipoAutor.AGENTE)).thenReturn(2L);
+
+        respuestaTicketService.marcarLeidas(10, RespuestaTicket.TipoAutor.CLIENTE, 40L);
+
+        verify(ticketConversacionRepository).fijarNoLeidasCliente(10, 2);
+    }
+
+    private static List<RespuestaResumenDTO> filas(long desde, long hasta) {
+        return LongStream.rangeClosed(desde, hasta)
+                .mapToObj(id -> new RespuestaResumenDTO(id, RespuestaTicket.TipoAutor.CLIENTE, 5, "ana",
+                        "mensaje " + id, 9, LocalDateTime.of(2026, 10, 18, 12, 0)))
+                .toList();
+    }
+}
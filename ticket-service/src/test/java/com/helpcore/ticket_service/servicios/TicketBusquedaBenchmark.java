@@ -0,0 +1,164 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.entidades.dto.TicketBusquedaPaginaDTO;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda sobre 1M de tickets sintéticos (vocabulario de soporte en español, filtros de estado/sede/categoría).
+ * El vocabulario es pequeño (~60 palabras), así que cada término aparece en decenas de miles de tickets:
+ * es el caso desfavorable para el índice.
+ * escaneoContains recorre todas las descripciones en memoria: es la cota inferior de un LIKE '%x%'
+ * sobre tb_ticket, que además leería las filas de disco.
+ * El setup imprime el tiempo de indexación en paralelo (lo que tarda la reconstrucción al arrancar, sin la BD).
+ * Ejecutar con el main de esta clase o: java -cp target/test-classes:... org.openjdk.jmh.Main TicketBusquedaBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TicketBusquedaBenchmark {
+
+    private static final String[] PALABRAS = {
+            "impresora", "impresoras", "red", "internet", "conexión", "wifi", "contraseña", "correo", "aula", "virtual",
+            "sesión", "error", "pantalla", "monitor", "teclado", "ratón", "servidor", "lento", "bloqueado", "acceso",
+            "matrícula", "nota", "certificado", "pago", "laboratorio", "proyector", "audio", "micrófono", "cámara",
+            "licencia", "instalación", "actualización", "virus", "antivirus", "archivo", "carpeta", "permiso", "usuario",
+            "credenciales", "biblioteca", "sistema", "aplicación", "móvil", "portal", "horario", "curso", "docente",
+            "examen", "plataforma", "vpn", "disco", "memoria", "batería", "cargador", "cable", "enchufe", "fallo"};
+    private static final String[] RELLENO = {"el", "la", "no", "de", "en", "mi", "desde", "ayer", "cuando", "con", "muy", "y"};
+    private static final String[] SEDES = {"Lima", "Arequipa", "Trujillo", "Chiclayo", "Piura", "Cusco"};
+    private static final Ticket.Estado[] ESTADOS = Ticket.Estado.values();
+
+    @Param("1000000")
+    public int tickets;
+
+    private TicketIndice indice;
+    private String[] descripciones;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        indice = new TicketIndice(new ByteBuffersDirectory(), 256);
+        descripciones = new String[tickets];
+
+        int hilos = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        long inicio = System.nanoTime();
+        List<Future<?>> bloques = new ArrayList<>();
+        int tamanoBloque = 10_000;
+        for (int desde = 0; desde < tickets; desde += tamanoBloque) {
+            int inicioBloque = desde;
+            int finBloque = Math.min(desde + tamanoBloque, tickets);
+            bloques.add(pool.submit(() -> indexarBloque(inicioBloque, finBloque)));
+        }
+        for (Future<?> bloque : bloques) {
+            bloque.get();
+        }
+        indice.refrescar();
+        pool.shutdown();
+        System.out.printf(Locale.ROOT, "%nIndexados %d tickets en %d ms con %d hilos%n",
+                indice.documentos(), (System.nanoTime() - inicio) / 1_000_000, hilos);
+    }
+
+    private void indexarBloque(int desde, int hasta) {
+        SplittableRandom random = new SplittableRandom(desde);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = desde; i < hasta; i++) {
+            String titulo = frase(random, 4);
+            String descripcion = frase(random, 18);
+            descripciones[i] = descripcion;
+            indice.indexar(new TicketIndice.Documento(i + 1, titulo, descripcion,
+                    ESTADOS[random.nextInt(ESTADOS.length)], SEDES[random.nextInt(SEDES.length)],
+                    1 + random.nextInt(10), base.plusMinutes(i)));
+        }
+    }
+
+    private static String frase(SplittableRandom random, int palabras) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < palabras; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            // Distribución sesgada: unas pocas palabras muy frecuentes y una cola larga
+            int posicion = (int) (PALABRAS.length * Math.pow(random.nextDouble(), 2));
+            sb.append(i % 3 == 1 ? RELLENO[random.nextInt(RELLENO.length)] : PALABRAS[posicion]);
+        }
+        return sb.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        indice.close();
+    }
+
+    @Benchmark
+    public TicketBusquedaPaginaDTO unTerminoFrecuente() {
+        return indice.buscar("impresora", null, null, null, 0, 20);
+    }
+
+    @Benchmark
+    public TicketBusquedaPaginaDTO dosTerminosPocoFrecuentes() {
+        return indice.buscar("cargador enchufe", null, null, null, 0, 20);
+    }
+
+    @Benchmark
+    public TicketBusquedaPaginaDTO terminosConFiltros() {
+        return indice.buscar("contraseña correo bloqueado", Ticket.Estado.NUEVO, "Lima", 3, 0, 20);
+    }
+
+    @Benchmark
+    public TicketBusquedaPaginaDTO quintaPagina() {
+        return indice.buscar("error sesión", null, null, null, 4, 20);
+    }
+
+    @Benchmark
+    public TicketBusquedaPaginaDTO soloFiltros() {
+        return indice.buscar(null, Ticket.Estado.EN_ATENCION, "Cusco", null, 0, 20);
+    }
+
+    @Benchmark
+    public int escaneoContains() {
+        int coincidencias = 0;
+        for (String descripcion : descripciones) {
+            if (descripcion.contains("cargador") && descripcion.contains("enchufe")) {
+                coincidencias++;
+            }
+        }
+        return coincidencias;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TicketBusquedaBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
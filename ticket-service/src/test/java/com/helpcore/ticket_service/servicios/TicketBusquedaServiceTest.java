@@ -0,0 +1,80 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.dto.TicketBusquedaEstadoDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TicketBusquedaServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TicketBusquedaService ticketBusquedaService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        ticketBusquedaService = new TicketBusquedaService();
+        ReflectionTestUtils.setField(ticketBusquedaService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(ticketBusquedaService, "directorio", "");
+        ReflectionTestUtils.setField(ticketBusquedaService, "ramBufferMb", 16.0);
+        ReflectionTestUtils.setField(ticketBusquedaService, "hilosReconstruccion", 1);
+        ReflectionTestUtils.setField(ticketBusquedaService, "tamanoBloque", 100);
+        ReflectionTestUtils.setField(ticketBusquedaService, "reintentoInicial", Duration.ofMillis(1));
+        ReflectionTestUtils.setField(ticketBusquedaService, "reintentoMaximo", Duration.ofMillis(4));
+        ticketBusquedaService.init();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ticketBusquedaService.cerrar();
+    }
+
+    @Test
+    void unaReconstruccionFallidaSeReintentaHastaQueTerminaBien() {
+        Map<String, Object> sinTickets = new HashMap<>();
+        sinTickets.put("minimo", null);
+        sinTickets.put("maximo", null);
+        when(jdbcTemplate.queryForMap(anyString()))
+                .thenThrow(new DataAccessResourceFailureException("Communications link failure"))
+                .thenThrow(new DataAccessResourceFailureException("Communications link failure"))
+                .thenReturn(sinTickets);
+
+        ticketBusquedaService.reconstruirConReintentos();
+
+        verify(jdbcTemplate, times(3)).queryForMap(anyString());
+        TicketBusquedaEstadoDTO estado = ticketBusquedaService.estado();
+        assertTrue(estado.listo());
+        assertEquals(0, estado.intentosFallidos());
+        assertNull(estado.ultimoError());
+    }
+
+    @Test
+    void elFalloQuedaVisibleEnElEstado() {
+        when(jdbcTemplate.queryForMap(anyString()))
+                .thenThrow(new DataAccessResourceFailureException("Communications link failure"));
+
+        assertFalse(ticketBusquedaService.reconstruir());
+
+        TicketBusquedaEstadoDTO estado = ticketBusquedaService.estado();
+        assertFalse(estado.listo());
+        assertEquals(1, estado.intentosFallidos());
+        assertEquals("Communications link failure", estado.ultimoError());
+    }
+}
@@ -0,0 +1,75 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.entidades.dto.TicketEstadoDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketEstadoFila;
+import com.helpcore.ticket_service.repositorios.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TicketEstadoServiceTest {
+
+    private TicketRepository ticketRepository;
+    private TicketEstadoService ticketEstadoService;
+
+    @BeforeEach
+    void setUp() {
+        ticketRepository = mock(TicketRepository.class);
+        when(ticketRepository.consultarEstado(7)).thenReturn(Optional.of(fila(Ticket.Estado.NUEVO)));
+        when(ticketRepository.consultarEstado(999)).thenReturn(Optional.empty());
+
+        ticketEstadoService = new TicketEstadoService();
+        ReflectionTestUtils.setField(ticketEstadoService, "ticketRepository", ticketRepository);
+        ReflectionTestUtils.setField(ticketEstadoService, "tamanoCache", 100L);
+        ReflectionTestUtils.setField(ticketEstadoService, "ttl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(ticketEstadoService, "ttlNegativo", Duration.ofMinutes(5));
+        ticketEstadoService.init();
+    }
+
+    @Test
+    void emailCorrectoDevuelveElEstadoYLasSiguientesConsultasNoVanALaBd() {
+        Optional<TicketEstadoDTO> estado = ticketEstadoService.consultar(7, " Ana@Mail.com ");
+
+        assertEquals(Ticket.Estado.NUEVO, estado.orElseThrow().estado());
+        assertTrue(ticketEstadoService.consultar(7, "otro@mail.com").isEmpty());
+        assertTrue(ticketEstadoService.consultar(7, "ana@mail.com").isPresent());
+        verify(ticketRepository, times(1)).consultarEstado(7);
+    }
+
+    @Test
+    void idInexistenteQuedaEnCacheNegativaParaCualquierEmail() {
+        assertTrue(ticketEstadoService.consultar(999, "a@mail.com").isEmpty());
+        assertTrue(ticketEstadoService.consultar(999, "b@mail.com").isEmpty());
+        assertTrue(ticketEstadoService.consultar(999, "c@mail.com").isEmpty());
+
+        verify(ticketRepository, times(1)).consultarEstado(999);
+    }
+
+    @Test
+    void invalidarReleeElEstadoActualizado() {
+        ticketEstadoService.consultar(7, "ana@mail.com");
+        when(ticketRepository.consultarEstado(7)).thenReturn(Optional.of(fila(Ticket.Estado.EN_ATENCION)));
+
+        ticketEstadoService.invalidar(7);
+
+        assertEquals(Ticket.Estado.EN_ATENCION, ticketEstadoService.consultar(7, "ana@mail.com").orElseThrow().estado());
+        verify(ticketRepository, times(2)).consultarEstado(7);
+    }
+
+    private static TicketEstadoFila fila(Ticket.Estado estado) {
+        return new TicketEstadoFila(7, "ana@mail.com", estado, Ticket.Prioridad.MEDIA,
+                LocalDateTime.of(2025, 3, 1, 10, 0), null, null, null);
+    }
+}
@@ -0,0 +1,161 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.entidades.TicketHistorial;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TicketHistorialServiceTest {
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private TicketHistorialService ticketHistorialService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        ticketHistorialService = new TicketHistorialService();
+        ReflectionTestUtils.setField(ticketHistorialService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(ticketHistorialService, "tamanoLote", 500);
+        ReflectionTestUtils.setField(ticketHistorialService, "capacidadBuffer", 1000);
+        ReflectionTestUtils.setField(ticketHistorialService, "maxIntentos", 3);
+        ticketHistorialService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void soloSeRegistranLosCamposQueCambian() {
+        Ticket actual = ticket(Ticket.Estado.NUEVO, null);
+        Ticket nuevo = ticket(Ticket.Estado.EN_ATENCION, 7);
+        nuevo.setTitulo("Otro título");
+
+        List<TicketHistorial> cambios = TicketHistorialService.diferencias(actual, nuevo, AHORA);
+
+        assertEquals(2, cambios.size());
+        assertEquals(TicketHistorial.Campo.ESTADO, cambios.get(0).getCampo());
+        assertEquals("NUEVO", cambios.get(0).getValorAnterior());
+        assertEquals("EN_ATENCION", cambios.get(0).getValorNuevo());
+        assertEquals(TicketHistorial.Campo.AGENTE, cambios.get(1).getCampo());
+        assertNull(cambios.get(1).getValorAnterior());
+        assertEquals("7", cambios.get(1).getValorNuevo());
+    }
+
+    @Test
+    void variasActualizacionesSeEscribenEnUnSoloInsert() {
+        for (int i = 0; i < 3; i++) {
+            ticketHistorialService.registrar(TicketHistorialService.diferencias(
+                    ticket(Ticket.Estado.NUEVO, null), ticket(Ticket.Estado.RESUELTO, 3), AHORA));
+        }
+
+        ticketHistorialService.vaciar();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(1)).update(sql.capture(), any(PreparedStatementSetter.class));
+        assertEquals(6, sql.getValue().split("\\(\\?,\\?,\\?,\\?,\\?\\)", -1).length - 1);
+    }
+
+    @Test
+    void dentroDeUnaTransaccionSeEncolaTrasElCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        ticketHistorialService.registrar(TicketHistorialService.diferencias(
+                ticket(Ticket.Estado.NUEVO, null), ticket(Ticket.Estado.CERRADO, null), AHORA));
+
+        ticketHistorialService.vaciar();
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        ticketHistorialService.vaciar();
+        verify(jdbcTemplate, times(1)).update(anyString(), any(PreparedStatementSetter.class));
+    }
+
+    @Test
+    void unLoteFallidoSeReintentaEnLaSiguientePasada() {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("MySQL caído"))
+                .thenReturn(1);
+        ticketHistorialService.registrar(TicketHistorialService.diferencias(
+                ticket(Ticket.Estado.NUEVO, null), ticket(Ticket.Estado.RESUELTO, null), AHORA));
+
+        ticketHistorialService.vaciar();
+        ticketHistorialService.vaciar();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).update(sql.capture(), any(PreparedStatementSetter.class));
+        assertEquals(sql.getAllValues().get(0), sql.getAllValues().get(1));
+    }
+
+    @Test
+    void trasMaxIntentosLaFilaRechazadaSeDescartaYElRestoSeEscribe() throws Exception {
+        // MySQL rechaza cualquier INSERT que lleve el agente 999 (p. ej. un valor fuera de rango)
+        List<Integer> filasEscritas = new ArrayList<>();
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(inv -> {
+            List<Integer> idsTicket = new ArrayList<>();
+            List<String> valores = new ArrayList<>();
+            PreparedStatement ps = mock(PreparedStatement.class);
+            doAnswer(set -> idsTicket.add(set.getArgument(1))).when(ps).setInt(anyInt(), anyInt());
+            doAnswer(set -> valores.add(set.getArgument(1))).when(ps).setString(anyInt(), any());
+            inv.<PreparedStatementSetter>getArgument(1).setValues(ps);
+            if (valores.contains("999")) {
+                throw new DataIntegrityViolationException("Out of range value for column 'valor_nuevo'");
+            }
+            filasEscritas.addAll(idsTicket);
+            return idsTicket.size();
+        });
+        ticketHistorialService.registrar(TicketHistorialService.diferencias(
+                ticket(Ticket.Estado.NUEVO, null), ticket(Ticket.Estado.NUEVO, 999), AHORA));
+        ticketHistorialService.registrar(TicketHistorialService.diferencias(
+                ticket(Ticket.Estado.NUEVO, null), ticket(Ticket.Estado.RESUELTO, null), AHORA));
+
+        for (int i = 0; i < 3; i++) {
+            ticketHistorialService.vaciar();
+        }
+        ticketHistorialService.vaciar();
+
+        // 3 intentos del lote + 2 INSERT de una fila; la pasada siguiente ya no reintenta nada
+        verify(jdbcTemplate, times(5)).update(anyString(), any(PreparedStatementSetter.class));
+        assertEquals(List.of(10), filasEscritas);
+    }
+
+    private static Ticket ticket(Ticket.Estado estado, Integer idAgente) {
+        Ticket ticket = new Ticket();
+        ticket.setId(10);
+        ticket.setTitulo("No enciende la impresora");
+        ticket.setEstado(estado);
+        ticket.setPrioridad(Ticket.Prioridad.MEDIA);
+        ticket.setIdUsuarioAgente(idAgente);
+        return ticket;
+    }
+}
@@ -0,0 +1,83 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.Ticket;
+import com.helpcore.ticket_service.entidades.dto.TicketBusquedaPaginaDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketBusquedaResultadoDTO;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketIndiceTest {
+
+    private TicketIndice indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new TicketIndice(new ByteBuffersDirectory(), 16);
+        indice.indexar(doc(1, "La impresora no imprime", "Sale una hoja en blanco", Ticket.Estado.NUEVO, "Lima", 5));
+        indice.indexar(doc(2, "Sin acceso al aula virtual", "Error al iniciar sesión desde la impresora compartida", Ticket.Estado.NUEVO, "Arequipa", 4));
+        indice.indexar(doc(3, "Cambio de contraseña", "No recuerdo mi contraseña del correo", Ticket.Estado.RESUELTO, "Lima", 4));
+        indice.refrescar();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        indice.close();
+    }
+
+    @Test
+    void pluralesTildesYMayusculasEncuentranElMismoTermino() {
+        assertEquals(List.of(1, 2), ids(indice.buscar("IMPRESORAS", null, null, null, 0, 10)));
+        assertEquals(List.of(2), ids(indice.buscar("sesion", null, null, null, 0, 10)));
+    }
+
+    @Test
+    void elTituloPuntuaMasQueLaDescripcionYTodosLosTerminosSonObligatorios() {
+        TicketBusquedaPaginaDTO pagina = indice.buscar("impresora", null, null, null, 0, 10);
+        assertEquals(1, pagina.resultados().get(0).id());
+
+        assertEquals(List.of(2), ids(indice.buscar("impresora sesión", null, null, null, 0, 10)));
+    }
+
+    @Test
+    void filtrosYPaginacion() {
+        assertEquals(List.of(1), ids(indice.buscar("impresora", null, "Lima", null, 0, 10)));
+        assertEquals(List.of(3), ids(indice.buscar(null, Ticket.Estado.RESUELTO, null, 4, 0, 10)));
+
+        TicketBusquedaPaginaDTO primera = indice.buscar(null, null, null, null, 0, 2);
+        assertEquals(List.of(3, 2), ids(primera));
+        assertTrue(primera.hayMas());
+        TicketBusquedaPaginaDTO segunda = indice.buscar(null, null, null, null, 1, 2);
+        assertEquals(List.of(1), ids(segunda));
+        assertFalse(segunda.hayMas());
+    }
+
+    @Test
+    void reindexarReemplazaYEliminarQuita() {
+        indice.indexar(doc(1, "Monitor sin señal", "Pantalla negra", Ticket.Estado.EN_ATENCION, "Lima", 5));
+        indice.eliminar(3);
+        indice.refrescar();
+
+        assertEquals(List.of(2), ids(indice.buscar("impresora", null, null, null, 0, 10)));
+        assertEquals(List.of(1), ids(indice.buscar("monitor", Ticket.Estado.EN_ATENCION, null, null, 0, 10)));
+        assertEquals(2, indice.documentos());
+    }
+
+    private static List<Integer> ids(TicketBusquedaPaginaDTO pagina) {
+        return pagina.resultados().stream().map(TicketBusquedaResultadoDTO::id).toList();
+    }
+
+    private static TicketIndice.Documento doc(int id, String titulo, String descripcion, Ticket.Estado estado,
+                                              String sede, int categoria) {
+        return new TicketIndice.Documento(id, titulo, descripcion, estado, sede, categoria,
+                LocalDateTime.of(2025, 3, 1, 10, 0).plusHours(id));
+    }
+}
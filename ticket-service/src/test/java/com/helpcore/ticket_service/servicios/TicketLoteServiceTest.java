@@ -0,0 +1,115 @@
+package com.helpcore.ticket_service.servicios;
+
+import com.helpcore.ticket_service.entidades.CategoriaTicket;
+import com.helpcore.ticket_service.entidades.dto.TicketInvitadoDTO;
+import com.helpcore.ticket_service.entidades.dto.TicketLoteResultadoDTO;
+import com.helpcore.ticket_service.repositorios.CategoriaTicketRepository;
+import com.helpcore.ticket_service.repositorios.InvitadoRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TicketLoteServiceTest {
+
+    private static final String DNI_RECHAZADO = "99999999";
+
+    private final AtomicInteger secuencia = new AtomicInteger();
+    private TicketLoteService ticketLoteService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CategoriaTicketRepository categoriaTicketRepository = mock(CategoriaTicketRepository.class);
+        CategoriaTicket categoria = new CategoriaTicket();
+        categoria.setId(1);
+        when(categoriaTicketRepository.findAll()).thenReturn(List.of(categoria));
+
+        // MySQL simulado: el batch entero falla si alguna fila trae el DNI rechazado
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(GeneratedKeyHolder.class))).thenAnswer(inv -> {
+            BatchPreparedStatementSetter filas = inv.getArgument(1);
+            GeneratedKeyHolder claves = inv.getArgument(2);
+            List<String> valores = new ArrayList<>();
+            PreparedStatement ps = mock(PreparedStatement.class);
+            doAnswer(set -> valores.add(set.getArgument(1))).when(ps).setString(anyInt(), anyString());
+            for (int k = 0; k < filas.getBatchSize(); k++) {
+                filas.setValues(ps, k);
+                claves.getKeyList().add(Map.of("GENERATED_KEY", secuencia.incrementAndGet()));
+            }
+            if (valores.contains(DNI_RECHAZADO)) {
+                throw new DataIntegrityViolationException("Data too long for column 'dni'");
+            }
+            return new int[filas.getBatchSize()];
+        });
+
+        ticketLoteService = new TicketLoteService();
+        ReflectionTestUtils.setField(ticketLoteService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(ticketLoteService, "ticketService", new TicketService());
+        ReflectionTestUtils.setField(ticketLoteService, "invitadoRepository", mock(InvitadoRepository.class));
+        ReflectionTestUtils.setField(ticketLoteService, "invitadoService", mock(InvitadoService.class));
+        ReflectionTestUtils.setField(ticketLoteService, "categoriaTicketRepository", categoriaTicketRepository);
+        ReflectionTestUtils.setField(ticketLoteService, "ticketEstadoService", mock(TicketEstadoService.class));
+        ReflectionTestUtils.setField(ticketLoteService, "ticketBusquedaService", mock(TicketBusquedaService.class));
+        ReflectionTestUtils.setField(ticketLoteService, "entityManager", mock(EntityManager.class));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        ReflectionTestUtils.setField(ticketLoteService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(ticketLoteService, "tamanoBloque", 2);
+        ticketLoteService.init();
+    }
+
+    @Test
+    void seValidaComoCrearInvitado() {
+        List<TicketLoteResultadoDTO> resultados = ticketLoteService.crearLote(List.of(
+                new TicketInvitadoDTO("Ana", "Ruiz", "11111111", "ana@correo.com", null,
+                        "No funciona", "Detalle", null, null, 1),
+                new TicketInvitadoDTO("Luis", "Paz", "22222222", null, null,
+                        "No funciona", "Detalle", "A001", "Lima", 1)));
+
+        assertTrue(resultados.get(0).success());
+        assertFalse(resultados.get(1).success());
+        assertEquals("El email es obligatorio", resultados.get(1).error());
+    }
+
+    @Test
+    void unErrorDeMySqlSeInformaEnSuLineaYElRestoSeGuarda() {
+        List<TicketLoteResultadoDTO> resultados = ticketLoteService.crearLote(List.of(
+                item("11111111"), item(DNI_RECHAZADO), item("33333333")));
+
+        assertEquals(List.of(0, 1, 2), resultados.stream().map(TicketLoteResultadoDTO::indice).toList());
+        assertTrue(resultados.get(0).success());
+        assertFalse(resultados.get(1).success());
+        assertTrue(resultados.get(1).error().contains("Data too long"));
+        assertTrue(resultados.get(2).success());
+    }
+
+    private static TicketInvitadoDTO item(String dni) {
+        return new TicketInvitadoDTO("Ana", "Ruiz", dni, dni + "@correo.com", null,
+                "No funciona", "Detalle", "A001", "Lima", 1);
+    }
+}